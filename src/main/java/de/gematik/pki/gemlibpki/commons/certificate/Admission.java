@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.NonNull;
@@ -42,7 +43,8 @@ import org.bouncycastle.cert.X509CertificateHolder;
 /**
  * Class to abstract the admission of a certificate. This class works with a parameterized variable
  * for the certificate in its constructor. As specified by gematik, there is only one admission. So
- * this class returns the first available information.
+ * this class returns the first available information. The admission is decoded once, on the first
+ * access, and the returned values are immutable, so an instance can be shared between threads.
  */
 @Slf4j
 public class Admission {
@@ -50,6 +52,8 @@ public class Admission {
   private final ASN1Encodable asn1Admission;
   private static final String NO_ADMISSION_MESSAGE = "Keine Admission vorhanden.";
 
+  private volatile Content content;
+
   /**
    * Constructor
    *
@@ -66,101 +70,203 @@ public class Admission {
     }
   }
 
+  private Admission(final ASN1Encodable asn1Admission) {
+    this.asn1Admission = asn1Admission;
+    if (asn1Admission == null) {
+      log.info(NO_ADMISSION_MESSAGE);
+    }
+  }
+
+  /**
+   * Creates the admission from the already decoded certificate
+   *
+   * @param parsedCertificate end entity certificate to get admission information from
+   * @return the admission
+   * @throws IOException if the admission extension cannot be read
+   */
+  public static Admission of(@NonNull final ParsedCertificate parsedCertificate)
+      throws IOException {
+    try {
+      return new Admission(
+          parsedCertificate.getExtensions().getExtensionParsedValue(id_isismtt_at_admission));
+    } catch (final IllegalArgumentException e) {
+      throw new IOException("Admission extension cannot be read.", e);
+    }
+  }
+
   /**
    * Reading admission authority
    *
    * @return String of the admission authority or an empty string if not present
    */
   public String getAdmissionAuthority() {
-    final AdmissionSyntax admissionInstance = AdmissionSyntax.getInstance(asn1Admission);
-
-    if (admissionInstance == null) {
-      return "";
-    }
-
-    return admissionInstance.getAdmissionAuthority().getName().toString();
+    return getContent().admissionAuthority;
   }
 
   /**
    * Reading profession items
    *
-   * @return Non-duplicate list of profession items of the first profession info of the first
-   *     admission in the certificate
+   * @return Non-duplicate, unmodifiable list of profession items of the first profession info of
+   *     the first admission in the certificate
    */
   public Set<String> getProfessionItems() {
-    final AdmissionSyntax admissionInstance = AdmissionSyntax.getInstance(asn1Admission);
-
-    if (admissionInstance == null) {
-      log.info(NO_ADMISSION_MESSAGE);
-      return Collections.emptySet();
-    }
-
-    final Admissions[] admissions = admissionInstance.getContentsOfAdmissions();
-    if (admissions.length == 0) {
-      log.info("Keine Elemente in der Admission vorhanden.");
-      return Collections.emptySet();
-    }
-
-    final ProfessionInfo[] professionInfos = admissions[0].getProfessionInfos();
-    if (professionInfos.length == 0) {
-      log.info("Keine ProfessionInfo vorhanden.");
-      return Collections.emptySet();
-    }
-
-    return Arrays.stream(professionInfos[0].getProfessionItems())
-        .map(DirectoryString::getString)
-        .collect(Collectors.toSet());
+    return getContent().professionItems;
   }
 
   /**
    * Reading profession oid's
    *
-   * @return Non-duplicate list of profession oid's of the first profession info of the first
-   *     admission in the certificate
+   * @return Non-duplicate, unmodifiable list of profession oid's of the first profession info of
+   *     the first admission in the certificate
    */
   public Set<String> getProfessionOids() {
+    return getContent().professionOidSet;
+  }
 
-    final AdmissionSyntax admissionInstance = AdmissionSyntax.getInstance(asn1Admission);
-
-    if (admissionInstance == null) {
-      log.info(NO_ADMISSION_MESSAGE);
-      return Collections.emptySet();
-    }
-
-    final Set<String> professionOids =
-        Arrays.stream(
-                admissionInstance.getContentsOfAdmissions()[0].getProfessionInfos()[0]
-                    .getProfessionOIDs())
-            .map(ASN1ObjectIdentifier::getId)
-            .collect(Collectors.toSet());
-
-    if (professionOids.isEmpty()) {
-      log.info("Keine ProfessionOid vorhanden.");
-      return Collections.emptySet();
-    }
-
-    return professionOids;
+  /**
+   * Reading the roles of the profession oid's, profession oid's unknown to {@link Role} are
+   * skipped
+   *
+   * @return unmodifiable set of the roles of the first profession info of the first admission in
+   *     the certificate
+   */
+  public Set<Role> getRoles() {
+    return getContent().roleSet;
   }
 
   /**
    * Reading registration number
    *
    * @return String of the registration number of the first profession info of the first admission
-   *     in the certificate
+   *     in the certificate or an empty string if not present
    */
   public String getRegistrationNumber() {
+    return getContent().registrationNumber;
+  }
+
+  /**
+   * Checks if one of the profession oid's is in the given set, without creating intermediate
+   * collections
+   *
+   * @param professionOids the profession oid's to search for
+   * @return true if at least one profession oid is in the set
+   */
+  public boolean hasAnyProfessionOid(@NonNull final Set<String> professionOids) {
+    for (final String professionOid : getContent().professionOids) {
+      if (professionOids.contains(professionOid)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if one of the roles is in the given set, for an {@link EnumSet} this is a bit test per
+   * role of the certificate
+   *
+   * @param roles the roles to search for
+   * @return true if at least one role is in the set
+   */
+  public boolean hasAnyRole(@NonNull final Set<Role> roles) {
+    for (final Role role : getContent().roles) {
+      if (roles.contains(role)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** The admission extension is decoded once, on the first access */
+  private Content getContent() {
+    Content result = content;
+    if (result == null) {
+      result = new Content(AdmissionSyntax.getInstance(asn1Admission));
+      content = result;
+    }
+    return result;
+  }
+
+  /** Immutable values of the first profession info of the first admission */
+  private static final class Content {
+
+    private final String admissionAuthority;
+    private final Set<String> professionItems;
+    private final String[] professionOids;
+    private final Set<String> professionOidSet;
+    private final Role[] roles;
+    private final Set<Role> roleSet;
+    private final String registrationNumber;
+
+    private Content(final AdmissionSyntax admissionInstance) {
+      admissionAuthority = getAdmissionAuthority(admissionInstance);
+
+      final ProfessionInfo professionInfo = getFirstProfessionInfo(admissionInstance);
+      if (professionInfo == null) {
+        professionItems = Set.of();
+        professionOids = new String[0];
+        professionOidSet = Set.of();
+        roles = new Role[0];
+        roleSet = Set.of();
+        registrationNumber = "";
+        return;
+      }
 
-    final String regNr =
-        AdmissionSyntax.getInstance(asn1Admission)
-            .getContentsOfAdmissions()[0]
-            .getProfessionInfos()[0]
-            .getRegistrationNumber();
+      professionItems =
+          Arrays.stream(professionInfo.getProfessionItems())
+              .map(DirectoryString::getString)
+              .collect(Collectors.toUnmodifiableSet());
 
-    if (regNr.isEmpty()) {
-      log.info("Keine RegistrationNumber vorhanden.");
-      return "";
+      professionOids =
+          Arrays.stream(professionInfo.getProfessionOIDs())
+              .map(ASN1ObjectIdentifier::getId)
+              .distinct()
+              .toArray(String[]::new);
+      if (professionOids.length == 0) {
+        log.info("Keine ProfessionOid vorhanden.");
+      }
+      professionOidSet = Set.of(professionOids);
+
+      final EnumSet<Role> roleEnumSet = EnumSet.noneOf(Role.class);
+      for (final String professionOid : professionOids) {
+        Role.getByProfessionOid(professionOid).ifPresent(roleEnumSet::add);
+      }
+      roles = roleEnumSet.toArray(new Role[0]);
+      roleSet = Collections.unmodifiableSet(roleEnumSet);
+
+      final String regNr = professionInfo.getRegistrationNumber();
+      if (regNr == null || regNr.isEmpty()) {
+        log.info("Keine RegistrationNumber vorhanden.");
+        registrationNumber = "";
+      } else {
+        registrationNumber = regNr;
+      }
+    }
+
+    private static String getAdmissionAuthority(final AdmissionSyntax admissionInstance) {
+      if (admissionInstance == null || admissionInstance.getAdmissionAuthority() == null) {
+        return "";
+      }
+      return admissionInstance.getAdmissionAuthority().getName().toString();
     }
 
-    return regNr;
+    private static ProfessionInfo getFirstProfessionInfo(final AdmissionSyntax admissionInstance) {
+      if (admissionInstance == null) {
+        log.info(NO_ADMISSION_MESSAGE);
+        return null;
+      }
+
+      final Admissions[] admissions = admissionInstance.getContentsOfAdmissions();
+      if (admissions.length == 0) {
+        log.info("Keine Elemente in der Admission vorhanden.");
+        return null;
+      }
+
+      final ProfessionInfo[] professionInfos = admissions[0].getProfessionInfos();
+      if (professionInfos.length == 0) {
+        log.info("Keine ProfessionInfo vorhanden.");
+        return null;
+      }
+      return professionInfos[0];
+    }
   }
 }
@@ -0,0 +1,377 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.certificate;
+
+import static de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils.setBouncyCastleProvider;
+
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiParsingException;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
+import de.gematik.pki.gemlibpki.commons.tsl.TspInformationProvider;
+import de.gematik.pki.gemlibpki.commons.tsl.TspService;
+import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
+import de.gematik.pki.gemlibpki.commons.validators.CertificateProfileByCertificateTypeOidValidator;
+import de.gematik.pki.gemlibpki.commons.validators.CertificateTypeOidInIssuerTspServiceExtensionValidator;
+import de.gematik.pki.gemlibpki.commons.validators.CriticalExtensionsValidator;
+import de.gematik.pki.gemlibpki.commons.validators.ExtendedKeyUsageValidator;
+import de.gematik.pki.gemlibpki.commons.validators.IssuerServiceStatusValidator;
+import de.gematik.pki.gemlibpki.commons.validators.IssuerSignatureVerifier;
+import de.gematik.pki.gemlibpki.commons.validators.KeyUsageValidator;
+import de.gematik.pki.gemlibpki.commons.validators.SignatureValidator;
+import de.gematik.pki.gemlibpki.commons.validators.SignatureVerificationCache;
+import de.gematik.pki.gemlibpki.commons.validators.ValidationOutcome;
+import de.gematik.pki.gemlibpki.commons.validators.ValidityValidator;
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The certificate checks of TUC_PKI_018 (without OCSP), compiled once from the configuration:
+ * product type, certificate profiles and TSP service list as trust store. The validators that
+ * only depend on the configuration are created once; only the validators bound to the issuer of a
+ * certificate are created per certificate, they share one {@link IssuerSignatureVerifier} per
+ * issuer. The profiles are indexed by certificate type OID, so only the profiles matching the
+ * certificate policies are checked. Instances can be shared between threads.
+ */
+@Slf4j
+public final class CompiledTucPki018Pipeline {
+
+  static {
+    setBouncyCastleProvider();
+  }
+
+  @Getter private final String productType;
+  @Getter private final List<CertificateProfile> certificateProfiles;
+
+  private final TspInformationProvider tspInformationProvider;
+  private final ValidityValidator validityValidator;
+  private final KeyUsageValidator keyUsageValidator;
+  private final ExtendedKeyUsageValidator extendedKeyUsageValidator;
+  private final CertificateProfileByCertificateTypeOidValidator
+      certificateProfileByCertificateTypeOidValidator;
+  private final CriticalExtensionsValidator criticalExtensionsValidator;
+  private final SignatureVerificationCache signatureVerificationCache;
+  private final Map<X509Certificate, IssuerSignatureVerifier> issuerSignatureVerifiers =
+      new ConcurrentHashMap<>();
+
+  private final Map<String, Set<CertificateProfile>> profilesByCertificateTypeOid;
+  private final Set<CertificateProfile> profilesWithoutCertificateTypeCheck;
+
+  @Builder
+  private CompiledTucPki018Pipeline(
+      @NonNull final String productType,
+      @NonNull final List<TspService> tspServiceList,
+      @NonNull final List<CertificateProfile> certificateProfiles,
+      final SignatureVerificationCache signatureVerificationCache) {
+    this.productType = productType;
+    this.certificateProfiles = List.copyOf(certificateProfiles);
+    this.signatureVerificationCache = signatureVerificationCache;
+
+    tspInformationProvider = new TspInformationProvider(List.copyOf(tspServiceList), productType);
+    validityValidator = new ValidityValidator(productType);
+    keyUsageValidator = new KeyUsageValidator(productType);
+    extendedKeyUsageValidator = new ExtendedKeyUsageValidator(productType);
+    certificateProfileByCertificateTypeOidValidator =
+        new CertificateProfileByCertificateTypeOidValidator(productType);
+    criticalExtensionsValidator = new CriticalExtensionsValidator(productType);
+
+    profilesByCertificateTypeOid = new HashMap<>();
+    profilesWithoutCertificateTypeCheck = EnumSet.noneOf(CertificateProfile.class);
+    for (final CertificateProfile certificateProfile : this.certificateProfiles) {
+      final CertificateType certificateType = certificateProfile.getCertificateType();
+      if (certificateProfile == CertificateProfile.CERT_PROFILE_C_TSL_SIG
+          || certificateType == CertificateType.CERT_TYPE_ANY) {
+        profilesWithoutCertificateTypeCheck.add(certificateProfile);
+      } else {
+        profilesByCertificateTypeOid
+            .computeIfAbsent(
+                certificateType.getOid(), oid -> EnumSet.noneOf(CertificateProfile.class))
+            .add(certificateProfile);
+      }
+    }
+  }
+
+  /**
+   * Performs the certificate checks of TUC_PKI_018: determination of the issuer, common checks and
+   * profile checks.
+   *
+   * @param x509EeCert end-entity certificate to check
+   * @param referenceDate date to check the validity against
+   * @return the determined {@link Admission}
+   * @throws GemPkiException if the certificate is invalid
+   */
+  public Admission verify(
+      @NonNull final X509Certificate x509EeCert, @NonNull final ZonedDateTime referenceDate)
+      throws GemPkiException {
+    final TspServiceSubset tspServiceSubset = getIssuerTspServiceSubset(x509EeCert);
+    final ParsedCertificate parsedEeCert = new ParsedCertificate(x509EeCert);
+    commonChecks(parsedEeCert, tspServiceSubset, referenceDate);
+    return profileChecks(parsedEeCert, tspServiceSubset);
+  }
+
+  /**
+   * Determines the issuer of the end-entity certificate from the trust store.
+   *
+   * @param x509EeCert end-entity certificate
+   * @return the issuer
+   * @throws GemPkiException if the issuer cannot be determined
+   */
+  public TspServiceSubset getIssuerTspServiceSubset(@NonNull final X509Certificate x509EeCert)
+      throws GemPkiException {
+    return tspInformationProvider.getIssuerTspServiceSubset(x509EeCert);
+  }
+
+  /**
+   * Common checks for date/mathematical validity and issuer service status
+   *
+   * @param x509EeCert end-entity certificate to check
+   * @param tspServiceSubset the issuing certificates as trust store
+   * @param referenceDate date to check the validity against
+   * @throws GemPkiException if the certificate verification fails
+   */
+  public void commonChecks(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final TspServiceSubset tspServiceSubset,
+      @NonNull final ZonedDateTime referenceDate)
+      throws GemPkiException {
+    commonChecks(new ParsedCertificate(x509EeCert), tspServiceSubset, referenceDate);
+  }
+
+  /**
+   * Common checks for date/mathematical validity and issuer service status of a certificate that
+   * is parsed once for all checks
+   *
+   * @param parsedEeCert end-entity certificate to check
+   * @param tspServiceSubset the issuing certificates as trust store
+   * @param referenceDate date to check the validity against
+   * @throws GemPkiException if the certificate verification fails
+   */
+  public void commonChecks(
+      @NonNull final ParsedCertificate parsedEeCert,
+      @NonNull final TspServiceSubset tspServiceSubset,
+      @NonNull final ZonedDateTime referenceDate)
+      throws GemPkiException {
+    final X509Certificate x509EeCert = parsedEeCert.getX509Certificate();
+    validityValidator.validateCertificate(x509EeCert, referenceDate);
+    new SignatureValidator(
+            productType,
+            getIssuerSignatureVerifier(tspServiceSubset.getX509IssuerCert()),
+            signatureVerificationCache)
+        .validateParsedCertificate(parsedEeCert, referenceDate);
+    new IssuerServiceStatusValidator(productType, tspServiceSubset)
+        .validateCertificate(x509EeCert, referenceDate);
+  }
+
+  /**
+   * The issuer certificates are read from the TSP service list for every lookup, equal issuer
+   * certificates share one verifier. The number of verifiers is limited by the issuer certificates
+   * of the trust store.
+   */
+  private IssuerSignatureVerifier getIssuerSignatureVerifier(final X509Certificate x509IssuerCert) {
+    return issuerSignatureVerifiers.computeIfAbsent(x509IssuerCert, IssuerSignatureVerifier::new);
+  }
+
+  /**
+   * Verifies the end-entity certificate against the configured certificate profiles, the first
+   * matching profile determines the admission.
+   *
+   * @param x509EeCert end-entity certificate to check
+   * @param tspServiceSubset the issuing certificates as trust store
+   * @return the determined {@link Admission}
+   * @throws GemPkiException if the certificate matches none of the profiles
+   */
+  public Admission profileChecks(
+      @NonNull final X509Certificate x509EeCert, @NonNull final TspServiceSubset tspServiceSubset)
+      throws GemPkiException {
+    return profileChecks(new ParsedCertificate(x509EeCert), tspServiceSubset);
+  }
+
+  /**
+   * Verifies the parsed end-entity certificate against the configured certificate profiles, the
+   * first matching profile determines the admission. The certificate is decoded once for all
+   * profiles.
+   *
+   * @param parsedEeCert end-entity certificate to check
+   * @param tspServiceSubset the issuing certificates as trust store
+   * @return the determined {@link Admission}
+   * @throws GemPkiException if the certificate matches none of the profiles
+   */
+  public Admission profileChecks(
+      @NonNull final ParsedCertificate parsedEeCert,
+      @NonNull final TspServiceSubset tspServiceSubset)
+      throws GemPkiException {
+    if (certificateProfiles.isEmpty()) {
+      throw new GemPkiRuntimeException("Liste der konfigurierten Zertifikatsprofile ist leer.");
+    }
+
+    final Set<CertificateProfile> candidates = getCandidateProfiles(parsedEeCert);
+    final EnumMap<CertificateProfile, ValidationOutcome> errors =
+        new EnumMap<>(CertificateProfile.class);
+
+    Admission admission =
+        profileChecks(parsedEeCert, tspServiceSubset, candidates::contains, errors);
+    if (admission == null) {
+      // no candidate matches: the other profiles are checked as well, to report all errors
+      admission =
+          profileChecks(
+              parsedEeCert, tspServiceSubset, profile -> !candidates.contains(profile), errors);
+    }
+    if (admission == null) {
+      throw toParsingException(errors);
+    }
+    return admission;
+  }
+
+  /**
+   * The profiles that can match the certificate: the profiles of the certificate type OIDs in the
+   * certificate policies and the profiles without certificate type check. Only the latter, if the
+   * certificate has no policy extension. All profiles, if the policies cannot be read.
+   */
+  Set<CertificateProfile> getCandidateProfiles(final X509Certificate x509EeCert) {
+    return getCandidateProfiles(new ParsedCertificate(x509EeCert));
+  }
+
+  private Set<CertificateProfile> getCandidateProfiles(final ParsedCertificate parsedEeCert) {
+    final Set<CertificateProfile> candidates = EnumSet.noneOf(CertificateProfile.class);
+    candidates.addAll(profilesWithoutCertificateTypeCheck);
+    try {
+      for (final String policyOid : parsedEeCert.getPolicyOids()) {
+        candidates.addAll(profilesByCertificateTypeOid.getOrDefault(policyOid, Set.of()));
+      }
+    } catch (final IllegalArgumentException e) {
+      return EnumSet.copyOf(certificateProfiles);
+    }
+    return candidates;
+  }
+
+  /** Returns the admission of the first matching profile or null, the errors are collected */
+  private Admission profileChecks(
+      final ParsedCertificate parsedEeCert,
+      final TspServiceSubset tspServiceSubset,
+      final Predicate<CertificateProfile> profileFilter,
+      final Map<CertificateProfile, ValidationOutcome> errors) {
+
+    for (final CertificateProfile certificateProfile : certificateProfiles) {
+      if (!profileFilter.test(certificateProfile)) {
+        continue;
+      }
+      final ValidationOutcome outcome =
+          validate(parsedEeCert, certificateProfile, tspServiceSubset);
+      if (!outcome.isValid()) {
+        errors.put(certificateProfile, outcome);
+        continue;
+      }
+      log.debug(
+          "Übergebenes Zertifikat wurde erfolgreich gegen das Zertifikatsprofil {} getestet.",
+          certificateProfile);
+      try {
+        final Admission admission = parsedEeCert.getAdmission();
+        if (!admission.getProfessionOids().isEmpty()) {
+          log.debug("Gefundene Rolle(n): {}", admission.getProfessionItems());
+        }
+        return admission;
+      } catch (final IOException e) {
+        throw new GemPkiRuntimeException(
+            "Error in processing the admission of the end entity certificate.", e);
+      }
+    }
+    return null;
+  }
+
+  /** The exceptions of the failed profiles are only created here, when they are thrown */
+  private GemPkiParsingException toParsingException(
+      final Map<CertificateProfile, ValidationOutcome> errors) {
+    final EnumMap<CertificateProfile, GemPkiException> exceptions =
+        new EnumMap<>(CertificateProfile.class);
+    errors.forEach(
+        (certificateProfile, outcome) ->
+            exceptions.put(certificateProfile, outcome.toException(productType).orElseThrow()));
+    return new GemPkiParsingException(productType, exceptions);
+  }
+
+  /**
+   * Verifies the end-entity certificate against a single certificate profile.
+   *
+   * @param x509EeCert end-entity certificate to check
+   * @param certificateProfile the profile to check the certificate against
+   * @param tspServiceSubset the issuing certificates as trust store
+   * @throws GemPkiException if the certificate does not match the profile
+   */
+  public void profileChecks(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final CertificateProfile certificateProfile,
+      @NonNull final TspServiceSubset tspServiceSubset)
+      throws GemPkiException {
+    validate(x509EeCert, certificateProfile, tspServiceSubset).throwIfInvalid(productType);
+  }
+
+  /**
+   * Verifies the end-entity certificate against a single certificate profile without throwing an
+   * exception on a mismatch.
+   *
+   * @param x509EeCert end-entity certificate to check
+   * @param certificateProfile the profile to check the certificate against
+   * @param tspServiceSubset the issuing certificates as trust store
+   * @return the outcome of the first failed check, or valid
+   */
+  public ValidationOutcome validate(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final CertificateProfile certificateProfile,
+      @NonNull final TspServiceSubset tspServiceSubset) {
+    return validate(new ParsedCertificate(x509EeCert), certificateProfile, tspServiceSubset);
+  }
+
+  private ValidationOutcome validate(
+      final ParsedCertificate parsedEeCert,
+      final CertificateProfile certificateProfile,
+      final TspServiceSubset tspServiceSubset) {
+    ValidationOutcome outcome = keyUsageValidator.validate(parsedEeCert, certificateProfile);
+    if (outcome.isValid()) {
+      outcome = extendedKeyUsageValidator.validate(parsedEeCert, certificateProfile);
+    }
+    if (outcome.isValid()) {
+      outcome =
+          certificateProfileByCertificateTypeOidValidator.validate(
+              parsedEeCert, certificateProfile);
+    }
+    if (outcome.isValid()) {
+      outcome =
+          new CertificateTypeOidInIssuerTspServiceExtensionValidator(productType, tspServiceSubset)
+              .validate(parsedEeCert, certificateProfile);
+    }
+    if (outcome.isValid()) {
+      outcome = criticalExtensionsValidator.validate(parsedEeCert, certificateProfile);
+    }
+    return outcome;
+  }
+}
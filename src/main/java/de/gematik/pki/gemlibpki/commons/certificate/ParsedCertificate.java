@@ -0,0 +1,207 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.certificate;
+
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
+import java.io.IOException;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import lombok.Getter;
+import lombok.NonNull;
+import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
+import org.bouncycastle.asn1.x509.Certificate;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.SubjectKeyIdentifier;
+import org.bouncycastle.cert.X509CertificateHolder;
+
+/**
+ * View of a certificate that decodes its DER encoding once and reads each extension at most once:
+ * admission, policy oids, authority information access, key usage, extended key usage, subject and
+ * authority key identifier, critical extensions and the SHA-256 fingerprint. Intended to be created
+ * once per certificate and shared by all checks of the certificate. The values are immutable or
+ * returned as copies, so an instance can be shared between threads.
+ */
+public final class ParsedCertificate {
+
+  @Getter private final X509Certificate x509Certificate;
+  private final byte[] encoded;
+  private final X509CertificateHolder certificateHolder;
+
+  private volatile Admission admission;
+  private volatile Set<String> policyOids;
+  private volatile Optional<AuthorityInformationAccess> authorityInformationAccess;
+  private volatile boolean[] keyUsage;
+  private volatile Optional<List<String>> extendedKeyUsage;
+  private volatile Optional<byte[]> subjectKeyIdentifier;
+  private volatile Optional<byte[]> authorityKeyIdentifier;
+  private volatile Set<String> criticalExtensionOids;
+  private volatile byte[] sha256Fingerprint;
+
+  /**
+   * Constructor
+   *
+   * @param x509Certificate the certificate
+   */
+  public ParsedCertificate(@NonNull final X509Certificate x509Certificate) {
+    this.x509Certificate = x509Certificate;
+    encoded = GemLibPkiUtils.certToBytes(x509Certificate);
+    certificateHolder = new X509CertificateHolder(Certificate.getInstance(encoded));
+  }
+
+  /**
+   * @return the extensions of the certificate, null if it has none
+   */
+  public Extensions getExtensions() {
+    return certificateHolder.getExtensions();
+  }
+
+  /**
+   * @return the admission of the certificate
+   * @throws IOException if the admission extension cannot be read
+   */
+  public Admission getAdmission() throws IOException {
+    Admission result = admission;
+    if (result == null) {
+      result = Admission.of(this);
+      admission = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return the policy oids of the certificate as in {@link Policies#getPolicyOids()}, empty if the
+   *     certificate has no policy extension
+   */
+  public Set<String> getPolicyOids() {
+    Set<String> result = policyOids;
+    if (result == null) {
+      result = Set.copyOf(Policies.of(this).getPolicyOids());
+      policyOids = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return the authority information access extension of the certificate, if present
+   */
+  public Optional<AuthorityInformationAccess> getAuthorityInformationAccess() {
+    Optional<AuthorityInformationAccess> result = authorityInformationAccess;
+    if (result == null) {
+      result = Optional.ofNullable(AuthorityInformationAccess.fromExtensions(getExtensions()));
+      authorityInformationAccess = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return a copy of the key usage bits as in {@link X509Certificate#getKeyUsage()}, null if the
+   *     certificate has no key usage extension
+   */
+  public boolean[] getKeyUsage() {
+    boolean[] result = keyUsage;
+    if (result == null) {
+      result = x509Certificate.getKeyUsage();
+      if (result == null) {
+        return null;
+      }
+      keyUsage = result;
+    }
+    return result.clone();
+  }
+
+  /**
+   * @return the extended key usage oids, empty if the certificate has no extended key usage
+   *     extension
+   */
+  public Optional<List<String>> getExtendedKeyUsage() {
+    Optional<List<String>> result = extendedKeyUsage;
+    if (result == null) {
+      try {
+        result = Optional.ofNullable(x509Certificate.getExtendedKeyUsage()).map(List::copyOf);
+      } catch (final CertificateParsingException e) {
+        throw new GemPkiRuntimeException(
+            "Fehler beim Lesen der ExtendedKeyUsage des Zertifikats: "
+                + x509Certificate.getSubjectX500Principal().getName(),
+            e);
+      }
+      extendedKeyUsage = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return a copy of the subject key identifier, if present
+   */
+  public Optional<byte[]> getSubjectKeyIdentifier() {
+    Optional<byte[]> result = subjectKeyIdentifier;
+    if (result == null) {
+      result =
+          Optional.ofNullable(SubjectKeyIdentifier.fromExtensions(getExtensions()))
+              .map(SubjectKeyIdentifier::getKeyIdentifier);
+      subjectKeyIdentifier = result;
+    }
+    return result.map(byte[]::clone);
+  }
+
+  /**
+   * @return a copy of the key identifier of the authority key identifier, if present
+   */
+  public Optional<byte[]> getAuthorityKeyIdentifier() {
+    Optional<byte[]> result = authorityKeyIdentifier;
+    if (result == null) {
+      result =
+          Optional.ofNullable(AuthorityKeyIdentifier.fromExtensions(getExtensions()))
+              .map(AuthorityKeyIdentifier::getKeyIdentifierOctets);
+      authorityKeyIdentifier = result;
+    }
+    return result.map(byte[]::clone);
+  }
+
+  /**
+   * @return the oids of the critical extensions, empty if there are none
+   */
+  public Set<String> getCriticalExtensionOids() {
+    Set<String> result = criticalExtensionOids;
+    if (result == null) {
+      final Set<String> oids = x509Certificate.getCriticalExtensionOIDs();
+      result = (oids == null) ? Set.of() : Set.copyOf(oids);
+      criticalExtensionOids = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return a copy of the SHA-256 fingerprint of the certificate
+   */
+  public byte[] getSha256Fingerprint() {
+    byte[] result = sha256Fingerprint;
+    if (result == null) {
+      result = GemLibPkiUtils.calculateSha256(encoded);
+      sha256Fingerprint = result;
+    }
+    return result.clone();
+  }
+}
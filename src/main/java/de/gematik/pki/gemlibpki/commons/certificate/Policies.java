@@ -56,6 +56,23 @@ public class Policies {
             .getPolicyInformation();
   }
 
+  private Policies(final CertificatePolicies certificatePolicies) {
+    policyExtensions =
+        (certificatePolicies == null)
+            ? new PolicyInformation[0]
+            : certificatePolicies.getPolicyInformation();
+  }
+
+  /**
+   * Uses policy information from extensions of the already decoded certificate
+   *
+   * @param parsedCertificate end-entity certificate
+   * @return the policies, without policy oids if the certificate has no policy extension
+   */
+  public static Policies of(@NonNull final ParsedCertificate parsedCertificate) {
+    return new Policies(CertificatePolicies.fromExtensions(parsedCertificate.getExtensions()));
+  }
+
   /**
    * Reading policy oid's
    *
@@ -20,7 +20,13 @@
 
 package de.gematik.pki.gemlibpki.commons.certificate;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
 /** Enum that host {@link Role} information. */
@@ -189,6 +195,21 @@ public enum Role {
   // misc
   ROLE_NONE("", "");
 
+  private static final Map<String, Role> ROLES_BY_PROFESSION_OID =
+      Arrays.stream(values())
+          .filter(role -> !role.professionOid.isEmpty())
+          .collect(Collectors.toUnmodifiableMap(Role::getProfessionOid, Function.identity()));
+
   private final String professionItem;
   private final String professionOid;
+
+  /**
+   * Returns the role of the given profession oid
+   *
+   * @param professionOid the profession oid
+   * @return the role or empty if the profession oid is unknown
+   */
+  public static Optional<Role> getByProfessionOid(@NonNull final String professionOid) {
+    return Optional.ofNullable(ROLES_BY_PROFESSION_OID.get(professionOid));
+  }
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.certificate;
+
+import de.gematik.pki.gemlibpki.commons.error.ErrorClassifier;
+import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.tsl.TspService;
+import de.gematik.pki.gemlibpki.commons.utils.BoundedLruCache;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
+import java.nio.ByteBuffer;
+import java.security.cert.X509Certificate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Optional cache of TUC_PKI_018 decisions: the {@link Admission} of a valid certificate or the
+ * {@link GemPkiException} of an invalid one. A decision is identified by the SHA-256 fingerprint
+ * of the certificate, the product type, the certificate profiles, the trust store (the TSP service
+ * list instance, so a new TSL never hits decisions of the previous one) and whether the OCSP
+ * status was checked. A decision is valid from its reference date for ttlSeconds, at most until
+ * notAfter of the certificate and until the OCSP response it is based on may not be used anymore;
+ * ttlSeconds should not exceed the OCSP grace period. Only security errors are cached, technical
+ * errors like an unavailable OCSP responder are checked again. Of an invalid certificate, only the
+ * error code and message are kept, each hit gets a new {@link GemPkiException}. The number of
+ * decisions is limited to maxSize, the least recently used ones are evicted.
+ */
+public class TucPki018DecisionCache {
+
+  public static final int DEFAULT_MAX_SIZE = 10_000;
+
+  @Getter @Setter private int ttlSeconds;
+
+  private final BoundedLruCache<DecisionKey, Decision> decisions =
+      new BoundedLruCache<>(DEFAULT_MAX_SIZE);
+
+  /**
+   * Constructor
+   *
+   * @param ttlSeconds how long a decision is valid in seconds, at most the OCSP grace period
+   */
+  public TucPki018DecisionCache(final int ttlSeconds) {
+    this.ttlSeconds = ttlSeconds;
+  }
+
+  /**
+   * @return maximum number of cached decisions
+   */
+  public int getMaxSize() {
+    return decisions.getMaxSize();
+  }
+
+  /**
+   * @param maxSize maximum number of cached decisions, the least recently used ones are evicted
+   */
+  public void setMaxSize(final int maxSize) {
+    decisions.setMaxSize(maxSize);
+  }
+
+  /**
+   * @return number of cached decisions
+   */
+  public int getSize() {
+    return decisions.size();
+  }
+
+  /** Removes all decisions, e.g. after a TSL update. */
+  public void clear() {
+    decisions.clear();
+  }
+
+  Optional<TucPki018Result> get(
+      @NonNull final DecisionKey key, @NonNull final ZonedDateTime referenceDate) {
+    // decisions are not reused for reference dates before the one they were made for
+    return decisions
+        .get(key)
+        .filter(
+            decision ->
+                !referenceDate.isBefore(decision.checkedAt)
+                    && !referenceDate.isAfter(decision.validUntil))
+        .map(Decision::toResult);
+  }
+
+  void save(
+      @NonNull final DecisionKey key,
+      @NonNull final TucPki018Result result,
+      @NonNull final ZonedDateTime referenceDate) {
+    put(key, result, referenceDate, referenceDate.plusSeconds(ttlSeconds));
+  }
+
+  /** Saves a decision based on an OCSP response, that may be used until ocspValidUntil. */
+  void save(
+      @NonNull final DecisionKey key,
+      @NonNull final TucPki018Result result,
+      @NonNull final ZonedDateTime referenceDate,
+      @NonNull final ZonedDateTime ocspValidUntil) {
+    final ZonedDateTime expiry = referenceDate.plusSeconds(ttlSeconds);
+    put(key, result, referenceDate, expiry.isBefore(ocspValidUntil) ? expiry : ocspValidUntil);
+  }
+
+  private void put(
+      final DecisionKey key,
+      final TucPki018Result result,
+      final ZonedDateTime referenceDate,
+      final ZonedDateTime expiry) {
+
+    if (ttlSeconds <= 0 || !isCacheable(result)) {
+      return;
+    }
+
+    final ZonedDateTime notAfter =
+        ZonedDateTime.ofInstant(result.getX509EeCert().getNotAfter().toInstant(), ZoneOffset.UTC);
+    final ZonedDateTime validUntil = expiry.isBefore(notAfter) ? expiry : notAfter;
+
+    decisions.put(key, Decision.of(result, referenceDate, validUntil));
+  }
+
+  private static boolean isCacheable(final TucPki018Result result) {
+    return result
+        .getGemPkiException()
+        .map(e -> e.getError().getErrorClassifier())
+        .map(
+            errorClassifier ->
+                errorClassifier == ErrorClassifier.SECURITY_ERROR
+                    || errorClassifier == ErrorClassifier.SECURITY_WARNING)
+        .orElse(true);
+  }
+
+  /** The result of a valid certificate or the error of an invalid one */
+  @RequiredArgsConstructor
+  private static final class Decision {
+    private final TucPki018Result validResult;
+    private final X509Certificate x509EeCert;
+    private final ErrorCode error;
+    private final String errorMessage;
+    private final ZonedDateTime checkedAt;
+    private final ZonedDateTime validUntil;
+
+    private static Decision of(
+        final TucPki018Result result,
+        final ZonedDateTime checkedAt,
+        final ZonedDateTime validUntil) {
+      return result
+          .getGemPkiException()
+          .map(
+              e ->
+                  new Decision(
+                      null,
+                      result.getX509EeCert(),
+                      e.getError(),
+                      e.getMessage(),
+                      checkedAt,
+                      validUntil))
+          .orElseGet(
+              () ->
+                  new Decision(
+                      result, result.getX509EeCert(), null, null, checkedAt, validUntil));
+    }
+
+    private TucPki018Result toResult() {
+      if (validResult != null) {
+        return validResult;
+      }
+      return TucPki018Result.invalid(x509EeCert, new GemPkiException(error, errorMessage, null));
+    }
+  }
+
+  /** Identifies a decision, the trust store by the identity of the TSP service list */
+  static final class DecisionKey {
+    private final ByteBuffer fingerprint;
+    private final String productType;
+    private final List<CertificateProfile> certificateProfiles;
+    private final List<TspService> tspServiceList;
+    private final boolean withOcspCheck;
+
+    private DecisionKey(
+        final byte[] fingerprint,
+        final String productType,
+        final List<CertificateProfile> certificateProfiles,
+        final List<TspService> tspServiceList,
+        final boolean withOcspCheck) {
+      this.fingerprint = ByteBuffer.wrap(fingerprint);
+      this.productType = productType;
+      this.certificateProfiles = certificateProfiles;
+      this.tspServiceList = tspServiceList;
+      this.withOcspCheck = withOcspCheck;
+    }
+
+    static DecisionKey of(
+        @NonNull final X509Certificate x509EeCert,
+        @NonNull final String productType,
+        @NonNull final List<CertificateProfile> certificateProfiles,
+        @NonNull final List<TspService> tspServiceList,
+        final boolean withOcspCheck) {
+      return new DecisionKey(
+          GemLibPkiUtils.calculateSha256(GemLibPkiUtils.certToBytes(x509EeCert)),
+          productType,
+          certificateProfiles,
+          tspServiceList,
+          withOcspCheck);
+    }
+
+    static DecisionKey of(
+        @NonNull final ParsedCertificate parsedEeCert,
+        @NonNull final String productType,
+        @NonNull final List<CertificateProfile> certificateProfiles,
+        @NonNull final List<TspService> tspServiceList,
+        final boolean withOcspCheck) {
+      return new DecisionKey(
+          parsedEeCert.getSha256Fingerprint(),
+          productType,
+          certificateProfiles,
+          tspServiceList,
+          withOcspCheck);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof final DecisionKey other
+          && tspServiceList == other.tspServiceList
+          && withOcspCheck == other.withOcspCheck
+          && fingerprint.equals(other.fingerprint)
+          && productType.equals(other.productType)
+          && certificateProfiles.equals(other.certificateProfiles);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = fingerprint.hashCode();
+      result = 31 * result + productType.hashCode();
+      result = 31 * result + certificateProfiles.hashCode();
+      result = 31 * result + Boolean.hashCode(withOcspCheck);
+      return 31 * result + System.identityHashCode(tspServiceList);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.certificate;
+
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import java.security.cert.X509Certificate;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Result of the TUC_PKI_018 checks of a single end-entity certificate within a batch: either the
+ * determined {@link Admission}, the {@link GemPkiException} the certificate failed with or the
+ * {@link RuntimeException} its checks aborted with.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TucPki018Result {
+
+  @Getter @NonNull private final X509Certificate x509EeCert;
+  private final Admission admission;
+  private final GemPkiException gemPkiException;
+  private final RuntimeException runtimeException;
+
+  static TucPki018Result valid(
+      @NonNull final X509Certificate x509EeCert, @NonNull final Admission admission) {
+    return new TucPki018Result(x509EeCert, admission, null, null);
+  }
+
+  static TucPki018Result invalid(
+      @NonNull final X509Certificate x509EeCert, @NonNull final GemPkiException gemPkiException) {
+    return new TucPki018Result(x509EeCert, null, gemPkiException, null);
+  }
+
+  static TucPki018Result failed(
+      @NonNull final X509Certificate x509EeCert, @NonNull final RuntimeException runtimeException) {
+    return new TucPki018Result(x509EeCert, null, null, runtimeException);
+  }
+
+  /**
+   * @return true if the certificate passed all checks
+   */
+  public boolean isValid() {
+    return gemPkiException == null && runtimeException == null;
+  }
+
+  /**
+   * @return the determined admission if the certificate is valid
+   */
+  public Optional<Admission> getAdmission() {
+    return Optional.ofNullable(admission);
+  }
+
+  /**
+   * @return the exception the certificate failed with if the certificate is invalid
+   */
+  public Optional<GemPkiException> getGemPkiException() {
+    return Optional.ofNullable(gemPkiException);
+  }
+
+  /**
+   * @return the unexpected exception the checks of the certificate aborted with
+   */
+  public Optional<RuntimeException> getRuntimeException() {
+    return Optional.ofNullable(runtimeException);
+  }
+}
@@ -23,25 +23,38 @@ package de.gematik.pki.gemlibpki.commons.certificate;
 import static de.gematik.pki.gemlibpki.commons.ocsp.OcspConstants.OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_FUTURE_MILLISECONDS;
 import static de.gematik.pki.gemlibpki.commons.ocsp.OcspConstants.OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS;
 
+import de.gematik.pki.gemlibpki.commons.certificate.TucPki018DecisionCache.DecisionKey;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
-import de.gematik.pki.gemlibpki.commons.exception.GemPkiParsingException;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspConstants;
-import de.gematik.pki.gemlibpki.commons.ocsp.OcspRespCache;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponderRegistry;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponseStore;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspSignerIndex;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTransceiver;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTransceiverFactory;
-import de.gematik.pki.gemlibpki.commons.tsl.TspInformationProvider;
 import de.gematik.pki.gemlibpki.commons.tsl.TspService;
 import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
+import de.gematik.pki.gemlibpki.commons.validators.OcspValidationOutcome;
+import de.gematik.pki.gemlibpki.commons.validators.OcspValidationResult;
 import de.gematik.pki.gemlibpki.commons.validators.OcspValidator;
+import de.gematik.pki.gemlibpki.commons.validators.SignatureVerificationCache;
 import de.gematik.pki.gemlibpki.ti10.ocsp.TslBasedSspOcspTransceiverFactory;
-import java.io.IOException;
 import java.security.cert.X509Certificate;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.EnumMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -54,6 +67,9 @@ import org.bouncycastle.cert.ocsp.OCSPResp;
  * Entry point to access a verification of certificate(s) regarding standard process called
  * TucPki018. This class works with parameterized variables (defined by builder pattern) and with
  * given variables provided by runtime (method parameters).
+ *
+ * <p>An instance is thread-safe and can be reused for arbitrary end-entity certificates: the OCSP
+ * transceiver and validator are resolved per certificate, unless they are given by the builder.
  */
 @Slf4j
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
@@ -61,12 +77,18 @@ import org.bouncycastle.cert.ocsp.OCSPResp;
 @Builder
 public class TucPki018Verifier {
 
+  /**
+   * Default executor of the asynchronous OCSP checks, shared by all verifiers. It starts a virtual
+   * thread per task and holds no threads between the tasks, so it is never shut down.
+   */
+  private static final Executor DEFAULT_OCSP_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
   @NonNull protected final String productType;
   @NonNull protected final List<TspService> tspServiceList;
   @NonNull protected final List<CertificateProfile> certificateProfiles;
   @Builder.Default protected final boolean withOcspCheck = true;
   protected final OCSPResp ocspResponse;
-  protected final OcspRespCache ocspRespCache;
+  protected final OcspResponseStore ocspRespCache;
 
   @Builder.Default
   protected final int ocspTimeoutSeconds = OcspConstants.DEFAULT_OCSP_TIMEOUT_SECONDS;
@@ -81,10 +103,17 @@ public class TucPki018Verifier {
 
   @Builder.Default protected final boolean tolerateOcspFailure = false;
 
-  @Builder.Default private OcspTransceiverFactory ocspTransceiverFactory = null;
+  @Builder.Default private volatile OcspTransceiverFactory ocspTransceiverFactory = null;
+  @Builder.Default private final OcspResponderRegistry ocspResponderRegistry = null;
+  @Builder.Default private volatile OcspSignerIndex ocspSignerIndex = null;
 
-  @Builder.Default private OcspValidator ocspValidator = null;
-  @Builder.Default private OcspTransceiver ocspTransceiver = null;
+  @Builder.Default private final OcspValidator ocspValidator = null;
+  @Builder.Default private final OcspTransceiver ocspTransceiver = null;
+  @Builder.Default private volatile CompiledTucPki018Pipeline pipeline = null;
+  @Builder.Default private final TucPki018DecisionCache decisionCache = null;
+  @Builder.Default private final SignatureVerificationCache signatureVerificationCache = null;
+
+  @Builder.Default @NonNull private final Executor ocspExecutor = DEFAULT_OCSP_EXECUTOR;
 
   /**
    * Verify given end-entity certificate against TucPki18 (Technical Use Case 18 "Zertifikatsprüfung
@@ -115,52 +144,390 @@ public class TucPki018Verifier {
       @NonNull final X509Certificate x509EeCert, @NonNull final ZonedDateTime referenceDate)
       throws GemPkiException {
     log.debug("TUC_PKI_018 Checks...");
+    if (decisionCache != null && ocspResponse == null) {
+      return performTucPki018ChecksCached(x509EeCert, referenceDate);
+    }
     final TspServiceSubset tspServiceSubset =
-        new TspInformationProvider(tspServiceList, productType)
-            .getIssuerTspServiceSubset(x509EeCert);
+        getPipeline().getIssuerTspServiceSubset(x509EeCert);
 
-    commonChecks(x509EeCert, tspServiceSubset, referenceDate);
-    doOcspIfConfigured(x509EeCert, referenceDate);
-    return tucPki018ProfileChecks(x509EeCert, tspServiceSubset);
+    // the certificate is parsed once for all checks
+    final ParsedCertificate parsedEeCert = new ParsedCertificate(x509EeCert);
+    getPipeline().commonChecks(parsedEeCert, tspServiceSubset, referenceDate);
+    doOcspIfConfigured(x509EeCert, referenceDate, tspServiceSubset);
+    return getPipeline().profileChecks(parsedEeCert, tspServiceSubset);
   }
 
-  private void initializeValidator() {
+  /**
+   * The checks with the decision cache: a cached decision is returned or thrown. A valid decision
+   * is cached at most as long as the OCSP response it is based on may be used. Decisions based on
+   * a tolerated OCSP failure or a stale OCSP response are not cached. The decision cache is not
+   * used with a provided OCSP response, whose decisions only apply to that response.
+   */
+  private Admission performTucPki018ChecksCached(
+      final X509Certificate x509EeCert, final ZonedDateTime referenceDate)
+      throws GemPkiException {
 
-    if (ocspValidator != null) {
-      return;
+    final ParsedCertificate parsedEeCert = new ParsedCertificate(x509EeCert);
+    final DecisionKey key = getDecisionKey(parsedEeCert);
+    final Optional<TucPki018Result> cachedResult = getCachedDecision(key, referenceDate);
+    if (cachedResult.isPresent()) {
+      final Optional<GemPkiException> cachedException = cachedResult.get().getGemPkiException();
+      if (cachedException.isPresent()) {
+        throw cachedException.get();
+      }
+      return cachedResult.get().getAdmission().orElseThrow();
     }
 
-    ocspValidator =
-        OcspValidator.builder()
-            .productType(productType)
-            .tspServiceList(tspServiceList)
-            .withOcspCheck(withOcspCheck)
-            .ocspResponse(ocspResponse)
-            .ocspRespCache(ocspRespCache)
-            .ocspTimeoutSeconds(ocspTimeoutSeconds)
-            .ocspTransceiver(ocspTransceiver)
-            .tolerateOcspFailure(tolerateOcspFailure)
-            .ocspTimeToleranceProducedAtFutureMilliseconds(
-                ocspTimeToleranceProducedAtFutureMilliseconds)
-            .ocspTimeToleranceProducedAtPastMilliseconds(
-                ocspTimeToleranceProducedAtPastMilliseconds)
-            .build();
+    try {
+      final TspServiceSubset tspServiceSubset =
+          getPipeline().getIssuerTspServiceSubset(x509EeCert);
+
+      getPipeline().commonChecks(parsedEeCert, tspServiceSubset, referenceDate);
+      final OcspValidationOutcome ocspOutcome =
+          doOcspIfConfigured(x509EeCert, referenceDate, tspServiceSubset);
+      final Admission admission = getPipeline().profileChecks(parsedEeCert, tspServiceSubset);
+
+      saveDecision(key, TucPki018Result.valid(x509EeCert, admission), ocspOutcome, referenceDate);
+      return admission;
+    } catch (final GemPkiException e) {
+      saveDecision(key, TucPki018Result.invalid(x509EeCert, e), null, referenceDate);
+      throw e;
+    }
   }
 
-  private void initializeTransceiver(@NonNull final X509Certificate x509EeCert)
-      throws GemPkiException {
+  private DecisionKey getDecisionKey(final ParsedCertificate parsedEeCert) {
+    return DecisionKey.of(
+        parsedEeCert, productType, certificateProfiles, tspServiceList, withOcspCheck);
+  }
+
+  private Optional<TucPki018Result> getCachedDecision(
+      final DecisionKey key, final ZonedDateTime referenceDate) {
+    final Optional<TucPki018Result> cachedResult = decisionCache.get(key, referenceDate);
+    if (cachedResult.isPresent()) {
+      log.debug("TUC_PKI_018 Entscheidung aus dem Cache.");
+    }
+    return cachedResult;
+  }
 
-    if (ocspTransceiver != null) {
+  /**
+   * An invalid decision is cached for the configured time to live, a valid one at most as long as
+   * the OCSP response it is based on may be used. Aborted checks are not cached.
+   */
+  private void saveDecision(
+      final DecisionKey key,
+      final TucPki018Result result,
+      final OcspValidationOutcome ocspOutcome,
+      final ZonedDateTime referenceDate) {
+    if (result.getRuntimeException().isPresent()) {
+      return;
+    }
+    if (!result.isValid() || ocspOutcome.getResult() == OcspValidationResult.NOT_CHECKED) {
+      decisionCache.save(key, result, referenceDate);
       return;
     }
+    ocspOutcome
+        .getValidUntil()
+        .ifPresent(
+            ocspValidUntil -> decisionCache.save(key, result, referenceDate, ocspValidUntil));
+  }
+
+  /**
+   * Verify given end-entity certificate against TucPki18 as in {@link
+   * #performTucPki018Checks(X509Certificate)} without blocking the calling thread for the OCSP
+   * check.
+   *
+   * @param x509EeCert end-entity certificate to check
+   * @return future of the determined {@link Admission}, completed exceptionally with a {@link
+   *     GemPkiException} if the certificate is invalid
+   */
+  public CompletableFuture<Admission> performTucPki018ChecksAsync(
+      @NonNull final X509Certificate x509EeCert) {
+    return performTucPki018ChecksAsync(x509EeCert, ZonedDateTime.now(ZoneOffset.UTC));
+  }
+
+  /**
+   * Verify given end-entity certificate against TucPki18 as in {@link
+   * #performTucPki018Checks(X509Certificate, ZonedDateTime)} without blocking the calling thread
+   * for the OCSP check. The certificate checks run synchronously, a certificate failing them
+   * returns a failed future at once. The OCSP check is blocking network I/O, it is offloaded to the
+   * ocspExecutor, by default a virtual thread per check. With a decision cache, a cached decision
+   * completes the future at once and new decisions are cached as by the synchronous checks.
+   *
+   * @param x509EeCert end-entity certificate to check
+   * @param referenceDate date to check revocation, producedAt, thisUpdate and nextUpdate against
+   * @return future of the determined {@link Admission}, completed exceptionally with a {@link
+   *     GemPkiException} if the certificate is invalid
+   */
+  public CompletableFuture<Admission> performTucPki018ChecksAsync(
+      @NonNull final X509Certificate x509EeCert, @NonNull final ZonedDateTime referenceDate) {
+    log.debug("TUC_PKI_018 Checks (async)...");
+    final PendingChecks pendingChecks = new PendingChecks(x509EeCert);
+    if (decisionCache == null || ocspResponse != null) {
+      return checksAsync(pendingChecks, referenceDate)
+          .thenCompose(entry -> toAdmission(entry.toResult()));
+    }
+
+    final DecisionKey key = getDecisionKey(pendingChecks.getParsedEeCert());
+    final Optional<TucPki018Result> cachedResult = getCachedDecision(key, referenceDate);
+    if (cachedResult.isPresent()) {
+      return toAdmission(cachedResult.get());
+    }
+    return checksAsync(pendingChecks, referenceDate)
+        .thenCompose(
+            entry -> {
+              final TucPki018Result result = entry.toResult();
+              saveDecision(key, result, entry.ocspOutcome, referenceDate);
+              return toAdmission(result);
+            });
+  }
+
+  private CompletableFuture<PendingChecks> checksAsync(
+      final PendingChecks entry, final ZonedDateTime referenceDate) {
+    localChecks(entry, referenceDate);
+
+    if (entry.hasFailed()) {
+      return CompletableFuture.completedFuture(entry);
+    }
+    if (!withOcspCheck) {
+      ocspCheck(entry, referenceDate);
+      return CompletableFuture.completedFuture(entry);
+    }
+    return CompletableFuture.supplyAsync(
+        () -> {
+          ocspCheck(entry, referenceDate);
+          return entry;
+        },
+        ocspExecutor);
+  }
+
+  private static CompletableFuture<Admission> toAdmission(final TucPki018Result result) {
+    if (result.getRuntimeException().isPresent()) {
+      return CompletableFuture.failedFuture(result.getRuntimeException().get());
+    }
+    return result
+        .getGemPkiException()
+        .<CompletableFuture<Admission>>map(CompletableFuture::failedFuture)
+        .orElseGet(() -> CompletableFuture.completedFuture(result.getAdmission().orElseThrow()));
+  }
+
+  /**
+   * Verify the given end-entity certificates against TucPki18 as in {@link
+   * #performTucPki018Checks(X509Certificate, ZonedDateTime)}, with one result per given
+   * certificate in the given order. Identical certificates are checked once. The certificate checks
+   * run in parallel, then the OCSP checks of the certificates passing them run in parallel. The
+   * concurrent requests per OCSP responder are limited by the bulkhead of the {@link
+   * OcspResponderRegistry}, if configured. A certificate failing several checks reports the same
+   * error as a single check would. A certificate whose checks abort with an unexpected
+   * {@link RuntimeException} reports it in its result without affecting the other certificates.
+   *
+   * @param x509EeCerts end-entity certificates to check
+   * @param referenceDate date to check revocation, producedAt, thisUpdate and nextUpdate against
+   * @return the results of the certificates in the given order
+   */
+  public List<TucPki018Result> performTucPki018BatchChecks(
+      @NonNull final Collection<X509Certificate> x509EeCerts,
+      @NonNull final ZonedDateTime referenceDate) {
+    log.debug("TUC_PKI_018 Checks of {} certificates...", x509EeCerts.size());
+
+    final Map<X509Certificate, PendingChecks> entries = new LinkedHashMap<>();
+    x509EeCerts.forEach(x509EeCert -> entries.computeIfAbsent(x509EeCert, PendingChecks::new));
+
+    try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      invokeAll(
+          executor,
+          entries.values().stream()
+              .map(entry -> (Callable<Void>) () -> localChecks(entry, referenceDate))
+              .toList());
+
+      invokeAll(
+          executor,
+          entries.values().stream()
+              .filter(entry -> !entry.hasFailed())
+              .map(entry -> (Callable<Void>) () -> ocspCheck(entry, referenceDate))
+              .toList());
+    }
+
+    return x509EeCerts.stream().map(x509EeCert -> entries.get(x509EeCert).toResult()).toList();
+  }
+
+  private Void localChecks(final PendingChecks entry, final ZonedDateTime referenceDate) {
+    try {
+      entry.tspServiceSubset = getPipeline().getIssuerTspServiceSubset(entry.x509EeCert);
+      getPipeline().commonChecks(entry.getParsedEeCert(), entry.tspServiceSubset, referenceDate);
+    } catch (final GemPkiException e) {
+      entry.gemPkiException = e;
+      return null;
+    } catch (final RuntimeException e) {
+      entry.abort(e);
+      return null;
+    }
+    try {
+      entry.admission =
+          getPipeline().profileChecks(entry.getParsedEeCert(), entry.tspServiceSubset);
+    } catch (final GemPkiException e) {
+      // reported after the OCSP check, as in the checks of a single certificate
+      entry.profileException = e;
+    } catch (final RuntimeException e) {
+      entry.abort(e);
+    }
+    return null;
+  }
+
+  private Void ocspCheck(final PendingChecks entry, final ZonedDateTime referenceDate) {
+    try {
+      entry.ocspOutcome =
+          doOcspIfConfigured(entry.x509EeCert, referenceDate, entry.tspServiceSubset);
+    } catch (final GemPkiException e) {
+      entry.gemPkiException = e;
+    } catch (final RuntimeException e) {
+      entry.abort(e);
+    }
+    return null;
+  }
 
-    if (ocspTransceiverFactory == null) {
-      ocspTransceiverFactory =
+  private static void invokeAll(final ExecutorService executor, final List<Callable<Void>> tasks) {
+    try {
+      for (final Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GemPkiRuntimeException("Batch der TUC_PKI_018 Prüfungen unterbrochen.", e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof final RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new GemPkiRuntimeException("Fehler im Batch der TUC_PKI_018 Prüfungen.", e);
+    }
+  }
+
+  /**
+   * State of the checks of a certificate, handed over between the threads of the local and the
+   * OCSP checks by the executor
+   */
+  @RequiredArgsConstructor
+  private static final class PendingChecks {
+
+    private final X509Certificate x509EeCert;
+    private ParsedCertificate parsedEeCert;
+    private TspServiceSubset tspServiceSubset;
+    private Admission admission;
+    private GemPkiException profileException;
+    private OcspValidationOutcome ocspOutcome;
+    private GemPkiException gemPkiException;
+    private RuntimeException runtimeException;
+
+    /** An unexpected exception fails this certificate only, not the other ones of the batch. */
+    private void abort(final RuntimeException e) {
+      log.warn("TUC_PKI_018 Prüfung eines Zertifikats abgebrochen.", e);
+      runtimeException = e;
+    }
+
+    /** The certificate is parsed once, on first use, for all checks. */
+    private ParsedCertificate getParsedEeCert() {
+      if (parsedEeCert == null) {
+        parsedEeCert = new ParsedCertificate(x509EeCert);
+      }
+      return parsedEeCert;
+    }
+
+    private boolean hasFailed() {
+      return gemPkiException != null || runtimeException != null;
+    }
+
+    private TucPki018Result toResult() {
+      if (runtimeException != null) {
+        return TucPki018Result.failed(x509EeCert, runtimeException);
+      }
+      if (gemPkiException != null) {
+        return TucPki018Result.invalid(x509EeCert, gemPkiException);
+      }
+      if (profileException != null) {
+        return TucPki018Result.invalid(x509EeCert, profileException);
+      }
+      return TucPki018Result.valid(x509EeCert, admission);
+    }
+  }
+
+  /**
+   * The certificate checks are compiled once from the configuration and reused. Concurrent first
+   * calls may compile the immutable pipeline more than once, which is harmless.
+   */
+  private CompiledTucPki018Pipeline getPipeline() {
+    CompiledTucPki018Pipeline compiledPipeline = pipeline;
+    if (compiledPipeline == null) {
+      compiledPipeline =
+          CompiledTucPki018Pipeline.builder()
+              .productType(productType)
+              .tspServiceList(tspServiceList)
+              .certificateProfiles(certificateProfiles)
+              .signatureVerificationCache(signatureVerificationCache)
+              .build();
+      pipeline = compiledPipeline;
+    }
+    return compiledPipeline;
+  }
+
+  private OcspSignerIndex getOcspSignerIndex() {
+    OcspSignerIndex index = ocspSignerIndex;
+    if (index == null) {
+      index = new OcspSignerIndex(tspServiceList);
+      ocspSignerIndex = index;
+    }
+    return index;
+  }
+
+  private OcspTransceiverFactory getOcspTransceiverFactory() {
+    OcspTransceiverFactory factory = ocspTransceiverFactory;
+    if (factory == null) {
+      factory =
           new TslBasedSspOcspTransceiverFactory(
-              productType, tspServiceList, ocspTimeoutSeconds, tolerateOcspFailure);
+              productType,
+              tspServiceList,
+              ocspTimeoutSeconds,
+              tolerateOcspFailure,
+              ocspResponderRegistry);
+      ocspTransceiverFactory = factory;
     }
+    return factory;
+  }
 
-    ocspTransceiver = ocspTransceiverFactory.create(x509EeCert);
+  /**
+   * Resolves the OCSP validator for the given end-entity certificate. A validator or transceiver
+   * given by the builder is used for all certificates, otherwise the transceiver is created for the
+   * certificate and its issuer. Without OCSP check no transceiver is needed.
+   */
+  private OcspValidator getOcspValidator(
+      @NonNull final X509Certificate x509EeCert, final TspServiceSubset tspServiceSubset)
+      throws GemPkiException {
+
+    if (ocspValidator != null) {
+      return ocspValidator;
+    }
+
+    final OcspTransceiver transceiver;
+    if (ocspTransceiver != null || !withOcspCheck) {
+      transceiver = ocspTransceiver;
+    } else if (tspServiceSubset != null) {
+      transceiver = getOcspTransceiverFactory().create(x509EeCert, tspServiceSubset);
+    } else {
+      transceiver = getOcspTransceiverFactory().create(x509EeCert);
+    }
+
+    return OcspValidator.builder()
+        .productType(productType)
+        .tspServiceList(tspServiceList)
+        .withOcspCheck(withOcspCheck)
+        .ocspResponse(ocspResponse)
+        .ocspRespCache(ocspRespCache)
+        .ocspTimeoutSeconds(ocspTimeoutSeconds)
+        .ocspTransceiver(transceiver)
+        .tolerateOcspFailure(tolerateOcspFailure)
+        .ocspSignerIndex(withOcspCheck ? getOcspSignerIndex() : null)
+        .ocspTimeToleranceProducedAtFutureMilliseconds(
+            ocspTimeToleranceProducedAtFutureMilliseconds)
+        .ocspTimeToleranceProducedAtPastMilliseconds(ocspTimeToleranceProducedAtPastMilliseconds)
+        .build();
   }
 
   /**
@@ -171,10 +538,23 @@ public class TucPki018Verifier {
   protected void doOcspIfConfigured(
       @NonNull final X509Certificate x509EeCert, @NonNull final ZonedDateTime referenceDate)
       throws GemPkiException {
-    initializeTransceiver(x509EeCert);
-    initializeValidator();
+    getOcspValidator(x509EeCert, null).validateCertificate(x509EeCert, referenceDate);
+  }
 
-    ocspValidator.validateCertificate(x509EeCert, referenceDate);
+  /**
+   * @param x509EeCert Certificate to check the OCSP status from
+   * @param referenceDate date to check revocation, producedAt, thisUpdate and nextUpdate against
+   * @param tspServiceSubset the issuer of the certificate, already determined from the TSL
+   * @return which OCSP response the decision is based on and until when it may be used
+   * @throws GemPkiException thrown if OCSP status is not "good" for the certificate
+   */
+  protected OcspValidationOutcome doOcspIfConfigured(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final ZonedDateTime referenceDate,
+      @NonNull final TspServiceSubset tspServiceSubset)
+      throws GemPkiException {
+    return getOcspValidator(x509EeCert, tspServiceSubset)
+        .validateOcsp(x509EeCert, referenceDate, tspServiceSubset);
   }
 
   /**
@@ -189,32 +569,7 @@ public class TucPki018Verifier {
   protected Admission tucPki018ProfileChecks(
       @NonNull final X509Certificate x509EeCert, @NonNull final TspServiceSubset tspServiceSubset)
       throws GemPkiException {
-    if (certificateProfiles.isEmpty()) {
-      throw new GemPkiRuntimeException("Liste der konfigurierten Zertifikatsprofile ist leer.");
-    }
-
-    final EnumMap<CertificateProfile, GemPkiException> errors =
-        new EnumMap<>(CertificateProfile.class);
-    for (final CertificateProfile certificateProfile : certificateProfiles) {
-      try {
-        tucPki018ChecksForProfile(x509EeCert, certificateProfile, tspServiceSubset);
-        log.debug(
-            "Übergebenes Zertifikat wurde erfolgreich gegen das Zertifikatsprofil {} getestet.",
-            certificateProfile);
-
-        final Admission admission = new Admission(x509EeCert);
-        if (!admission.getProfessionOids().isEmpty()) {
-          log.debug("Gefundene Rolle(n): {}", admission.getProfessionItems());
-        }
-        return admission;
-      } catch (final IOException e) {
-        throw new GemPkiRuntimeException(
-            "Error in processing the admission of the end entity certificate.", e);
-      } catch (final GemPkiException e) {
-        errors.put(certificateProfile, e);
-      }
-    }
-    throw new GemPkiParsingException(productType, errors);
+    return getPipeline().profileChecks(x509EeCert, tspServiceSubset);
   }
 
   /**
@@ -233,15 +588,7 @@ public class TucPki018Verifier {
       @NonNull final TspServiceSubset tspServiceSubset)
       throws GemPkiException {
 
-    final CertificateProfileVerification certificateProfileVerification =
-        CertificateProfileVerification.builder()
-            .productType(productType)
-            .x509EeCert(x509EeCert)
-            .certificateProfile(certificateProfile)
-            .tspServiceSubset(tspServiceSubset)
-            .build();
-
-    certificateProfileVerification.verifyAll();
+    getPipeline().profileChecks(x509EeCert, certificateProfile, tspServiceSubset);
   }
 
   /**
@@ -257,15 +604,7 @@ public class TucPki018Verifier {
       @NonNull final ZonedDateTime referenceDate)
       throws GemPkiException {
 
-    final CertificateCommonVerification certificateCommonVerification =
-        CertificateCommonVerification.builder()
-            .productType(productType)
-            .x509EeCert(x509EeCert)
-            .tspServiceSubset(tspServiceSubset)
-            .referenceDate(referenceDate)
-            .build();
-
-    certificateCommonVerification.verifyAll();
+    getPipeline().commonChecks(x509EeCert, tspServiceSubset, referenceDate);
   }
 
   /**
@@ -282,14 +621,23 @@ public class TucPki018Verifier {
       return false;
     }
 
-    if (admissionToCheck.getProfessionOids().isEmpty()) {
+    return admissionToCheck.hasAnyProfessionOid(allowedProfessionOids);
+  }
+
+  /**
+   * Check if the role of a given admission matches one from a parameterized set
+   *
+   * @param admissionToCheck the admission from the certificate
+   * @param allowedRoles the set of allowed roles, preferably an {@link java.util.EnumSet}
+   * @return Boolean if the role is in the set
+   */
+  public static boolean checkAllowedRoles(
+      final Admission admissionToCheck, @NonNull final Set<Role> allowedRoles) {
+
+    if (admissionToCheck == null) {
       return false;
     }
 
-    return isPresent(admissionToCheck.getProfessionOids(), allowedProfessionOids);
-  }
-
-  private static boolean isPresent(final Set<String> setToSearch, final Set<String> set) {
-    return setToSearch.removeAll(set);
+    return admissionToCheck.hasAnyRole(allowedRoles);
   }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link OcspResponseStore} with a local store (L1), e.g. an {@link OcspRespCache}, in front of a
+ * remote store (L2) shared by several nodes. Responses found in the remote store are copied to the
+ * local store, saved responses are written to both. Failures of the remote store are logged and
+ * treated like a miss, so that the OCSP check falls back to the OCSP responder. The OCSP check
+ * verifies the cert hash and the responder of a response from either store before using it, see
+ * {@link de.gematik.pki.gemlibpki.commons.validators.OcspValidator}.
+ */
+@Slf4j
+public class NearCacheOcspResponseStore implements OcspResponseStore {
+
+  @Getter private final OcspResponseStore localStore;
+  @Getter private final OcspResponseStore remoteStore;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder staleHitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder saveCount = new LongAdder();
+
+  /**
+   * Constructor
+   *
+   * @param localStore local store (L1)
+   * @param remoteStore remote store (L2)
+   */
+  public NearCacheOcspResponseStore(
+      @NonNull final OcspResponseStore localStore, @NonNull final OcspResponseStore remoteStore) {
+    this.localStore = localStore;
+    this.remoteStore = remoteStore;
+  }
+
+  @Override
+  public Optional<VerifiedOcspResp> getVerifiedResponse(@NonNull final OcspCertId certId) {
+    Optional<VerifiedOcspResp> verifiedOcspRespOpt = localStore.getVerifiedResponse(certId);
+    if (verifiedOcspRespOpt.isEmpty()) {
+      verifiedOcspRespOpt = getFromRemoteStore(certId);
+      verifiedOcspRespOpt.ifPresent(
+          verifiedOcspResp -> localStore.saveResponse(certId, verifiedOcspResp));
+    }
+
+    if (verifiedOcspRespOpt.isPresent()) {
+      hitCount.increment();
+    } else {
+      missCount.increment();
+    }
+    return verifiedOcspRespOpt;
+  }
+
+  @Override
+  public Optional<VerifiedOcspResp> getStaleResponse(@NonNull final OcspCertId certId) {
+    final Optional<VerifiedOcspResp> verifiedOcspRespOpt = localStore.getStaleResponse(certId);
+    if (verifiedOcspRespOpt.isPresent()) {
+      staleHitCount.increment();
+    }
+    return verifiedOcspRespOpt;
+  }
+
+  @Override
+  public void saveResponse(
+      @NonNull final OcspCertId certId, @NonNull final VerifiedOcspResp verifiedOcspResp) {
+    localStore.saveResponse(certId, verifiedOcspResp);
+    saveToRemoteStore(certId, verifiedOcspResp);
+  }
+
+  @Override
+  public void saveResponse(
+      @NonNull final OcspCertId certId,
+      @NonNull final VerifiedOcspResp verifiedOcspResp,
+      @NonNull final OcspRespRefresher refresher) {
+    localStore.saveResponse(certId, verifiedOcspResp, refresher);
+    saveToRemoteStore(certId, verifiedOcspResp);
+  }
+
+  @Override
+  public void revalidate(@NonNull final OcspCertId certId) {
+    localStore.revalidate(certId);
+  }
+
+  @Override
+  public void deleteExpiredResponses() {
+    localStore.deleteExpiredResponses();
+    try {
+      remoteStore.deleteExpiredResponses();
+    } catch (final RuntimeException e) {
+      log.warn("Deleting expired responses from the remote OCSP response store failed.", e);
+    }
+  }
+
+  @Override
+  public OcspResponseStoreStats getStats() {
+    return OcspResponseStoreStats.builder()
+        .hitCount(hitCount.sum())
+        .staleHitCount(staleHitCount.sum())
+        .missCount(missCount.sum())
+        .saveCount(saveCount.sum())
+        .size(localStore.getStats().getSize())
+        .build();
+  }
+
+  @Override
+  public int getMaxStaleSeconds() {
+    return localStore.getMaxStaleSeconds();
+  }
+
+  private Optional<VerifiedOcspResp> getFromRemoteStore(final OcspCertId certId) {
+    try {
+      return remoteStore.getVerifiedResponse(certId);
+    } catch (final RuntimeException e) {
+      log.warn("Reading from the remote OCSP response store failed: {}", certId, e);
+      return Optional.empty();
+    }
+  }
+
+  private void saveToRemoteStore(final OcspCertId certId, final VerifiedOcspResp verifiedOcspResp) {
+    saveCount.increment();
+    try {
+      remoteStore.saveResponse(certId, verifiedOcspResp);
+    } catch (final RuntimeException e) {
+      log.warn("Writing to the remote OCSP response store failed: {}", certId, e);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent requests to one OCSP responder. Requests exceeding the limit wait
+ * in a queue of at most maxQueueLength requests for at most maxQueueWaitMillis, otherwise they are
+ * rejected.
+ *
+ * <p>The limit is either static (maxLimit), or adaptive (AIMD): it starts with maxLimit, is
+ * increased additively for requests faster than latencyTargetMillis and halved for slower or failed
+ * requests, always between minLimit and maxLimit.
+ */
+public final class OcspBulkhead {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final boolean adaptive;
+  private final long latencyTargetMillis;
+  private final int maxQueueLength;
+  private final long maxQueueWaitMillis;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition permitReleased = lock.newCondition();
+  private double limit;
+  private int inFlight;
+  private int queueLength;
+
+  private final LongAdder rejectedCount = new LongAdder();
+  private final LongAdder queuedCount = new LongAdder();
+  private final LongAdder queueWaitMillisTotal = new LongAdder();
+
+  OcspBulkhead(
+      final int minLimit,
+      final int maxLimit,
+      final boolean adaptive,
+      final long latencyTargetMillis,
+      final int maxQueueLength,
+      final long maxQueueWaitMillis) {
+    this.minLimit = Math.max(1, minLimit);
+    this.maxLimit = Math.max(this.minLimit, maxLimit);
+    this.adaptive = adaptive;
+    this.latencyTargetMillis = latencyTargetMillis;
+    this.maxQueueLength = maxQueueLength;
+    this.maxQueueWaitMillis = maxQueueWaitMillis;
+    this.limit = this.maxLimit;
+  }
+
+  /**
+   * Acquires a permit for a request, waits in the queue if the limit is reached.
+   *
+   * @return true, if the permit was acquired, false if the request was rejected
+   * @throws InterruptedException if interrupted while waiting in the queue
+   */
+  boolean tryAcquire() throws InterruptedException {
+    lock.lock();
+    try {
+      if (inFlight < (int) limit) {
+        inFlight++;
+        return true;
+      }
+      if (queueLength >= maxQueueLength) {
+        rejectedCount.increment();
+        return false;
+      }
+
+      queueLength++;
+      queuedCount.increment();
+      final long startNanos = System.nanoTime();
+      long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMillis);
+      try {
+        while (inFlight >= (int) limit) {
+          if (remainingNanos <= 0) {
+            rejectedCount.increment();
+            return false;
+          }
+          remainingNanos = permitReleased.awaitNanos(remainingNanos);
+        }
+        inFlight++;
+        return true;
+      } finally {
+        queueLength--;
+        queueWaitMillisTotal.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Releases a permit of a request that was not sent. */
+  void release() {
+    lock.lock();
+    try {
+      inFlight--;
+      permitReleased.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases a permit of a completed request and adapts the limit.
+   *
+   * @param success true, if the request was successful
+   * @param latencyMillis latency of the request
+   */
+  void release(final boolean success, final long latencyMillis) {
+    lock.lock();
+    try {
+      inFlight--;
+      if (adaptive) {
+        if (success && latencyMillis <= latencyTargetMillis) {
+          limit = Math.min(maxLimit, limit + 1 / limit);
+        } else {
+          limit = Math.max(minLimit, limit / 2);
+        }
+      }
+      permitReleased.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Getter for the current limit of concurrent requests
+   *
+   * @return the limit
+   */
+  public int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Getter for the number of requests in flight
+   *
+   * @return the number of requests
+   */
+  public int getInFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Getter for the number of rejected requests
+   *
+   * @return the number of requests
+   */
+  public long getRejectedCount() {
+    return rejectedCount.sum();
+  }
+
+  /**
+   * Getter for the number of requests that waited in the queue
+   *
+   * @return the number of requests
+   */
+  public long getQueuedCount() {
+    return queuedCount.sum();
+  }
+
+  /**
+   * Getter for the total time requests waited in the queue
+   *
+   * @return the time in milliseconds
+   */
+  public long getQueueWaitMillisTotal() {
+    return queueWaitMillisTotal.sum();
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import java.math.BigInteger;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.HexFormat;
+import lombok.NonNull;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.cert.ocsp.CertificateID;
+
+/**
+ * Compact representation of an OCSP CertID (issuer name hash, issuer key hash and serial number)
+ * to be used as a key in OCSP response caches. Serial numbers are only unique per issuer, so the
+ * issuer hashes are part of the key. The components are concatenated into one byte array and the
+ * hash code is computed once.
+ */
+public final class OcspCertId {
+
+  private static final AlgorithmIdentifier SHA1_ALGORITHM_IDENTIFIER =
+      new AlgorithmIdentifier(OIWObjectIdentifiers.idSHA1, DERNull.INSTANCE);
+
+  private final byte[] key;
+  private final int hash;
+
+  private OcspCertId(final byte[] key) {
+    this.key = key;
+    this.hash = Arrays.hashCode(key);
+  }
+
+  /**
+   * Creates the cert id of the given serial number and issuer certificate as used in the OCSP
+   * requests of this library (SHA-1).
+   *
+   * @param serialNumber serial number of the end-entity certificate
+   * @param x509IssuerCert issuer certificate of the end-entity certificate
+   * @return the cert id
+   */
+  public static OcspCertId of(
+      @NonNull final BigInteger serialNumber, @NonNull final X509Certificate x509IssuerCert) {
+    return of(
+        OcspRequestGenerator.createCertificateId(
+            serialNumber, x509IssuerCert, SHA1_ALGORITHM_IDENTIFIER));
+  }
+
+  /**
+   * Creates the cert id of the given end-entity certificate and its issuer certificate (SHA-1).
+   *
+   * @param x509EeCert end-entity certificate
+   * @param x509IssuerCert issuer certificate of the end-entity certificate
+   * @return the cert id
+   */
+  public static OcspCertId of(
+      @NonNull final X509Certificate x509EeCert, @NonNull final X509Certificate x509IssuerCert) {
+    return of(x509EeCert.getSerialNumber(), x509IssuerCert);
+  }
+
+  /**
+   * Creates the cert id from a BouncyCastle certificate id, e.g. of an OCSP request or of a single
+   * OCSP response.
+   *
+   * @param certificateId the certificate id
+   * @return the cert id
+   */
+  public static OcspCertId of(@NonNull final CertificateID certificateId) {
+    return of(
+        certificateId.getIssuerNameHash(),
+        certificateId.getIssuerKeyHash(),
+        certificateId.getSerialNumber());
+  }
+
+  /**
+   * Creates the cert id from its components.
+   *
+   * @param issuerNameHash hash of the issuer name
+   * @param issuerKeyHash hash of the issuer public key, using the same algorithm as issuerNameHash
+   * @param serialNumber serial number of the end-entity certificate
+   * @return the cert id
+   */
+  public static OcspCertId of(
+      @NonNull final byte[] issuerNameHash,
+      @NonNull final byte[] issuerKeyHash,
+      @NonNull final BigInteger serialNumber) {
+
+    final byte[] serialBytes = serialNumber.toByteArray();
+    final int hashesLength = issuerNameHash.length + issuerKeyHash.length;
+    final byte[] key = new byte[1 + hashesLength + serialBytes.length];
+
+    // the hash length separates the hashes of different algorithms
+    key[0] = (byte) issuerNameHash.length;
+    System.arraycopy(issuerNameHash, 0, key, 1, issuerNameHash.length);
+    System.arraycopy(issuerKeyHash, 0, key, 1 + issuerNameHash.length, issuerKeyHash.length);
+    System.arraycopy(serialBytes, 0, key, 1 + hashesLength, serialBytes.length);
+
+    return new OcspCertId(key);
+  }
+
+  /**
+   * Getter for the encoded cert id
+   *
+   * @return a copy of the concatenated components of the cert id
+   */
+  public byte[] getEncoded() {
+    return key.clone();
+  }
+
+  /**
+   * Creates the cert id from its encoded form.
+   *
+   * @param encoded bytes as returned by {@link #getEncoded()}
+   * @return the cert id
+   */
+  public static OcspCertId fromEncoded(@NonNull final byte[] encoded) {
+    return new OcspCertId(encoded.clone());
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof final OcspCertId other)) {
+      return false;
+    }
+    return hash == other.hash && Arrays.equals(key, other.key);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return HexFormat.of().formatHex(key);
+  }
+}
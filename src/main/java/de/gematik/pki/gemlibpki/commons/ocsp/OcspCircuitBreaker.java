@@ -0,0 +1,172 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker of one OCSP responder. After failureThreshold consecutive failures the circuit
+ * opens and requests fail fast for openDurationMillis. Afterward one probe request is let through
+ * (half-open): if it succeeds the circuit closes, otherwise it opens again. Requests slower than
+ * slowCallThresholdMillis count as failure, if the threshold is greater than 0. The outcome of a
+ * request is identified by its latency: while half-open, requests that started before the circuit
+ * opened are not the probe and their outcomes are ignored.
+ */
+@Slf4j
+public final class OcspCircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final String ssp;
+  private final int failureThreshold;
+  private final long openDurationMillis;
+  private final long slowCallThresholdMillis;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAtMillis;
+  private boolean probeInFlight;
+
+  OcspCircuitBreaker(
+      final String ssp,
+      final int failureThreshold,
+      final long openDurationMillis,
+      final long slowCallThresholdMillis) {
+    this.ssp = ssp;
+    this.failureThreshold = failureThreshold;
+    this.openDurationMillis = openDurationMillis;
+    this.slowCallThresholdMillis = slowCallThresholdMillis;
+  }
+
+  /**
+   * Getter for the state of the circuit
+   *
+   * @return the state
+   */
+  public synchronized State getState() {
+    return state;
+  }
+
+  /**
+   * Checks if a request may be sent to the OCSP responder.
+   *
+   * @param nowMillis current time
+   * @return true, if the request may be sent
+   */
+  synchronized boolean tryAcquirePermission(final long nowMillis) {
+    switch (state) {
+      case CLOSED -> {
+        return true;
+      }
+      case OPEN -> {
+        if (nowMillis - openedAtMillis < openDurationMillis) {
+          return false;
+        }
+        log.debug("Circuit of OCSP responder {} half-open: sending probe request.", ssp);
+        state = State.HALF_OPEN;
+        probeInFlight = true;
+        return true;
+      }
+      default -> {
+        if (probeInFlight) {
+          return false;
+        }
+        probeInFlight = true;
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Returns a permission of a request without outcome, e.g. rejected by the bulkhead.
+   *
+   * @param nowMillis current time
+   * @param latencyMillis time since the permission was acquired
+   */
+  synchronized void releasePermission(final long nowMillis, final long latencyMillis) {
+    if (isProbe(nowMillis, latencyMillis)) {
+      probeInFlight = false;
+    }
+  }
+
+  /** Only the probe request is permitted while half-open, other requests started earlier */
+  private boolean isProbe(final long nowMillis, final long latencyMillis) {
+    return state != State.HALF_OPEN || nowMillis - latencyMillis >= openedAtMillis;
+  }
+
+  /**
+   * Records a successful request.
+   *
+   * @param nowMillis current time
+   * @param latencyMillis latency of the request
+   */
+  synchronized void onSuccess(final long nowMillis, final long latencyMillis) {
+    if (!isProbe(nowMillis, latencyMillis)) {
+      return;
+    }
+    if (slowCallThresholdMillis > 0 && latencyMillis > slowCallThresholdMillis) {
+      onFailure(nowMillis, latencyMillis);
+      return;
+    }
+    if (state != State.CLOSED) {
+      log.info("Circuit of OCSP responder {} closed.", ssp);
+    }
+    state = State.CLOSED;
+    consecutiveFailures = 0;
+    probeInFlight = false;
+  }
+
+  /**
+   * Records a failed request that just started, e.g. not sent.
+   *
+   * @param nowMillis current time
+   */
+  synchronized void onFailure(final long nowMillis) {
+    onFailure(nowMillis, 0);
+  }
+
+  /**
+   * Records a failed request.
+   *
+   * @param nowMillis current time
+   * @param latencyMillis latency of the request
+   */
+  synchronized void onFailure(final long nowMillis, final long latencyMillis) {
+    if (!isProbe(nowMillis, latencyMillis)) {
+      return;
+    }
+    consecutiveFailures++;
+    probeInFlight = false;
+    if (state == State.HALF_OPEN
+        || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+      log.warn(
+          "Circuit of OCSP responder {} opened after {} consecutive failures.",
+          ssp,
+          consecutiveFailures);
+      state = State.OPEN;
+      openedAtMillis = nowMillis;
+    }
+  }
+}
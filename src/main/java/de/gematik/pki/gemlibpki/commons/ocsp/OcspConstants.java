@@ -33,4 +33,11 @@ public final class OcspConstants {
   public static final String MEDIA_TYPE_APPLICATION_OCSP_REQUEST = "application/ocsp-request";
   public static final String MEDIA_TYPE_APPLICATION_OCSP_RESPONSE = "application/ocsp-response";
   public static final int DEFAULT_OCSP_TIMEOUT_SECONDS = 10;
+  public static final long DEFAULT_OCSP_HEDGE_DELAY_MILLISECONDS = 1_000;
+
+  /**
+   * maximum length of the base64 and URL encoded OCSP request in the path of an HTTP GET request,
+   * see RFC 6960, Appendix A.1
+   */
+  public static final int OCSP_HTTP_GET_MAX_REQUEST_LENGTH = 255;
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import de.gematik.pki.gemlibpki.commons.utils.BoundedLruCache;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Optional;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+
+/**
+ * Issuer name hashes and issuer key hashes of OCSP CertIDs, computed once per issuer certificate
+ * and hash algorithm. The number of cached issuers is limited to MAX_ISSUERS, the least recently
+ * used ones are evicted.
+ */
+final class OcspIssuerHashCache {
+
+  static final int MAX_ISSUERS = 1024;
+
+  private static final BoundedLruCache<IssuerKey, IssuerHashes> CACHE =
+      new BoundedLruCache<>(MAX_ISSUERS);
+
+  private OcspIssuerHashCache() {}
+
+  /**
+   * The issuer certificate is identified by the certificate object, whose hash code is computed
+   * once, the algorithm by its OID
+   */
+  private static final class IssuerKey {
+    private final X509Certificate x509IssuerCert;
+    private final ASN1ObjectIdentifier algorithm;
+
+    private IssuerKey(final X509Certificate x509IssuerCert, final ASN1ObjectIdentifier algorithm) {
+      this.x509IssuerCert = x509IssuerCert;
+      this.algorithm = algorithm;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof final IssuerKey other
+          && algorithm.equals(other.algorithm)
+          && x509IssuerCert.equals(other.x509IssuerCert);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * x509IssuerCert.hashCode() + algorithm.hashCode();
+    }
+  }
+
+  static final class IssuerHashes {
+    private final byte[] issuerNameHash;
+    private final byte[] issuerKeyHash;
+
+    private IssuerHashes(final byte[] issuerNameHash, final byte[] issuerKeyHash) {
+      this.issuerNameHash = issuerNameHash;
+      this.issuerKeyHash = issuerKeyHash;
+    }
+
+    byte[] getIssuerNameHash() {
+      return issuerNameHash.clone();
+    }
+
+    byte[] getIssuerKeyHash() {
+      return issuerKeyHash.clone();
+    }
+  }
+
+  /**
+   * Getter for the hashes of the issuer certificate, computed on first use.
+   *
+   * @param x509IssuerCert the issuer certificate
+   * @param algorithmIdentifier the hash algorithm
+   * @return the issuer name hash and the issuer key hash
+   * @throws CertificateEncodingException if the issuer certificate cannot be encoded
+   * @throws OperatorCreationException if the hash algorithm is not supported
+   * @throws OCSPException if the hashes cannot be computed
+   */
+  static IssuerHashes get(
+      final X509Certificate x509IssuerCert, final AlgorithmIdentifier algorithmIdentifier)
+      throws CertificateEncodingException, OperatorCreationException, OCSPException {
+
+    final IssuerKey issuerKey = new IssuerKey(x509IssuerCert, algorithmIdentifier.getAlgorithm());
+    final Optional<IssuerHashes> cachedIssuerHashes = CACHE.get(issuerKey);
+    if (cachedIssuerHashes.isPresent()) {
+      return cachedIssuerHashes.get();
+    }
+
+    final CertificateID certificateId =
+        new CertificateID(
+            new JcaDigestCalculatorProviderBuilder().build().get(algorithmIdentifier),
+            new JcaX509CertificateHolder(x509IssuerCert),
+            x509IssuerCert.getSerialNumber());
+    final IssuerHashes issuerHashes =
+        new IssuerHashes(certificateId.getIssuerNameHash(), certificateId.getIssuerKeyHash());
+
+    CACHE.put(issuerKey, issuerHashes);
+    return issuerHashes;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Sliding window of the latencies of the last windowSize successful requests to an OCSP responder.
+ */
+public final class OcspLatencyHistogram {
+
+  private final long[] latenciesMillis;
+  private int count;
+  private int next;
+
+  OcspLatencyHistogram(final int windowSize) {
+    latenciesMillis = new long[windowSize];
+  }
+
+  synchronized void record(final long latencyMillis) {
+    latenciesMillis[next] = latencyMillis;
+    next = (next + 1) % latenciesMillis.length;
+    count = Math.min(count + 1, latenciesMillis.length);
+  }
+
+  /**
+   * Getter for the number of latencies in the window
+   *
+   * @return the number of latencies
+   */
+  public synchronized int getCount() {
+    return count;
+  }
+
+  /**
+   * Determines the percentile of the latencies in the window.
+   *
+   * @param percentile the percentile between 0 and 1, e.g. 0.99
+   * @param minCount minimum number of latencies in the window
+   * @return the percentile in milliseconds, or empty if there are less than minCount latencies
+   */
+  public OptionalLong getPercentileMillis(final double percentile, final int minCount) {
+    final long[] sorted;
+    synchronized (this) {
+      if (count == 0 || count < minCount) {
+        return OptionalLong.empty();
+      }
+      sorted = Arrays.copyOf(latenciesMillis, count);
+    }
+    Arrays.sort(sorted);
+    final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return OptionalLong.of(sorted[Math.clamp(index, 0, sorted.length - 1)]);
+  }
+}
@@ -29,18 +29,17 @@ import java.security.cert.X509Certificate;
 import lombok.AccessLevel;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.bouncycastle.asn1.ASN1Integer;
 import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.ocsp.CertID;
 import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
 import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
-import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
 import org.bouncycastle.cert.ocsp.CertificateID;
 import org.bouncycastle.cert.ocsp.OCSPException;
 import org.bouncycastle.cert.ocsp.OCSPReq;
 import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
-import org.bouncycastle.operator.DigestCalculator;
-import org.bouncycastle.operator.DigestCalculatorProvider;
 import org.bouncycastle.operator.OperatorCreationException;
-import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 
 /** Class to support OCSP related data */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
@@ -70,7 +69,8 @@ public final class OcspRequestGenerator {
 
   /**
    * Creates a certificate Id from the serial number of the provided end-entity certificate and
-   * issuer certificate using the specified algorithm.
+   * issuer certificate using the specified algorithm. The hashes of the issuer certificate are
+   * computed once per issuer certificate and algorithm.
    *
    * @param serialNumber the end-entity certificate whose serial number will be used
    * @param x509IssuerCert the issuer certificate
@@ -82,20 +82,19 @@ public final class OcspRequestGenerator {
       @NonNull final X509Certificate x509IssuerCert,
       @NonNull final AlgorithmIdentifier algorithmIdentifier) {
 
+    final OcspIssuerHashCache.IssuerHashes issuerHashes;
     try {
-      final JcaDigestCalculatorProviderBuilder digestCalculatorProviderBuilder =
-          new JcaDigestCalculatorProviderBuilder();
-
-      final DigestCalculatorProvider digestCalculatorProvider =
-          digestCalculatorProviderBuilder.build();
-
-      final DigestCalculator digestCalculator = digestCalculatorProvider.get(algorithmIdentifier);
-
-      return new CertificateID(
-          digestCalculator, new JcaX509CertificateHolder(x509IssuerCert), serialNumber);
+      issuerHashes = OcspIssuerHashCache.get(x509IssuerCert, algorithmIdentifier);
     } catch (final OperatorCreationException | CertificateEncodingException | OCSPException e) {
       throw new GemPkiRuntimeException("Generieren der OCSP CertID fehlgeschlagen.", e);
     }
+
+    return new CertificateID(
+        new CertID(
+            algorithmIdentifier,
+            new DEROctetString(issuerHashes.getIssuerNameHash()),
+            new DEROctetString(issuerHashes.getIssuerKeyHash()),
+            new ASN1Integer(serialNumber)));
   }
 
   /**
@@ -20,33 +20,84 @@
 
 package de.gematik.pki.gemlibpki.commons.ocsp;
 
-import static de.gematik.pki.gemlibpki.commons.ocsp.OcspUtils.getBasicOcspResp;
-
-import java.math.BigInteger;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
+import de.gematik.pki.gemlibpki.commons.tsl.TspService;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.cert.ocsp.OCSPResp;
 
 /**
  * Class to support ocsp a responder cache (to implement ocsp grace periods) old entries of the
- * cache are deleted when a cached entry is requested
+ * cache are deleted when a cached entry is requested. This is the in-memory {@link
+ * OcspResponseStore}. Entries are keyed by {@link OcspCertId}, so that one cache can be shared
+ * across all issuers. The cache holds {@link VerifiedOcspResp}s, i.e. only responses that passed
+ * TUC_PKI_006, together with their verified facts.
+ *
+ * <p>Optionally, entries can be refreshed ahead of their expiry: if refreshAheadSeconds is greater
+ * than 0, an entry that was requested at least refreshAheadMinAccessCount times is refreshed in the
+ * background when it is requested within the last refreshAheadSeconds of the grace period. For this
+ * the entry must have been saved with an {@link OcspRespRefresher}. After a failed refresh, the
+ * entry is not refreshed again for refreshBackoffSeconds, so that an unavailable OCSP responder is
+ * not requested on every access.
+ *
+ * <p>If maxStaleSeconds is greater than 0, entries are kept for maxStaleSeconds after the grace
+ * period and can be read with {@link #getStaleResponse(OcspCertId)} as long as their nextUpdate
+ * has not passed, e.g. to bridge outages of the OCSP responder while the entry is revalidated with
+ * {@link #revalidate(OcspCertId)}. Only entries saved with an {@link OcspRespRefresher} can be
+ * revalidated, so only these are returned as stale.
+ *
+ * <p>Optionally, an {@link OcspRespFileStore} can be attached as persistent tier, so that the cache
+ * is warm again after a restart. Refreshers are not persisted, entries loaded from the file store
+ * are neither refreshed ahead of their expiry nor returned as stale.
  */
-@Getter
 @Slf4j
-public class OcspRespCache {
+public class OcspRespCache implements OcspResponseStore {
+
+  /**
+   * Default executor of the refreshes, shared by all caches. It starts a virtual thread per task
+   * and holds no threads between the tasks, so it is never shut down.
+   */
+  private static final Executor DEFAULT_REFRESH_EXECUTOR =
+      Executors.newVirtualThreadPerTaskExecutor();
+
+  @Getter @Setter private int ocspGracePeriodSeconds;
+  @Getter @Setter private int maxStaleSeconds = 0;
+  @Getter @Setter private int refreshAheadSeconds = 0;
+  @Getter @Setter private int refreshAheadMinAccessCount = 2;
+  @Getter @Setter private int refreshBackoffSeconds = 30;
+
+  @Getter @Setter @NonNull private Executor refreshExecutor = DEFAULT_REFRESH_EXECUTOR;
+
+  private OcspRespFileStore fileStore;
 
-  @Setter private int ocspGracePeriodSeconds;
-  private final ConcurrentHashMap<BigInteger, OCSPResp> cache = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<OcspCertId, CacheEntry> cache = new ConcurrentHashMap<>();
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder staleHitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder saveCount = new LongAdder();
+
+  @RequiredArgsConstructor
+  private static final class CacheEntry {
+    private final VerifiedOcspResp verifiedOcspResp;
+    private final OcspRespRefresher refresher;
+    private final LongAdder accessCount = new LongAdder();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private volatile long lastRefreshMillis = 0;
+  }
 
   /**
    * Constructor
@@ -57,26 +108,166 @@ public class OcspRespCache {
     this.ocspGracePeriodSeconds = ocspGracePeriodSeconds;
   }
 
+  /**
+   * Reading the verified response for a specific certificate, if it is within the grace period
+   *
+   * @param certId cert id of the certificate to ask the response for
+   * @return optional of verified ocsp response
+   */
+  @Override
+  public Optional<VerifiedOcspResp> getVerifiedResponse(@NonNull final OcspCertId certId) {
+    final long nowMillis = System.currentTimeMillis();
+    deleteExpiredResponses(nowMillis);
+
+    final CacheEntry cacheEntry = cache.get(certId);
+    if (cacheEntry == null || isStale(cacheEntry, nowMillis)) {
+      missCount.increment();
+      return Optional.empty();
+    }
+
+    hitCount.increment();
+    cacheEntry.accessCount.increment();
+    if (isDueForRefresh(cacheEntry, nowMillis)) {
+      startRefresh(certId, cacheEntry, nowMillis);
+    }
+    return Optional.of(cacheEntry.verifiedOcspResp);
+  }
+
+  /**
+   * Reading the verified response for a specific certificate, if the grace period has passed, but
+   * not more than maxStaleSeconds ago and the nextUpdate of the response has not passed. Entries
+   * without an {@link OcspRespRefresher} cannot be revalidated and are not returned.
+   *
+   * @param certId cert id of the certificate to ask the response for
+   * @return optional of stale verified ocsp response
+   */
+  @Override
+  public Optional<VerifiedOcspResp> getStaleResponse(@NonNull final OcspCertId certId) {
+    final long nowMillis = System.currentTimeMillis();
+    deleteExpiredResponses(nowMillis);
+
+    final CacheEntry cacheEntry = cache.get(certId);
+    if (cacheEntry == null || cacheEntry.refresher == null || !isStale(cacheEntry, nowMillis)) {
+      return Optional.empty();
+    }
+
+    final long nextUpdateMillis = cacheEntry.verifiedOcspResp.getNextUpdateMillis();
+    if (nextUpdateMillis != VerifiedOcspResp.NOT_SET && nextUpdateMillis < nowMillis) {
+      return Optional.empty();
+    }
+    staleHitCount.increment();
+    return Optional.of(cacheEntry.verifiedOcspResp);
+  }
+
+  /**
+   * Requests a new ocsp response for the cached entry in the background, if the entry was saved
+   * with an {@link OcspRespRefresher}, is not refreshed already and its last refresh did not fail
+   * within refreshBackoffSeconds.
+   *
+   * @param certId cert id of the certificate to revalidate the response for
+   */
+  @Override
+  public void revalidate(@NonNull final OcspCertId certId) {
+    final CacheEntry cacheEntry = cache.get(certId);
+    if (cacheEntry != null && cacheEntry.refresher != null) {
+      startRefresh(certId, cacheEntry, System.currentTimeMillis());
+    }
+  }
+
   /**
    * Reading the response for a specific certificate
    *
-   * @param certSerialNr big integer of the certificate serial number to ask the response for
+   * @param certId cert id of the certificate to ask the response for
    * @return optional of ocsp response
    */
-  public synchronized Optional<OCSPResp> getResponse(@NonNull final BigInteger certSerialNr) {
-    deleteExpiredResponses();
-    return Optional.ofNullable(cache.get(certSerialNr));
+  public Optional<OCSPResp> getResponse(@NonNull final OcspCertId certId) {
+    return getVerifiedResponse(certId).map(VerifiedOcspResp::getOcspResp);
+  }
+
+  /**
+   * Writing verified ocsp response to the cache
+   *
+   * @param certId cert id of the certificate
+   * @param verifiedOcspResp verified ocsp response
+   */
+  @Override
+  public void saveResponse(
+      @NonNull final OcspCertId certId, @NonNull final VerifiedOcspResp verifiedOcspResp) {
+    cache.put(certId, new CacheEntry(verifiedOcspResp, null));
+    saveCount.increment();
+    persist(certId, verifiedOcspResp);
   }
 
   /**
-   * Writing ocsp response to the cache
+   * Writing verified ocsp response to the cache, that can be refreshed ahead of its expiry
    *
-   * @param certSerialNr big integer of serial of the certificate
-   * @param ocspResp ocsp response
+   * @param certId cert id of the certificate
+   * @param verifiedOcspResp verified ocsp response
+   * @param refresher to request and verify a new ocsp response for the certificate
    */
+  @Override
   public void saveResponse(
-      @NonNull final BigInteger certSerialNr, @NonNull final OCSPResp ocspResp) {
-    cache.put(certSerialNr, ocspResp);
+      @NonNull final OcspCertId certId,
+      @NonNull final VerifiedOcspResp verifiedOcspResp,
+      @NonNull final OcspRespRefresher refresher) {
+    cache.put(certId, new CacheEntry(verifiedOcspResp, refresher));
+    saveCount.increment();
+    persist(certId, verifiedOcspResp);
+  }
+
+  /**
+   * Attaches a persistent tier to the cache: the entries of the file store that are not expired are
+   * loaded into the cache, and all responses saved from now on are appended to the file store. The
+   * loaded responses are verified again against the OCSP signers of the current TSL, see {@link
+   * TucPki006OcspVerifier#verifyStoredOcspResponse(String, OcspSignerIndex, OCSPResp)}.
+   *
+   * @param fileStore the file store
+   * @param productType the product type
+   * @param tspServiceList the current TSP services of the TSL
+   */
+  public void attachFileStore(
+      @NonNull final OcspRespFileStore fileStore,
+      @NonNull final String productType,
+      @NonNull final List<TspService> tspServiceList) {
+    final long nowMillis = System.currentTimeMillis();
+    final OcspSignerIndex ocspSignerIndex = new OcspSignerIndex(tspServiceList);
+    fileStore
+        .load(
+            ocspResp ->
+                TucPki006OcspVerifier.verifyStoredOcspResponse(
+                    productType, ocspSignerIndex, ocspResp),
+            verifiedOcspResp -> !isExpired(verifiedOcspResp, nowMillis))
+        .forEach(
+            (certId, verifiedOcspResp) ->
+                cache.putIfAbsent(certId, new CacheEntry(verifiedOcspResp, null)));
+    this.fileStore = fileStore;
+    log.debug("{} Ocsp responses loaded from file store {}.", getSize(), fileStore.getPath());
+  }
+
+  /**
+   * Rewrites the attached file store with the entries of the cache that are not expired. Should be
+   * called periodically, e.g. with a {@link java.util.concurrent.ScheduledExecutorService}.
+   */
+  public void compactFileStore() {
+    if (fileStore == null) {
+      return;
+    }
+    deleteExpiredResponses();
+
+    final Map<OcspCertId, VerifiedOcspResp> entries = new HashMap<>();
+    cache.forEach((certId, cacheEntry) -> entries.put(certId, cacheEntry.verifiedOcspResp));
+    fileStore.compact(entries);
+  }
+
+  private void persist(final OcspCertId certId, final VerifiedOcspResp verifiedOcspResp) {
+    if (fileStore == null) {
+      return;
+    }
+    try {
+      fileStore.append(certId, verifiedOcspResp);
+    } catch (final GemPkiRuntimeException e) {
+      log.warn("Ocsp response could not be written to file store: {}", certId, e);
+    }
   }
 
   /**
@@ -88,24 +279,79 @@ public class OcspRespCache {
     return cache.size();
   }
 
-  private void deleteExpiredResponses() {
+  @Override
+  public OcspResponseStoreStats getStats() {
+    return OcspResponseStoreStats.builder()
+        .hitCount(hitCount.sum())
+        .staleHitCount(staleHitCount.sum())
+        .missCount(missCount.sum())
+        .saveCount(saveCount.sum())
+        .size(getSize())
+        .build();
+  }
 
-    final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+  @Override
+  public void deleteExpiredResponses() {
+    deleteExpiredResponses(System.currentTimeMillis());
+  }
 
-    final List<BigInteger> expired = new ArrayList<>();
-    for (final Entry<BigInteger, OCSPResp> entry : cache.entrySet()) {
-      final OCSPResp ocspResp = entry.getValue();
+  private boolean isDueForRefresh(final CacheEntry cacheEntry, final long nowMillis) {
+    if (refreshAheadSeconds <= 0 || cacheEntry.refresher == null) {
+      return false;
+    }
+    final long ageMillis = nowMillis - cacheEntry.verifiedOcspResp.getProducedAtMillis();
+    final long refreshAfterMillis = (ocspGracePeriodSeconds - refreshAheadSeconds) * 1000L;
 
-      final ZonedDateTime producedAt =
-          ZonedDateTime.ofInstant(
-              getBasicOcspResp(ocspResp).getProducedAt().toInstant(), ZoneOffset.UTC);
+    return ageMillis >= refreshAfterMillis
+        && cacheEntry.accessCount.sum() >= refreshAheadMinAccessCount;
+  }
 
-      final long age = ChronoUnit.SECONDS.between(producedAt, now);
+  /** At most one refresh per entry and refreshBackoffSeconds, the entry is replaced on success. */
+  private void startRefresh(
+      final OcspCertId certId, final CacheEntry cacheEntry, final long nowMillis) {
+    if (nowMillis - cacheEntry.lastRefreshMillis < refreshBackoffSeconds * 1000L
+        || !cacheEntry.refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    cacheEntry.lastRefreshMillis = nowMillis;
+    refreshExecutor.execute(() -> refresh(certId, cacheEntry));
+  }
 
-      if (age > ocspGracePeriodSeconds) {
-        expired.add(entry.getKey());
+  private void refresh(final OcspCertId certId, final CacheEntry cacheEntry) {
+    try {
+      final Optional<VerifiedOcspResp> verifiedOcspRespOpt = cacheEntry.refresher.refresh();
+      if (verifiedOcspRespOpt.isPresent()) {
+        // replace the entry only if it was not replaced or deleted in the meantime
+        final VerifiedOcspResp verifiedOcspResp = verifiedOcspRespOpt.get();
+        if (cache.replace(
+            certId, cacheEntry, new CacheEntry(verifiedOcspResp, cacheEntry.refresher))) {
+          persist(certId, verifiedOcspResp);
+        }
+        log.debug("Ocsp response refreshed: {}", certId);
+        return;
       }
+      log.debug("No Ocsp response received for refresh: {}", certId);
+    } catch (final GemPkiException | RuntimeException e) {
+      log.warn("Refresh of ocsp response failed: {}", certId, e);
     }
-    expired.forEach(cache::remove);
+    cacheEntry.refreshing.set(false);
+  }
+
+  private static long getAgeSeconds(
+      final VerifiedOcspResp verifiedOcspResp, final long nowMillis) {
+    return (nowMillis - verifiedOcspResp.getProducedAtMillis()) / 1000;
+  }
+
+  private boolean isStale(final CacheEntry cacheEntry, final long nowMillis) {
+    return getAgeSeconds(cacheEntry.verifiedOcspResp, nowMillis) > ocspGracePeriodSeconds;
+  }
+
+  private boolean isExpired(final VerifiedOcspResp verifiedOcspResp, final long nowMillis) {
+    return getAgeSeconds(verifiedOcspResp, nowMillis)
+        > ocspGracePeriodSeconds + (long) maxStaleSeconds;
+  }
+
+  private void deleteExpiredResponses(final long nowMillis) {
+    cache.values().removeIf(cacheEntry -> isExpired(cacheEntry.verifiedOcspResp, nowMillis));
   }
 }
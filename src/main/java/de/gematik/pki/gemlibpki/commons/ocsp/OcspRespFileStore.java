@@ -0,0 +1,281 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.ocsp.OcspUtils.getFirstSingleResp;
+
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+
+/**
+ * Append-only file of DER encoded OCSP responses indexed by {@link OcspCertId}, used as persistent
+ * tier of {@link OcspRespCache}. The file is read memory-mapped at load time, later records of a
+ * cert id replace earlier ones. Since the file only grows, it has to be compacted periodically,
+ * see {@link OcspRespCache#compactFileStore()}.
+ *
+ * <p>File layout: magic (int), version (int), followed by records of: payload length (int), cert
+ * id length (short), cert id, cert hash matched (byte), responder cert id length (short), responder
+ * cert id, DER length (int), DER encoded OCSP response.
+ *
+ * <p>The file is not trusted: on load, every response has to belong to the cert id of its record
+ * and is verified again by a {@link ResponseVerifier}, e.g. against the current TSL. The stored
+ * responder cert id and cert hash flag are not used. Since the cert hash cannot be checked again
+ * without the end-entity certificate, loaded responses are returned with cert hash not matched,
+ * and the OCSP check verifies the cert hash against the certificate before using them.
+ */
+@Slf4j
+public final class OcspRespFileStore implements Closeable {
+
+  private static final int MAGIC = 0x4F435350;
+  private static final int VERSION = 1;
+  private static final int HEADER_LENGTH = 2 * Integer.BYTES;
+
+  @Getter private final Path path;
+  private FileChannel channel;
+
+  /** number of records in the file, including records that were replaced by later ones */
+  @Getter private int recordCount;
+
+  /** Verifies a response loaded from the file, e.g. with {@link TucPki006OcspVerifier} */
+  @FunctionalInterface
+  public interface ResponseVerifier {
+
+    /**
+     * @param ocspResp the loaded OCSP response
+     * @return SHA-256 fingerprint of the responder certificate
+     * @throws GemPkiException thrown if the response is not valid (anymore)
+     */
+    byte[] verify(OCSPResp ocspResp) throws GemPkiException;
+  }
+
+  /**
+   * Opens the file store, the file is created if it does not exist.
+   *
+   * @param path path of the file
+   */
+  public OcspRespFileStore(@NonNull final Path path) {
+    this.path = path;
+    this.channel = openChannel(path);
+  }
+
+  private static FileChannel openChannel(final Path path) {
+    try {
+      final FileChannel fileChannel =
+          FileChannel.open(
+              path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      if (fileChannel.size() == 0) {
+        writeFully(fileChannel, ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(VERSION));
+        return fileChannel;
+      }
+
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+      fileChannel.read(header, 0);
+      header.flip();
+      if (header.remaining() < HEADER_LENGTH
+          || header.getInt() != MAGIC
+          || header.getInt() != VERSION) {
+        fileChannel.close();
+        throw new GemPkiRuntimeException("Datei ist kein OCSP Response Store: " + path);
+      }
+      return fileChannel;
+    } catch (final IOException e) {
+      throw new GemPkiRuntimeException("Fehler beim Öffnen des OCSP Response Store: " + path, e);
+    }
+  }
+
+  /**
+   * Reads all records of the file. If the file ends with an incomplete record, e.g. after a crash,
+   * the file is truncated to the last complete record. Records that fail the verification are
+   * skipped.
+   *
+   * @param verifier verifier of the loaded responses
+   * @param keep predicate for the responses to return, e.g. to drop expired ones
+   * @return the latest response per cert id, for which the predicate is true
+   */
+  public synchronized Map<OcspCertId, VerifiedOcspResp> load(
+      @NonNull final ResponseVerifier verifier, @NonNull final Predicate<VerifiedOcspResp> keep) {
+
+    final Map<OcspCertId, VerifiedOcspResp> entries = new HashMap<>();
+    try {
+      final long size = channel.size();
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      buffer.position(HEADER_LENGTH);
+
+      int count = 0;
+      int validLength = HEADER_LENGTH;
+      while (buffer.remaining() >= Integer.BYTES) {
+        final int payloadLength = buffer.getInt();
+        if (payloadLength <= 0 || payloadLength > buffer.remaining()) {
+          break;
+        }
+        final ByteBuffer payload = buffer.slice(buffer.position(), payloadLength);
+        buffer.position(buffer.position() + payloadLength);
+        validLength = buffer.position();
+        count++;
+
+        try {
+          readRecord(payload, verifier, entries);
+        } catch (final GemPkiException e) {
+          log.warn("Skipping record failing verification in OCSP response store {}.", path, e);
+        } catch (final IOException | RuntimeException e) {
+          log.warn("Skipping invalid record in OCSP response store {}.", path, e);
+        }
+      }
+      recordCount = count;
+
+      if (validLength < size) {
+        log.warn("Truncating incomplete record at the end of OCSP response store {}.", path);
+        channel.truncate(validLength);
+      }
+    } catch (final IOException e) {
+      throw new GemPkiRuntimeException("Fehler beim Lesen des OCSP Response Store: " + path, e);
+    }
+
+    entries.values().removeIf(keep.negate());
+    return entries;
+  }
+
+  private void readRecord(
+      final ByteBuffer payload,
+      final ResponseVerifier verifier,
+      final Map<OcspCertId, VerifiedOcspResp> entries)
+      throws IOException, GemPkiException {
+    final OcspCertId certId = OcspCertId.fromEncoded(readBytes(payload, payload.getShort()));
+    // cert hash matched and responder cert id are not trusted, see class comment
+    payload.get();
+    readBytes(payload, payload.getShort());
+    final OCSPResp ocspResp = new OCSPResp(readBytes(payload, payload.getInt()));
+
+    if (!certId.equals(OcspCertId.of(getFirstSingleResp(ocspResp).getCertID()))) {
+      log.warn("Skipping record with foreign cert id in OCSP response store {}.", path);
+      return;
+    }
+    final byte[] responderCertId = verifier.verify(ocspResp);
+    entries.put(certId, VerifiedOcspResp.of(ocspResp, false, responderCertId));
+  }
+
+  private static byte[] readBytes(final ByteBuffer buffer, final int length) {
+    final byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Appends the response to the file.
+   *
+   * @param certId cert id of the certificate
+   * @param verifiedOcspResp verified ocsp response
+   */
+  public synchronized void append(
+      @NonNull final OcspCertId certId, @NonNull final VerifiedOcspResp verifiedOcspResp) {
+    try {
+      writeFully(channel, encodeRecord(certId, verifiedOcspResp));
+      recordCount++;
+    } catch (final IOException e) {
+      throw new GemPkiRuntimeException("Fehler beim Schreiben des OCSP Response Store: " + path, e);
+    }
+  }
+
+  /**
+   * Rewrites the file with the given entries only. The new file is written next to the old one and
+   * replaces it atomically. If the replacement fails, the store keeps using the old file.
+   *
+   * @param entries the entries to keep
+   */
+  public synchronized void compact(@NonNull final Map<OcspCertId, VerifiedOcspResp> entries) {
+    final Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+    try {
+      Files.deleteIfExists(tmpPath);
+      try (final FileChannel tmpChannel = openChannel(tmpPath)) {
+        for (final Map.Entry<OcspCertId, VerifiedOcspResp> entry : entries.entrySet()) {
+          writeFully(tmpChannel, encodeRecord(entry.getKey(), entry.getValue()));
+        }
+        tmpChannel.force(true);
+      }
+
+      Files.move(
+          tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      final FileChannel oldChannel = channel;
+      channel = openChannel(path);
+      recordCount = entries.size();
+      oldChannel.close();
+    } catch (final IOException e) {
+      throw new GemPkiRuntimeException(
+          "Fehler beim Kompaktieren des OCSP Response Store: " + path, e);
+    }
+  }
+
+  private static ByteBuffer encodeRecord(
+      final OcspCertId certId, final VerifiedOcspResp verifiedOcspResp) throws IOException {
+    final byte[] certIdBytes = certId.getEncoded();
+    final byte[] responderCertId = verifiedOcspResp.getResponderCertId();
+    final byte[] der = verifiedOcspResp.getOcspResp().getEncoded();
+
+    final int payloadLength =
+        Short.BYTES
+            + certIdBytes.length
+            + 1
+            + Short.BYTES
+            + responderCertId.length
+            + Integer.BYTES
+            + der.length;
+
+    return ByteBuffer.allocate(Integer.BYTES + payloadLength)
+        .putInt(payloadLength)
+        .putShort((short) certIdBytes.length)
+        .put(certIdBytes)
+        .put((byte) (verifiedOcspResp.isCertHashMatched() ? 1 : 0))
+        .putShort((short) responderCertId.length)
+        .put(responderCertId)
+        .putInt(der.length)
+        .put(der);
+  }
+
+  private static void writeFully(final FileChannel fileChannel, final ByteBuffer buffer)
+      throws IOException {
+    buffer.flip();
+    long position = fileChannel.size();
+    while (buffer.hasRemaining()) {
+      position += fileChannel.write(buffer, position);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/** State of one OCSP responder (service supply point), shared by all transceivers using it. */
+@Getter
+public final class OcspResponder {
+
+  private final String ssp;
+  private final OcspCircuitBreaker circuitBreaker;
+  private final OcspLatencyHistogram latencyHistogram;
+
+  /** null, if the concurrent requests are not limited */
+  private final OcspBulkhead bulkhead;
+
+  @Getter(AccessLevel.NONE)
+  private final LongAdder successCount = new LongAdder();
+
+  @Getter(AccessLevel.NONE)
+  private final LongAdder failureCount = new LongAdder();
+
+  @Getter(AccessLevel.NONE)
+  private final LongAdder rejectedCount = new LongAdder();
+
+  OcspResponder(
+      final String ssp,
+      final OcspCircuitBreaker circuitBreaker,
+      final OcspLatencyHistogram latencyHistogram,
+      final OcspBulkhead bulkhead) {
+    this.ssp = ssp;
+    this.circuitBreaker = circuitBreaker;
+    this.latencyHistogram = latencyHistogram;
+    this.bulkhead = bulkhead;
+  }
+
+  /**
+   * Getter for the number of successful requests
+   *
+   * @return the number of successful requests
+   */
+  public long getSuccessCount() {
+    return successCount.sum();
+  }
+
+  /**
+   * Getter for the number of failed requests
+   *
+   * @return the number of failed requests
+   */
+  public long getFailureCount() {
+    return failureCount.sum();
+  }
+
+  /**
+   * Getter for the number of requests that failed fast without being sent
+   *
+   * @return the number of rejected requests
+   */
+  public long getRejectedCount() {
+    return rejectedCount.sum();
+  }
+
+  boolean tryAcquireBulkhead() throws InterruptedException {
+    return (bulkhead == null) || bulkhead.tryAcquire();
+  }
+
+  void releaseBulkhead() {
+    if (bulkhead != null) {
+      bulkhead.release();
+    }
+  }
+
+  void releaseBulkhead(final boolean success, final long latencyMillis) {
+    if (bulkhead != null) {
+      bulkhead.release(success, latencyMillis);
+    }
+  }
+
+  boolean tryAcquirePermission(final long nowMillis) {
+    if (circuitBreaker.tryAcquirePermission(nowMillis)) {
+      return true;
+    }
+    rejectedCount.increment();
+    return false;
+  }
+
+  void releasePermission(final long nowMillis, final long latencyMillis) {
+    circuitBreaker.releasePermission(nowMillis, latencyMillis);
+  }
+
+  void onSuccess(final long nowMillis, final long latencyMillis) {
+    successCount.increment();
+    latencyHistogram.record(latencyMillis);
+    circuitBreaker.onSuccess(nowMillis, latencyMillis);
+  }
+
+  /** A timed out request is a failure, its latency is recorded for the adaptive timeout */
+  void onTimeout(final long nowMillis, final long latencyMillis) {
+    latencyHistogram.record(latencyMillis);
+    onFailure(nowMillis, latencyMillis);
+  }
+
+  void onFailure(final long nowMillis) {
+    onFailure(nowMillis, 0);
+  }
+
+  void onFailure(final long nowMillis, final long latencyMillis) {
+    failureCount.increment();
+    circuitBreaker.onFailure(nowMillis, latencyMillis);
+  }
+}
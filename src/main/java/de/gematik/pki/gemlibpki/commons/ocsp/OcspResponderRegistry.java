@@ -0,0 +1,231 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Registry of the {@link OcspResponder}s, to be shared by all {@link OcspTransceiver}s of an
+ * application. Besides the circuit breaker per OCSP responder, failed requests are cached per
+ * {@link OcspCertId} for negativeCacheTtlMillis, so that a failing certificate does not cause a
+ * retry storm.
+ *
+ * <p>The latencies of the successful requests are kept per OCSP responder in a sliding window of
+ * latencyWindowSize requests. If a transceiver knows several OCSP responders for an issuer, a
+ * hedged request is sent to the next one after the hedgePercentile of the latencies of the first
+ * one, as soon as minLatencySamples latencies are known.
+ *
+ * <p>If bulkheadMaxConcurrentRequests is greater than 0, the concurrent requests per OCSP responder
+ * are limited by an {@link OcspBulkhead}, either statically or adaptive (bulkheadAdaptive).
+ *
+ * <p>If adaptiveTimeoutFactor is greater than 0, the timeout of a request is the
+ * adaptiveTimeoutPercentile of the latencies of the OCSP responder times adaptiveTimeoutFactor, at
+ * least minAdaptiveTimeoutMillis and at most the configured OCSP timeout. Requests that time out
+ * are recorded with their latency, so the timeout grows again for responders that became slower.
+ *
+ * <p>OCSP responses received by HTTP GET are kept while they are fresh according to their
+ * Cache-Control max-age or Expires header, but at most httpCacheMaxTtlMillis, so that repeated
+ * requests for a certificate are answered without contacting the OCSP responder. As the producedAt
+ * of a reused response has to be within the tolerance of TUC_PKI_006, httpCacheMaxTtlMillis should
+ * not exceed it. A value of 0 disables the HTTP cache.
+ */
+@Builder
+public final class OcspResponderRegistry {
+
+  @Builder.Default private final int failureThreshold = 5;
+  @Builder.Default private final long openDurationMillis = 30_000;
+  @Builder.Default private final long slowCallThresholdMillis = 0;
+  @Builder.Default private final long negativeCacheTtlMillis = 5_000;
+  @Builder.Default private final int latencyWindowSize = 256;
+  @Builder.Default private final int minLatencySamples = 20;
+  @Builder.Default private final double hedgePercentile = 0.95;
+
+  @Builder.Default private final int bulkheadMaxConcurrentRequests = 0;
+  @Builder.Default private final int bulkheadMinConcurrentRequests = 1;
+  @Builder.Default private final boolean bulkheadAdaptive = false;
+  @Builder.Default private final long bulkheadLatencyTargetMillis = 1_000;
+  @Builder.Default private final int bulkheadMaxQueueLength = 100;
+  @Builder.Default private final long bulkheadMaxQueueWaitMillis = 1_000;
+
+  @Builder.Default private final double adaptiveTimeoutFactor = 0;
+  @Builder.Default private final double adaptiveTimeoutPercentile = 0.99;
+  @Builder.Default private final long minAdaptiveTimeoutMillis = 100;
+
+  @Builder.Default private final long httpCacheMaxTtlMillis = 30_000;
+
+  private final ConcurrentHashMap<String, OcspResponder> responders = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<OcspCertId, Long> negativeCache = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, HttpCachedBody> httpCache = new ConcurrentHashMap<>();
+
+  @RequiredArgsConstructor
+  private static final class HttpCachedBody {
+    private final byte[] body;
+    private final long expiresAtMillis;
+  }
+
+  /**
+   * Getter for the state of an OCSP responder, it is created on first use.
+   *
+   * @param ssp URL of the OCSP responder
+   * @return the OCSP responder
+   */
+  public OcspResponder getResponder(@NonNull final String ssp) {
+    return responders.computeIfAbsent(
+        ssp,
+        url ->
+            new OcspResponder(
+                url,
+                new OcspCircuitBreaker(
+                    url, failureThreshold, openDurationMillis, slowCallThresholdMillis),
+                new OcspLatencyHistogram(latencyWindowSize),
+                createBulkhead()));
+  }
+
+  private OcspBulkhead createBulkhead() {
+    if (bulkheadMaxConcurrentRequests <= 0) {
+      return null;
+    }
+    return new OcspBulkhead(
+        bulkheadMinConcurrentRequests,
+        bulkheadMaxConcurrentRequests,
+        bulkheadAdaptive,
+        bulkheadLatencyTargetMillis,
+        bulkheadMaxQueueLength,
+        bulkheadMaxQueueWaitMillis);
+  }
+
+  /**
+   * Determines the delay after which a hedged request is sent to the next OCSP responder.
+   *
+   * @param ocspResponder the OCSP responder the first request is sent to
+   * @param defaultDelayMillis delay if not enough latencies of the OCSP responder are known
+   * @return the delay in milliseconds
+   */
+  long getHedgeDelayMillis(final OcspResponder ocspResponder, final long defaultDelayMillis) {
+    return ocspResponder
+        .getLatencyHistogram()
+        .getPercentileMillis(hedgePercentile, minLatencySamples)
+        .orElse(defaultDelayMillis);
+  }
+
+  /**
+   * Determines the timeout of a request to the OCSP responder.
+   *
+   * @param ocspResponder the OCSP responder the request is sent to
+   * @param maxTimeoutMillis the configured OCSP timeout
+   * @return the timeout in milliseconds, maxTimeoutMillis if adaptive timeouts are disabled or not
+   *     enough latencies of the OCSP responder are known
+   */
+  long getTimeoutMillis(final OcspResponder ocspResponder, final long maxTimeoutMillis) {
+    if (adaptiveTimeoutFactor <= 0) {
+      return maxTimeoutMillis;
+    }
+    final OptionalLong percentileMillis =
+        ocspResponder
+            .getLatencyHistogram()
+            .getPercentileMillis(adaptiveTimeoutPercentile, minLatencySamples);
+    if (percentileMillis.isEmpty()) {
+      return maxTimeoutMillis;
+    }
+    final long timeoutMillis =
+        (long) Math.ceil(percentileMillis.getAsLong() * adaptiveTimeoutFactor);
+    return Math.min(maxTimeoutMillis, Math.max(minAdaptiveTimeoutMillis, timeoutMillis));
+  }
+
+  /**
+   * Getter for all OCSP responders used so far
+   *
+   * @return the OCSP responders
+   */
+  public Collection<OcspResponder> getResponders() {
+    return Collections.unmodifiableCollection(responders.values());
+  }
+
+  /**
+   * Checks if a request for the certificate failed within the last negativeCacheTtlMillis.
+   *
+   * @param certId cert id of the certificate
+   * @param nowMillis current time
+   * @return true, if the failure is cached
+   */
+  boolean isNegativeCached(final OcspCertId certId, final long nowMillis) {
+    final Long expiresAtMillis = negativeCache.get(certId);
+    if (expiresAtMillis == null) {
+      return false;
+    }
+    if (expiresAtMillis <= nowMillis) {
+      negativeCache.remove(certId, expiresAtMillis);
+      return false;
+    }
+    return true;
+  }
+
+  void addNegativeResult(final OcspCertId certId, final long nowMillis) {
+    if (negativeCacheTtlMillis <= 0) {
+      return;
+    }
+    negativeCache.values().removeIf(expiresAtMillis -> expiresAtMillis <= nowMillis);
+    negativeCache.put(certId, nowMillis + negativeCacheTtlMillis);
+  }
+
+  void removeNegativeResult(final OcspCertId certId) {
+    negativeCache.remove(certId);
+  }
+
+  /**
+   * Reads a fresh OCSP response received by HTTP GET.
+   *
+   * @param ocspReqUrlEncoded the base64 and URL encoded OCSP request
+   * @param nowMillis current time
+   * @return the body of the HTTP response, or empty if no fresh response is cached
+   */
+  Optional<byte[]> getHttpCachedBody(final String ocspReqUrlEncoded, final long nowMillis) {
+    final HttpCachedBody httpCachedBody = httpCache.get(ocspReqUrlEncoded);
+    if (httpCachedBody == null) {
+      return Optional.empty();
+    }
+    if (httpCachedBody.expiresAtMillis <= nowMillis) {
+      httpCache.remove(ocspReqUrlEncoded, httpCachedBody);
+      return Optional.empty();
+    }
+    return Optional.of(httpCachedBody.body);
+  }
+
+  void addHttpCachedBody(
+      final String ocspReqUrlEncoded,
+      final byte[] body,
+      final long expiresAtMillis,
+      final long nowMillis) {
+    final long cappedExpiresAtMillis = Math.min(expiresAtMillis, nowMillis + httpCacheMaxTtlMillis);
+    if (cappedExpiresAtMillis <= nowMillis) {
+      return;
+    }
+    httpCache.values().removeIf(httpCachedBody -> httpCachedBody.expiresAtMillis <= nowMillis);
+    httpCache.put(ocspReqUrlEncoded, new HttpCachedBody(body, cappedExpiresAtMillis));
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import java.util.Optional;
+import lombok.NonNull;
+
+/**
+ * Store of verified OCSP responses keyed by {@link OcspCertId}, used by the OCSP check to avoid
+ * requests to the OCSP responder. {@link OcspRespCache} is the in-memory implementation, {@link
+ * NearCacheOcspResponseStore} puts a local store in front of a shared one, e.g. to share OCSP
+ * responses between the nodes of a cluster.
+ */
+public interface OcspResponseStore {
+
+  /**
+   * Reading the verified response for a specific certificate, if it is within the grace period
+   *
+   * @param certId cert id of the certificate to ask the response for
+   * @return optional of verified ocsp response
+   */
+  Optional<VerifiedOcspResp> getVerifiedResponse(@NonNull OcspCertId certId);
+
+  /**
+   * Reading the verified response for a specific certificate, if the grace period has passed, but
+   * the response may still be used while it is revalidated. Stores return only responses they can
+   * revalidate with {@link #revalidate(OcspCertId)}, stores without a maximum staleness return
+   * empty.
+   *
+   * @param certId cert id of the certificate to ask the response for
+   * @return optional of stale verified ocsp response
+   */
+  default Optional<VerifiedOcspResp> getStaleResponse(@NonNull final OcspCertId certId) {
+    return Optional.empty();
+  }
+
+  /**
+   * Writing verified ocsp response to the store
+   *
+   * @param certId cert id of the certificate
+   * @param verifiedOcspResp verified ocsp response
+   */
+  void saveResponse(@NonNull OcspCertId certId, @NonNull VerifiedOcspResp verifiedOcspResp);
+
+  /**
+   * Writing verified ocsp response to the store, that can be refreshed by the store. Stores that do
+   * not refresh responses ignore the refresher.
+   *
+   * @param certId cert id of the certificate
+   * @param verifiedOcspResp verified ocsp response
+   * @param refresher to request and verify a new ocsp response for the certificate
+   */
+  default void saveResponse(
+      @NonNull final OcspCertId certId,
+      @NonNull final VerifiedOcspResp verifiedOcspResp,
+      @NonNull final OcspRespRefresher refresher) {
+    saveResponse(certId, verifiedOcspResp);
+  }
+
+  /**
+   * Requests a new ocsp response for the stored entry in the background, if supported by the store.
+   *
+   * @param certId cert id of the certificate to revalidate the response for
+   */
+  default void revalidate(@NonNull final OcspCertId certId) {
+    // refreshing responses is optional
+  }
+
+  /** Deletes the responses which may not be used anymore. */
+  void deleteExpiredResponses();
+
+  /**
+   * Getter for the statistics of the store
+   *
+   * @return the statistics
+   */
+  OcspResponseStoreStats getStats();
+
+  /**
+   * Getter for the maximum staleness of responses returned by {@link #getStaleResponse}
+   *
+   * @return the maximum staleness in seconds, 0 if stale responses are not supported
+   */
+  default int getMaxStaleSeconds() {
+    return 0;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.utils.CertReader.readX509;
+
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
+import de.gematik.pki.gemlibpki.commons.tsl.TslConstants;
+import de.gematik.pki.gemlibpki.commons.tsl.TspService;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
+import eu.europa.esig.trustedlist.jaxb.tsl.DigitalIdentityType;
+import eu.europa.esig.trustedlist.jaxb.tsl.TSPServiceType;
+import java.security.MessageDigest;
+import java.security.cert.X509Certificate;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index of the OCSP services of a TSP service list by the SHA-256 fingerprints of their
+ * certificates. The signer certificate of each OCSP service is decoded once when the index is
+ * built. The index should be built once per TSL and passed to the verifications against it, see
+ * {@link TucPki006OcspVerifier}. It is immutable and can be shared between threads.
+ */
+@Slf4j
+public final class OcspSignerIndex {
+
+  private final Map<String, X509Certificate> ocspSignersByFingerprint = new HashMap<>();
+
+  /**
+   * Builds the index of the OCSP services of the TSP service list.
+   *
+   * @param tspServiceList the TSP services of the TSL
+   */
+  public OcspSignerIndex(@NonNull final List<TspService> tspServiceList) {
+    for (final TspService tspService : tspServiceList) {
+      final List<DigitalIdentityType> digitalIds = getOcspDigitalIds(tspService);
+      if (digitalIds.isEmpty() || digitalIds.getFirst().getX509Certificate() == null) {
+        continue;
+      }
+      final X509Certificate ocspSigner;
+      try {
+        ocspSigner = readX509(digitalIds.getFirst().getX509Certificate());
+      } catch (final GemPkiRuntimeException e) {
+        log.warn("OCSP Signer Zertifikat der TSL kann nicht gelesen werden.", e);
+        continue;
+      }
+      for (final DigitalIdentityType digitalIdentityType : digitalIds) {
+        if (digitalIdentityType.getX509Certificate() != null) {
+          ocspSignersByFingerprint.putIfAbsent(
+              toFingerprint(digitalIdentityType.getX509Certificate()), ocspSigner);
+        }
+      }
+    }
+  }
+
+  /**
+   * Looks up the OCSP service of the given certificate.
+   *
+   * @param derX509Cert DER encoded certificate
+   * @return the first certificate of the OCSP service, or empty if the certificate does not belong
+   *     to an OCSP service
+   */
+  public Optional<X509Certificate> getOcspSignerInTsl(@NonNull final byte[] derX509Cert) {
+    return Optional.ofNullable(ocspSignersByFingerprint.get(toFingerprint(derX509Cert)));
+  }
+
+  /**
+   * Checks whether the responder cert id of a stored OCSP response is still the signer of an OCSP
+   * service of the TSL.
+   *
+   * @param responderCertId SHA-256 fingerprint of the certificate the OCSP response was verified
+   *     with, see {@link VerifiedOcspResp#getResponderCertId()}
+   * @return true, if the certificate belongs to an OCSP service of the TSL
+   */
+  public boolean isOcspSigner(@NonNull final byte[] responderCertId) {
+    return ocspSignersByFingerprint.containsKey(HexFormat.of().formatHex(responderCertId));
+  }
+
+  /**
+   * Checks whether the responder cert id of a stored OCSP response is still the signer of an OCSP
+   * service of the TSP service list, without an index.
+   *
+   * @param tspServiceList the TSP services of the TSL
+   * @param responderCertId SHA-256 fingerprint of the certificate the OCSP response was verified
+   *     with, see {@link VerifiedOcspResp#getResponderCertId()}
+   * @return true, if the certificate belongs to an OCSP service of the TSL
+   */
+  public static boolean isOcspSignerInTsl(
+      @NonNull final List<TspService> tspServiceList, @NonNull final byte[] responderCertId) {
+    for (final TspService tspService : tspServiceList) {
+      for (final DigitalIdentityType digitalIdentityType : getOcspDigitalIds(tspService)) {
+        if (digitalIdentityType.getX509Certificate() != null
+            && MessageDigest.isEqual(
+                GemLibPkiUtils.calculateSha256(digitalIdentityType.getX509Certificate()),
+                responderCertId)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Looks up the OCSP service of the given certificate without an index, for a single verification
+   * against the TSP service list: the certificates are compared byte by byte and only the signer
+   * certificate of the matching service is decoded.
+   *
+   * @param tspServiceList the TSP services of the TSL
+   * @param derX509Cert DER encoded certificate
+   * @return the first certificate of the OCSP service, or empty if the certificate does not belong
+   *     to an OCSP service
+   */
+  public static Optional<X509Certificate> findOcspSignerInTsl(
+      @NonNull final List<TspService> tspServiceList, @NonNull final byte[] derX509Cert) {
+    for (final TspService tspService : tspServiceList) {
+      final List<DigitalIdentityType> digitalIds = getOcspDigitalIds(tspService);
+      for (final DigitalIdentityType digitalIdentityType : digitalIds) {
+        if (MessageDigest.isEqual(digitalIdentityType.getX509Certificate(), derX509Cert)) {
+          return Optional.of(readX509(digitalIds.getFirst().getX509Certificate()));
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static List<DigitalIdentityType> getOcspDigitalIds(final TspService tspService) {
+    final TSPServiceType tspServiceType = tspService.getTspServiceType();
+    if (!TslConstants.STI_OCSP.equals(
+        tspServiceType.getServiceInformation().getServiceTypeIdentifier())) {
+      return List.of();
+    }
+    return tspServiceType.getServiceInformation().getServiceDigitalIdentity().getDigitalId();
+  }
+
+  private static String toFingerprint(final byte[] derX509Cert) {
+    return HexFormat.of().formatHex(GemLibPkiUtils.calculateSha256(derX509Cert));
+  }
+}
@@ -25,20 +25,40 @@ import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import kong.unirest.core.GetRequest;
+import kong.unirest.core.Headers;
 import kong.unirest.core.HttpResponse;
 import kong.unirest.core.Unirest;
 import kong.unirest.core.UnirestException;
 import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -56,7 +76,7 @@ public final class OcspTransceiver {
   public static final String OCSP_SEND_RECEIVE_FAILED = "OCSP senden/empfangen fehlgeschlagen.";
   @NonNull private final String productType;
   @NonNull private final X509Certificate x509EeCert;
-  @NonNull private final X509Certificate x509IssuerCert;
+  @Getter @NonNull private final X509Certificate x509IssuerCert;
   @NonNull private final String ssp;
 
   @Builder.Default
@@ -64,6 +84,41 @@ public final class OcspTransceiver {
 
   @Builder.Default private final boolean tolerateOcspFailure = false;
 
+  /** optional registry for the circuit breaker of the OCSP responder and negative caching */
+  @Builder.Default private final OcspResponderRegistry ocspResponderRegistry = null;
+
+  /** further SSPs of the issuer, used for failover and hedged requests */
+  @NonNull @Builder.Default private final List<String> additionalSsps = List.of();
+
+  /**
+   * send OCSP requests whose base64 and URL encoded form has at most httpGetMaxRequestLength
+   * characters by HTTP GET (RFC 6960, Appendix A.1), so that responses can be cached by HTTP caches
+   * and proxies; larger requests are sent by HTTP POST. With an ocspResponderRegistry, responses
+   * are reused while they are fresh according to their Cache-Control max-age or Expires header.
+   */
+  @Builder.Default private final boolean useHttpGet = false;
+
+  @Builder.Default
+  private final int httpGetMaxRequestLength = OcspConstants.OCSP_HTTP_GET_MAX_REQUEST_LENGTH;
+
+  /**
+   * max-age of a cached response accepted for an HTTP GET request (Cache-Control request header),
+   * not sent if negative
+   */
+  @Builder.Default private final long httpGetMaxAgeSeconds = -1;
+
+  /** delay of a hedged request, if the latencies of the SSP are not known from the registry */
+  @Builder.Default
+  private final long hedgeDelayMillis = OcspConstants.DEFAULT_OCSP_HEDGE_DELAY_MILLISECONDS;
+
+  @RequiredArgsConstructor
+  private static final class HedgedAttempt {
+    private final String ssp;
+    private final Pair<HttpResponse<byte[]>, Exception> result;
+    private final long latencyMillis;
+    private final boolean rejected;
+  }
+
   public Optional<OCSPResp> getOcspResponse() throws GemPkiException {
     final OCSPReq ocspReq =
         OcspRequestGenerator.generateSingleOcspRequest(x509EeCert, x509IssuerCert);
@@ -104,8 +159,6 @@ public final class OcspTransceiver {
    */
   public Optional<OCSPResp> sendOcspRequest(@NonNull final OCSPReq ocspReq) throws GemPkiException {
 
-    log.info("Sending OCSP Request for end entity certificate to: {}", ssp);
-
     final byte[] ocspReqEncoded;
     try {
       ocspReqEncoded = ocspReq.getEncoded();
@@ -113,6 +166,370 @@ public final class OcspTransceiver {
       throw new GemPkiRuntimeException(OCSP_SEND_RECEIVE_FAILED, e);
     }
 
+    final Optional<byte[]> httpCachedBodyOpt = getHttpCachedBody(ocspReqEncoded);
+    if (httpCachedBodyOpt.isPresent()) {
+      log.debug("OCSP response from HTTP cache of the registry, request not sent to {}", ssp);
+      try {
+        return Optional.of(getOcspRespForBody(httpCachedBodyOpt.get()));
+      } catch (final IOException e) {
+        throw new GemPkiRuntimeException(OCSP_SEND_RECEIVE_FAILED, e);
+      }
+    }
+
+    if (!additionalSsps.isEmpty()) {
+      return sendHedgedOcspRequest(ocspReq, ocspReqEncoded);
+    }
+
+    if (ocspResponderRegistry == null) {
+      return sendOcspRequestWithTimeout(ocspReqEncoded);
+    }
+
+    final OcspResponder ocspResponder = ocspResponderRegistry.getResponder(ssp);
+    final OcspCertId certId = OcspCertId.of(ocspReq.getRequestList()[0].getCertID());
+
+    if (ocspResponderRegistry.isNegativeCached(certId, System.currentTimeMillis())) {
+      log.debug("OCSP request for this certificate failed recently: not sent to {}", ssp);
+      return handleOcspResponderNotAvailable();
+    }
+    if (!tryAcquireBulkhead(ocspResponder)) {
+      return handleOcspResponderNotAvailable();
+    }
+    if (!ocspResponder.tryAcquirePermission(System.currentTimeMillis())) {
+      log.debug("Circuit of OCSP responder is open: request not sent to {}", ssp);
+      ocspResponder.releaseBulkhead();
+      return handleOcspResponderNotAvailable();
+    }
+
+    final long timeoutMillis =
+        ocspResponderRegistry.getTimeoutMillis(
+            ocspResponder, TimeUnit.SECONDS.toMillis(ocspTimeoutSeconds));
+    final long startNanos = System.nanoTime();
+    boolean success = false;
+    try {
+      final Optional<OCSPResp> ocspRespOpt =
+          sendOcspRequestWithTimeout(ocspReqEncoded, timeoutMillis, TimeUnit.MILLISECONDS);
+      success = ocspRespOpt.isPresent();
+      return ocspRespOpt;
+    } finally {
+      final long nowMillis = System.currentTimeMillis();
+      final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      ocspResponder.releaseBulkhead(success, latencyMillis);
+      if (success) {
+        ocspResponder.onSuccess(nowMillis, latencyMillis);
+        ocspResponderRegistry.removeNegativeResult(certId);
+      } else {
+        if (latencyMillis >= timeoutMillis) {
+          ocspResponder.onTimeout(nowMillis, latencyMillis);
+        } else {
+          ocspResponder.onFailure(nowMillis, latencyMillis);
+        }
+        ocspResponderRegistry.addNegativeResult(certId, nowMillis);
+      }
+    }
+  }
+
+  /** Waits for a free slot of the bulkhead of the OCSP responder, if configured */
+  private boolean tryAcquireBulkhead(final OcspResponder ocspResponder) throws GemPkiException {
+    try {
+      if (ocspResponder.tryAcquireBulkhead()) {
+        return true;
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      handleWithTolerateOcspFailure(e);
+      return false;
+    }
+    log.debug("Too many concurrent requests: request not sent to {}", ocspResponder.getSsp());
+    return false;
+  }
+
+  /**
+   * Sends the OCSP request to the first SSP. If it did not answer after the hedge delay, the
+   * request is sent to the next SSP as well; if it failed, the request is sent to the next SSP
+   * immediately. The first successful OCSP response is returned and the other requests are
+   * cancelled.
+   */
+  private Optional<OCSPResp> sendHedgedOcspRequest(
+      final OCSPReq ocspReq, final byte[] ocspReqEncoded) throws GemPkiException {
+
+    final Set<String> distinctSsps = new LinkedHashSet<>();
+    distinctSsps.add(ssp);
+    distinctSsps.addAll(additionalSsps);
+    final List<String> ssps = new ArrayList<>(distinctSsps);
+
+    final OcspCertId certId = OcspCertId.of(ocspReq.getRequestList()[0].getCertID());
+    if (ocspResponderRegistry != null
+        && ocspResponderRegistry.isNegativeCached(certId, System.currentTimeMillis())) {
+      log.debug("OCSP request for this certificate failed recently: not sent to {}", ssps);
+      return handleOcspResponderNotAvailable();
+    }
+
+    final long hedgeDelayNanos =
+        TimeUnit.MILLISECONDS.toNanos(
+            (ocspResponderRegistry == null)
+                ? hedgeDelayMillis
+                : ocspResponderRegistry.getHedgeDelayMillis(
+                    ocspResponderRegistry.getResponder(ssp), hedgeDelayMillis));
+    final long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(ocspTimeoutSeconds);
+
+    final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    final CompletionService<HedgedAttempt> completionService =
+        new ExecutorCompletionService<>(executor);
+    // SSPs in flight with the start and the timeout of their request
+    final Map<String, long[]> sspsInFlight = new HashMap<>();
+    int nextSspIndex = 0;
+    boolean sendNext = true;
+    boolean timedOut = false;
+    OCSPResp unsuccessfulOcspResp = null;
+    Exception lastException = null;
+
+    try {
+      while (true) {
+        while ((sendNext || sspsInFlight.isEmpty()) && nextSspIndex < ssps.size()) {
+          final String nextSsp = ssps.get(nextSspIndex++);
+          if (tryAcquirePermission(nextSsp)) {
+            log.info("Sending OCSP Request for end entity certificate to: {}", nextSsp);
+            completionService.submit(() -> sendHedgedAttempt(nextSsp, ocspReqEncoded));
+            final long startNanos = System.nanoTime();
+            sspsInFlight.put(
+                nextSsp, new long[] {startNanos, startNanos + getTimeoutNanos(nextSsp)});
+            sendNext = false;
+          }
+        }
+        if (sspsInFlight.isEmpty()) {
+          break;
+        }
+
+        final long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+          sspsInFlight.forEach(
+              (inFlightSsp, times) -> onFailure(inFlightSsp, getElapsedMillis(times[0])));
+          sspsInFlight.clear();
+          throw new GemPkiException(productType, ErrorCode.TE_1032_OCSP_NOT_AVAILABLE);
+        }
+        final long attemptRemainingNanos =
+            sspsInFlight.values().stream().mapToLong(times -> times[1]).min().orElseThrow()
+                - System.nanoTime();
+        final long waitNanos =
+            Math.max(
+                0,
+                Math.min(
+                    attemptRemainingNanos,
+                    (nextSspIndex < ssps.size())
+                        ? Math.min(hedgeDelayNanos, remainingNanos)
+                        : remainingNanos));
+
+        final Future<HedgedAttempt> future =
+            completionService.poll(waitNanos, TimeUnit.NANOSECONDS);
+        if (future == null) {
+          // fail over from the requests that exceeded their adaptive timeout
+          timedOut |= removeTimedOutAttempts(sspsInFlight);
+          sendNext = true;
+          continue;
+        }
+
+        final HedgedAttempt attempt = future.get();
+        final long[] attemptTimes = sspsInFlight.remove(attempt.ssp);
+        if (attemptTimes == null && !attempt.rejected) {
+          // late response of a timed out request, accounted for as a timeout already
+          final Optional<OCSPResp> lateOcspRespOpt = getOcspResp(attempt);
+          if (lateOcspRespOpt.isPresent()
+              && lateOcspRespOpt.get().getStatus() == OCSPResp.SUCCESSFUL) {
+            return lateOcspRespOpt;
+          }
+          continue;
+        }
+        if (attempt.rejected) {
+          if (attemptTimes != null) {
+            releasePermission(attempt.ssp, getElapsedMillis(attemptTimes[0]));
+          }
+          sendNext = true;
+          continue;
+        }
+
+        final Optional<OCSPResp> ocspRespOpt = getOcspResp(attempt);
+        if (ocspRespOpt.isEmpty()) {
+          onFailure(attempt.ssp, getElapsedMillis(attemptTimes[0]));
+          if (attempt.result.getRight() != null) {
+            lastException = attempt.result.getRight();
+          }
+          continue;
+        }
+
+        onSuccess(attempt.ssp, attempt.latencyMillis);
+        if (ocspRespOpt.get().getStatus() == OCSPResp.SUCCESSFUL) {
+          if (ocspResponderRegistry != null) {
+            ocspResponderRegistry.removeNegativeResult(certId);
+          }
+          return ocspRespOpt;
+        }
+        unsuccessfulOcspResp = ocspRespOpt.get();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      handleWithTolerateOcspFailure(e);
+      return Optional.empty();
+
+    } catch (final ExecutionException e) {
+      handleWithTolerateOcspFailure(e);
+      return Optional.empty();
+
+    } finally {
+      // the requests still in flight are cancelled: return their permissions, e.g. of a probe
+      sspsInFlight.forEach(
+          (inFlightSsp, times) -> releasePermission(inFlightSsp, getElapsedMillis(times[0])));
+      executor.shutdownNow();
+    }
+
+    // no successful OCSP response from any SSP
+    if (unsuccessfulOcspResp != null) {
+      return Optional.of(unsuccessfulOcspResp);
+    }
+    if (ocspResponderRegistry != null) {
+      ocspResponderRegistry.addNegativeResult(certId, System.currentTimeMillis());
+    }
+    if (lastException != null) {
+      handleWithTolerateOcspFailure(lastException);
+    } else if (timedOut) {
+      throw new GemPkiException(productType, ErrorCode.TE_1032_OCSP_NOT_AVAILABLE);
+    } else {
+      handleWithTolerateOcspFailure();
+    }
+    return Optional.empty();
+  }
+
+  private HedgedAttempt sendHedgedAttempt(final String hedgedSsp, final byte[] ocspReqEncoded)
+      throws InterruptedException {
+
+    final OcspResponder ocspResponder =
+        (ocspResponderRegistry == null) ? null : ocspResponderRegistry.getResponder(hedgedSsp);
+    if (ocspResponder != null && !ocspResponder.tryAcquireBulkhead()) {
+      log.debug("Too many concurrent requests: request not sent to {}", hedgedSsp);
+      return new HedgedAttempt(hedgedSsp, Pair.of(null, null), 0, true);
+    }
+
+    final long startNanos = System.nanoTime();
+    final Pair<HttpResponse<byte[]>, Exception> result = sendOcspRequest(hedgedSsp, ocspReqEncoded);
+    final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    if (ocspResponder != null) {
+      final HttpResponse<byte[]> httpResponse = result.getLeft();
+      ocspResponder.releaseBulkhead(
+          httpResponse != null && httpResponse.getStatus() == HttpURLConnection.HTTP_OK,
+          latencyMillis);
+    }
+    return new HedgedAttempt(hedgedSsp, result, latencyMillis, false);
+  }
+
+  /** Timeout of a request to the SSP, adaptive if configured in the registry */
+  private long getTimeoutNanos(final String responderSsp) {
+    final long maxTimeoutMillis = TimeUnit.SECONDS.toMillis(ocspTimeoutSeconds);
+    if (ocspResponderRegistry == null) {
+      return TimeUnit.MILLISECONDS.toNanos(maxTimeoutMillis);
+    }
+    return TimeUnit.MILLISECONDS.toNanos(
+        ocspResponderRegistry.getTimeoutMillis(
+            ocspResponderRegistry.getResponder(responderSsp), maxTimeoutMillis));
+  }
+
+  /** Removes the requests that exceeded their timeout and records them as timed out */
+  private boolean removeTimedOutAttempts(final Map<String, long[]> sspsInFlight) {
+    final long nowNanos = System.nanoTime();
+    boolean removed = false;
+    final Iterator<Map.Entry<String, long[]>> iterator = sspsInFlight.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<String, long[]> entry = iterator.next();
+      final long[] times = entry.getValue();
+      if (times[1] <= nowNanos) {
+        log.debug("OCSP request to {} timed out: failover to next SSP", entry.getKey());
+        if (ocspResponderRegistry != null) {
+          ocspResponderRegistry
+              .getResponder(entry.getKey())
+              .onTimeout(
+                  System.currentTimeMillis(),
+                  TimeUnit.NANOSECONDS.toMillis(nowNanos - times[0]));
+        }
+        iterator.remove();
+        removed = true;
+      }
+    }
+    return removed;
+  }
+
+  /** The OCSP response of the attempt, or empty if the attempt failed */
+  private Optional<OCSPResp> getOcspResp(final HedgedAttempt attempt) {
+    final HttpResponse<byte[]> httpResponse = attempt.result.getLeft();
+    if (httpResponse == null || httpResponse.getStatus() != HttpURLConnection.HTTP_OK) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(getOcspRespForBody(httpResponse.getBody()));
+    } catch (final IOException e) {
+      log.warn("Invalid OCSP response received from: {}", attempt.ssp, e);
+      return Optional.empty();
+    }
+  }
+
+  private boolean tryAcquirePermission(final String responderSsp) {
+    if (ocspResponderRegistry == null) {
+      return true;
+    }
+    if (ocspResponderRegistry
+        .getResponder(responderSsp)
+        .tryAcquirePermission(System.currentTimeMillis())) {
+      return true;
+    }
+    log.debug("Circuit of OCSP responder is open: request not sent to {}", responderSsp);
+    return false;
+  }
+
+  private void releasePermission(final String responderSsp, final long latencyMillis) {
+    if (ocspResponderRegistry != null) {
+      ocspResponderRegistry
+          .getResponder(responderSsp)
+          .releasePermission(System.currentTimeMillis(), latencyMillis);
+    }
+  }
+
+  private void onSuccess(final String responderSsp, final long latencyMillis) {
+    if (ocspResponderRegistry != null) {
+      ocspResponderRegistry
+          .getResponder(responderSsp)
+          .onSuccess(System.currentTimeMillis(), latencyMillis);
+    }
+  }
+
+  private void onFailure(final String responderSsp, final long latencyMillis) {
+    if (ocspResponderRegistry != null) {
+      ocspResponderRegistry
+          .getResponder(responderSsp)
+          .onFailure(System.currentTimeMillis(), latencyMillis);
+    }
+  }
+
+  private static long getElapsedMillis(final long startNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+
+  /** Fail fast, as if the OCSP responder did not answer */
+  private Optional<OCSPResp> handleOcspResponderNotAvailable() throws GemPkiException {
+    if (tolerateOcspFailure) {
+      log.warn(ErrorCode.TW_1028_OCSP_CHECK_REVOCATION_FAILED.getErrorMessage(productType));
+      return Optional.empty();
+    }
+    throw new GemPkiException(productType, ErrorCode.TE_1032_OCSP_NOT_AVAILABLE);
+  }
+
+  private Optional<OCSPResp> sendOcspRequestWithTimeout(final byte[] ocspReqEncoded)
+      throws GemPkiException {
+    return sendOcspRequestWithTimeout(ocspReqEncoded, ocspTimeoutSeconds, TimeUnit.SECONDS);
+  }
+
+  private Optional<OCSPResp> sendOcspRequestWithTimeout(
+      final byte[] ocspReqEncoded, final long timeout, final TimeUnit timeUnit)
+      throws GemPkiException {
+
+    log.info("Sending OCSP Request for end entity certificate to: {}", ssp);
+
     final Callable<Pair<HttpResponse<byte[]>, Exception>> callableTask =
         () -> sendOcspRequest(ssp, ocspReqEncoded);
 
@@ -121,7 +538,7 @@ public final class OcspTransceiver {
     try {
       final Future<Pair<HttpResponse<byte[]>, Exception>> future =
           getFuture(executor, callableTask);
-      result = future.get(ocspTimeoutSeconds, TimeUnit.SECONDS);
+      result = future.get(timeout, timeUnit);
     } catch (final InterruptedException e) {
       Thread.currentThread().interrupt();
       handleWithTolerateOcspFailure(e);
@@ -166,6 +583,13 @@ public final class OcspTransceiver {
   private Pair<HttpResponse<byte[]>, Exception> sendOcspRequest(
       final String ssp, final byte[] ocspReqEncoded) {
 
+    if (useHttpGet) {
+      final String ocspReqUrlEncoded = getOcspReqUrlEncoded(ocspReqEncoded);
+      if (ocspReqUrlEncoded.length() <= httpGetMaxRequestLength) {
+        return sendOcspRequestHttpGet(ssp, ocspReqUrlEncoded);
+      }
+    }
+
     try {
       return Pair.of(
           Unirest.post(ssp)
@@ -178,4 +602,114 @@ public final class OcspTransceiver {
       return Pair.of(null, e);
     }
   }
+
+  private Pair<HttpResponse<byte[]>, Exception> sendOcspRequestHttpGet(
+      final String ssp, final String ocspReqUrlEncoded) {
+
+    final String url = ssp.endsWith("/") ? ssp + ocspReqUrlEncoded : ssp + "/" + ocspReqUrlEncoded;
+
+    try {
+      final GetRequest getRequest = Unirest.get(url);
+      if (httpGetMaxAgeSeconds >= 0) {
+        getRequest.header(HttpHeaders.CACHE_CONTROL, "max-age=" + httpGetMaxAgeSeconds);
+      }
+      final HttpResponse<byte[]> httpResponse = getRequest.asBytes();
+      saveHttpCachedBody(ocspReqUrlEncoded, httpResponse);
+      return Pair.of(httpResponse, null);
+
+    } catch (final UnirestException e) {
+      return Pair.of(null, e);
+    }
+  }
+
+  private static String getOcspReqUrlEncoded(final byte[] ocspReqEncoded) {
+    return URLEncoder.encode(
+        Base64.getEncoder().encodeToString(ocspReqEncoded), StandardCharsets.US_ASCII);
+  }
+
+  private Optional<byte[]> getHttpCachedBody(final byte[] ocspReqEncoded) {
+    if (!useHttpGet || ocspResponderRegistry == null) {
+      return Optional.empty();
+    }
+    return ocspResponderRegistry.getHttpCachedBody(
+        getOcspReqUrlEncoded(ocspReqEncoded), System.currentTimeMillis());
+  }
+
+  /** Successful OCSP responses are kept in the registry as long as their HTTP headers allow. */
+  private void saveHttpCachedBody(
+      final String ocspReqUrlEncoded, final HttpResponse<byte[]> httpResponse) {
+    if (ocspResponderRegistry == null || httpResponse.getStatus() != HttpURLConnection.HTTP_OK) {
+      return;
+    }
+    final long nowMillis = System.currentTimeMillis();
+    final OptionalLong expiresAtMillis =
+        getHttpExpiresAtMillis(httpResponse.getHeaders(), nowMillis);
+    if (expiresAtMillis.isEmpty()) {
+      return;
+    }
+    try {
+      if (getOcspRespForBody(httpResponse.getBody()).getStatus() != OCSPResp.SUCCESSFUL) {
+        return;
+      }
+    } catch (final IOException e) {
+      return;
+    }
+    ocspResponderRegistry.addHttpCachedBody(
+        ocspReqUrlEncoded, httpResponse.getBody(), expiresAtMillis.getAsLong(), nowMillis);
+  }
+
+  /**
+   * Determines until when an HTTP response may be reused (RFC 9111): from the max-age directive of
+   * the Cache-Control header minus the Age header, otherwise from the Expires header.
+   *
+   * @param headers headers of the HTTP response
+   * @param nowMillis current time
+   * @return the expiry of the response, or empty if it must not be reused
+   */
+  static OptionalLong getHttpExpiresAtMillis(final Headers headers, final long nowMillis) {
+    if (headers.containsKey(HttpHeaders.CACHE_CONTROL)) {
+      long maxAgeSeconds = -1;
+      for (final String directive : headers.getFirst(HttpHeaders.CACHE_CONTROL).split(",")) {
+        final String name = directive.trim().toLowerCase(Locale.ROOT);
+        if (name.equals("no-store") || name.equals("no-cache")) {
+          return OptionalLong.empty();
+        }
+        if (name.startsWith("max-age=")) {
+          maxAgeSeconds = parseSeconds(name.substring("max-age=".length()));
+        }
+      }
+      if (maxAgeSeconds >= 0) {
+        final long ageSeconds =
+            headers.containsKey(HttpHeaders.AGE)
+                ? Math.max(0, parseSeconds(headers.getFirst(HttpHeaders.AGE)))
+                : 0;
+        return toExpiresAtMillis(nowMillis + (maxAgeSeconds - ageSeconds) * 1000L, nowMillis);
+      }
+    }
+    if (headers.containsKey(HttpHeaders.EXPIRES)) {
+      try {
+        return toExpiresAtMillis(
+            ZonedDateTime.parse(
+                    headers.getFirst(HttpHeaders.EXPIRES), DateTimeFormatter.RFC_1123_DATE_TIME)
+                .toInstant()
+                .toEpochMilli(),
+            nowMillis);
+      } catch (final DateTimeParseException e) {
+        return OptionalLong.empty();
+      }
+    }
+    return OptionalLong.empty();
+  }
+
+  private static OptionalLong toExpiresAtMillis(final long expiresAtMillis, final long nowMillis) {
+    return (expiresAtMillis > nowMillis) ? OptionalLong.of(expiresAtMillis) : OptionalLong.empty();
+  }
+
+  private static long parseSeconds(final String seconds) {
+    try {
+      return Long.parseLong(seconds.trim());
+    } catch (final NumberFormatException e) {
+      return -1;
+    }
+  }
 }
@@ -21,8 +21,23 @@
 package de.gematik.pki.gemlibpki.commons.ocsp;
 
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
 import java.security.cert.X509Certificate;
 
 public interface OcspTransceiverFactory {
   OcspTransceiver create(X509Certificate eeCert) throws GemPkiException;
+
+  /**
+   * Creates the transceiver for the end-entity certificate, whose issuer was already determined.
+   *
+   * @param eeCert end-entity certificate
+   * @param issuerTspServiceSubset the issuer of the end-entity certificate from the TSL
+   * @return the transceiver
+   * @throws GemPkiException if the transceiver cannot be created
+   */
+  default OcspTransceiver create(
+      final X509Certificate eeCert, final TspServiceSubset issuerTspServiceSubset)
+      throws GemPkiException {
+    return create(eeCert);
+  }
 }
@@ -26,20 +26,16 @@ import static de.gematik.pki.gemlibpki.commons.ocsp.OcspConstants.OCSP_TIME_TOLE
 import static de.gematik.pki.gemlibpki.commons.ocsp.OcspResponseGenerator.verifyHashAlgoSupported;
 import static de.gematik.pki.gemlibpki.commons.ocsp.OcspUtils.getBasicOcspResp;
 import static de.gematik.pki.gemlibpki.commons.ocsp.OcspUtils.getFirstSingleResp;
-import static de.gematik.pki.gemlibpki.commons.utils.CertReader.readX509;
 import static de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils.calculateSha256;
 import static org.bouncycastle.internal.asn1.isismtt.ISISMTTObjectIdentifiers.id_isismtt_at_certHash;
 
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
-import de.gematik.pki.gemlibpki.commons.tsl.TslConstants;
 import de.gematik.pki.gemlibpki.commons.tsl.TspInformationProvider;
 import de.gematik.pki.gemlibpki.commons.tsl.TspService;
 import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
 import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
-import eu.europa.esig.trustedlist.jaxb.tsl.DigitalIdentityType;
-import eu.europa.esig.trustedlist.jaxb.tsl.TSPServiceType;
 import java.security.MessageDigest;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
@@ -48,9 +44,10 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -59,7 +56,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.asn1.ASN1Encodable;
 import org.bouncycastle.asn1.isismtt.ocsp.CertHash;
 import org.bouncycastle.asn1.ocsp.OCSPResponseStatus;
+import org.bouncycastle.asn1.ocsp.ResponderID;
+import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
 import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
 import org.bouncycastle.cert.ocsp.BasicOCSPResp;
@@ -91,6 +91,12 @@ public class TucPki006OcspVerifier {
 
   @Builder.Default protected final boolean enforceCertHashCheck = true;
 
+  /** issuer of eeCert, if already determined, otherwise it is determined from tspServiceList */
+  @Builder.Default protected final TspServiceSubset issuerTspServiceSubset = null;
+
+  /** OCSP signers of tspServiceList, if already indexed, otherwise searched in tspServiceList */
+  @Builder.Default protected final OcspSignerIndex ocspSignerIndex = null;
+
   @Builder.Default
   private int ocspTimeToleranceProducedAtPastMilliseconds =
       OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS;
@@ -117,9 +123,23 @@ public class TucPki006OcspVerifier {
    */
   public void performTucPki006Checks(@NonNull final ZonedDateTime referenceDate)
       throws GemPkiException {
+    getVerifiedOcspResp(referenceDate);
+  }
+
+  /**
+   * Performs TUC_PKI_006 checks (OCSP verification) against given date time as reference date and
+   * returns the verified facts of the OCSP response, e.g. to be cached.
+   *
+   * @param referenceDate reference date to check against if the certificate is revoked, as well
+   *     thisUpdate, producedAt, nextUpdate
+   * @return the verified OCSP response
+   * @throws GemPkiException thrown in case of failed verification against gemSpec_PKI TUC_PKI_006
+   */
+  public VerifiedOcspResp getVerifiedOcspResp(@NonNull final ZonedDateTime referenceDate)
+      throws GemPkiException {
     log.info("Performing OCSP checks...");
 
-    verifyOcspResponseSignature();
+    final X509Certificate ocspSignerInTsl = verifyOcspResponseSignatureAndGetSigner();
     verifyStatus(referenceDate);
     verifyCertHash();
 
@@ -133,6 +153,11 @@ public class TucPki006OcspVerifier {
     verifyOcspResponseCertId();
 
     log.info("OCSP validation (TUC-PKI-006) successfully finished.");
+
+    return VerifiedOcspResp.of(
+        ocspResponse,
+        enforceCertHashCheck,
+        calculateSha256(GemLibPkiUtils.certToBytes(ocspSignerInTsl)));
   }
 
   /**
@@ -299,6 +324,24 @@ public class TucPki006OcspVerifier {
       log.info("enforceCertHashCheck=false: verifyCertHash is not performed");
       return;
     }
+    verifyCertHash(productType, ocspResponse, eeCert);
+  }
+
+  /**
+   * Verifies the cert hash of an OCSP response against the certificate, e.g. of a response that
+   * was stored without this check.
+   *
+   * @param productType the product type
+   * @param ocspResponse the OCSP response
+   * @param eeCert the end-entity certificate
+   * @throws GemPkiException thrown if the hash is missing or does not match the hash over the
+   *     certificate.
+   */
+  public static void verifyCertHash(
+      @NonNull final String productType,
+      @NonNull final OCSPResp ocspResponse,
+      @NonNull final X509Certificate eeCert)
+      throws GemPkiException {
     try {
       final ASN1Encodable singleOcspRespAsn1 =
           getFirstSingleResp(ocspResponse).getExtension(id_isismtt_at_certHash).getParsedValue();
@@ -314,69 +357,31 @@ public class TucPki006OcspVerifier {
     }
   }
 
-  private X509Certificate getFirstCertificate(final TSPServiceType tspServiceType) {
-    return readX509(
-        tspServiceType
-            .getServiceInformation()
-            .getServiceDigitalIdentity()
-            .getDigitalId()
-            .getFirst()
-            .getX509Certificate());
-  }
-
-  private boolean isServiceTypeIdentifierOcsp(final TSPServiceType tspServiceType) {
-
-    final String targetServiceTypeIdentifier =
-        tspServiceType.getServiceInformation().getServiceTypeIdentifier();
-
-    return targetServiceTypeIdentifier.equals(TslConstants.STI_OCSP);
-  }
-
-  private boolean isSameCertificate(
-      final TSPServiceType tspServiceType, final byte[] derX509EeCert) {
-
-    final List<DigitalIdentityType> digitalIdentityTypes =
-        tspServiceType.getServiceInformation().getServiceDigitalIdentity().getDigitalId();
-
-    final Optional<DigitalIdentityType> matchedDigitalIdentityType =
-        digitalIdentityTypes.stream()
-            .filter(
-                digitalIdentityType -> {
-                  final byte[] derX509EeCert2 =
-                      GemLibPkiUtils.calculateSha256(digitalIdentityType.getX509Certificate());
-                  return Arrays.equals(derX509EeCert, derX509EeCert2);
-                })
-            .findAny();
-
-    return matchedDigitalIdentityType.isPresent();
-  }
-
-  private X509Certificate getOcspSignerFromTsl(final X509Certificate x509EeCert)
+  private static X509Certificate getOcspSignerFromTsl(
+      final String productType,
+      final Function<byte[], Optional<X509Certificate>> ocspSignerLookup,
+      final X509Certificate x509EeCert)
       throws GemPkiException {
 
     final byte[] derX509EeCert;
     try {
-      derX509EeCert = GemLibPkiUtils.calculateSha256(x509EeCert.getEncoded());
+      derX509EeCert = x509EeCert.getEncoded();
     } catch (final CertificateEncodingException e) {
       throw new GemPkiRuntimeException("Fehler beim Lesen des OCSP Signers aus der Response.", e);
     }
 
-    final Optional<TspService> matchedTspService =
-        tspServiceList.stream()
-            .filter(
-                tspService ->
-                    isServiceTypeIdentifierOcsp(tspService.getTspServiceType())
-                        && isSameCertificate(tspService.getTspServiceType(), derX509EeCert))
-            .findAny();
-
-    return getFirstCertificate(
-        matchedTspService
-            .orElseThrow(
-                () -> new GemPkiException(productType, ErrorCode.SE_1030_OCSP_CERT_MISSING))
-            .getTspServiceType());
+    return ocspSignerLookup
+        .apply(derX509EeCert)
+        .orElseThrow(() -> new GemPkiException(productType, ErrorCode.SE_1030_OCSP_CERT_MISSING));
   }
 
-  private X509Certificate getSignerFromOcspResponse() throws GemPkiException {
+  /**
+   * Determines the signer certificate of the OCSP response by its ResponderID, without verifying
+   * the signature. If the ResponderID matches none of the certificates in the response, the
+   * certificate the signature is valid for is searched.
+   */
+  private static X509Certificate getSignerFromOcspResponse(
+      final String productType, final OCSPResp ocspResponse) throws GemPkiException {
     final BasicOCSPResp basicOcspResp = getBasicOcspResp(ocspResponse);
     final X509CertificateHolder[] certs = basicOcspResp.getCerts();
 
@@ -384,11 +389,19 @@ public class TucPki006OcspVerifier {
       throw new GemPkiRuntimeException("Keine Zertifikate in der OCSP-Response gefunden.");
     }
 
+    final ResponderID responderId = basicOcspResp.getResponderId().toASN1Primitive();
     try {
-      // Check every certificate in the response
+      final List<X509Certificate> x509Certs = new ArrayList<>(certs.length);
       for (final X509CertificateHolder certHolder : certs) {
         final X509Certificate cert = new JcaX509CertificateConverter().getCertificate(certHolder);
+        if (isResponder(responderId, cert)) {
+          return cert;
+        }
+        x509Certs.add(cert);
+      }
 
+      // Check every certificate in the response
+      for (final X509Certificate cert : x509Certs) {
         if (basicOcspResp.isSignatureValid(
             new JcaContentVerifierProviderBuilder().build(cert.getPublicKey()))) {
           // Found a valid signer certificate
@@ -403,6 +416,34 @@ public class TucPki006OcspVerifier {
     throw new GemPkiException(productType, ErrorCode.SE_1031_OCSP_SIGNATURE_ERROR);
   }
 
+  /** ResponderID byKey: hash of the public key of the responder, byName: its subject */
+  private static boolean isResponder(final ResponderID responderId, final X509Certificate cert) {
+    final byte[] keyHash = responderId.getKeyHash();
+    if (keyHash == null) {
+      return responderId
+          .getName()
+          .equals(X500Name.getInstance(cert.getSubjectX500Principal().getEncoded()));
+    }
+
+    final String hashAlgorithm =
+        switch (keyHash.length) {
+          case 20 -> "SHA-1";
+          case 32 -> "SHA-256";
+          case 48 -> "SHA-384";
+          case 64 -> "SHA-512";
+          default -> null;
+        };
+    if (hashAlgorithm == null) {
+      return false;
+    }
+    final byte[] publicKeyData =
+        SubjectPublicKeyInfo.getInstance(cert.getPublicKey().getEncoded())
+            .getPublicKeyData()
+            .getBytes();
+    return MessageDigest.isEqual(
+        keyHash, GemLibPkiUtils.calculateSha(publicKeyData, hashAlgorithm));
+  }
+
   /**
    * Verifies the OCSP response signature against the matching certificate found in the TSL.
    *
@@ -410,7 +451,56 @@ public class TucPki006OcspVerifier {
    *     found in the TSL.
    */
   protected void verifyOcspResponseSignature() throws GemPkiException {
-    final X509Certificate ocspSignerInTsl = getOcspSignerFromTsl(getSignerFromOcspResponse());
+    verifyOcspResponseSignatureAndGetSigner();
+  }
+
+  /**
+   * Without an index of the OCSP signers, the signer is searched in the TSP service list, which
+   * avoids building an index for a single verification.
+   */
+  private X509Certificate verifyOcspResponseSignatureAndGetSigner() throws GemPkiException {
+    final Function<byte[], Optional<X509Certificate>> ocspSignerLookup =
+        (ocspSignerIndex != null)
+            ? ocspSignerIndex::getOcspSignerInTsl
+            : derX509Cert -> OcspSignerIndex.findOcspSignerInTsl(tspServiceList, derX509Cert);
+    return verifyOcspResponseSignatureAndGetSigner(productType, ocspSignerLookup, ocspResponse);
+  }
+
+  /**
+   * Verifies the signature of an OCSP response, that was verified and stored before, against the
+   * matching OCSP signer certificate found in the TSL, e.g. when the response is loaded from an
+   * {@link OcspRespFileStore}. The checks that need the end-entity certificate (cert hash, cert id)
+   * and the checks of the time window are not part of this verification.
+   *
+   * @param productType the product type
+   * @param ocspSignerIndex the OCSP signers of the current TSL
+   * @param ocspResponse the stored OCSP response
+   * @return SHA-256 fingerprint of the OCSP signer certificate in the TSL
+   * @throws GemPkiException thrown if the signature is not valid, or the certificate cannot be
+   *     found in the TSL.
+   */
+  public static byte[] verifyStoredOcspResponse(
+      @NonNull final String productType,
+      @NonNull final OcspSignerIndex ocspSignerIndex,
+      @NonNull final OCSPResp ocspResponse)
+      throws GemPkiException {
+    if (ocspResponse.getStatus() != OCSPResponseStatus.SUCCESSFUL) {
+      throw new GemPkiException(productType, ErrorCode.TE_1058_OCSP_STATUS_ERROR);
+    }
+    final X509Certificate ocspSignerInTsl =
+        verifyOcspResponseSignatureAndGetSigner(
+            productType, ocspSignerIndex::getOcspSignerInTsl, ocspResponse);
+    return calculateSha256(GemLibPkiUtils.certToBytes(ocspSignerInTsl));
+  }
+
+  private static X509Certificate verifyOcspResponseSignatureAndGetSigner(
+      final String productType,
+      final Function<byte[], Optional<X509Certificate>> ocspSignerLookup,
+      final OCSPResp ocspResponse)
+      throws GemPkiException {
+    final X509Certificate ocspSignerInTsl =
+        getOcspSignerFromTsl(
+            productType, ocspSignerLookup, getSignerFromOcspResponse(productType, ocspResponse));
     final BasicOCSPResp basicOcspResp = getBasicOcspResp(ocspResponse);
     try {
       final ContentVerifierProvider cvp =
@@ -420,6 +510,7 @@ public class TucPki006OcspVerifier {
       if (!basicOcspResp.isSignatureValid(cvp)) {
         throw new GemPkiException(productType, ErrorCode.SE_1031_OCSP_SIGNATURE_ERROR);
       }
+      return ocspSignerInTsl;
     } catch (final OCSPException | OperatorCreationException e) {
       throw new GemPkiRuntimeException(
           "Interner Fehler beim verifizieren der Ocsp Response Signatur.", e);
@@ -440,7 +531,10 @@ public class TucPki006OcspVerifier {
     final AlgorithmIdentifier algorithmIdentifier = respCertId.toASN1Primitive().getHashAlgorithm();
 
     final TspServiceSubset tspServiceSubset =
-        new TspInformationProvider(tspServiceList, productType).getIssuerTspServiceSubset(eeCert);
+        (issuerTspServiceSubset != null)
+            ? issuerTspServiceSubset
+            : new TspInformationProvider(tspServiceList, productType)
+                .getIssuerTspServiceSubset(eeCert);
 
     final CertificateID computedCertId =
         OcspRequestGenerator.createCertificateId(
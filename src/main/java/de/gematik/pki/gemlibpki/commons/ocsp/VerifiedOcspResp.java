@@ -0,0 +1,198 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.ocsp.OcspConstants.OCSP_TIME_TOLERANCE_THISNEXTUPDATE_MILLISECONDS;
+import static de.gematik.pki.gemlibpki.commons.ocsp.OcspUtils.getBasicOcspResp;
+import static de.gematik.pki.gemlibpki.commons.ocsp.OcspUtils.getFirstSingleResp;
+
+import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.SingleResp;
+
+/**
+ * The facts of an OCSP response that passed the TUC_PKI_006 checks: certificate status, revocation
+ * time, thisUpdate, nextUpdate, producedAt, the cert hash match and the id of the responder
+ * certificate. Times are stored as epoch milliseconds, so that cached responses can be re-checked
+ * against a reference date without parsing ASN.1 again.
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class VerifiedOcspResp {
+
+  /** Value of the time fields, if the time is not present in the OCSP response */
+  public static final long NOT_SET = Long.MIN_VALUE;
+
+  public enum CertStatus {
+    GOOD,
+    REVOKED,
+    UNKNOWN
+  }
+
+  @NonNull private final OCSPResp ocspResp;
+  @NonNull private final CertStatus certStatus;
+  private final long revocationTimeMillis;
+  private final long thisUpdateMillis;
+  private final long nextUpdateMillis;
+  private final long producedAtMillis;
+  private final boolean certHashMatched;
+  private final byte[] responderCertId;
+
+  /**
+   * Extracts the facts of an OCSP response which has been verified according to TUC_PKI_006.
+   *
+   * @param ocspResp the verified OCSP response
+   * @param certHashMatched true, if the cert hash of the OCSP response was checked and matched
+   * @param responderCertId SHA-256 fingerprint of the certificate the OCSP response was verified
+   *     with
+   * @return the verified OCSP response
+   */
+  public static VerifiedOcspResp of(
+      @NonNull final OCSPResp ocspResp,
+      final boolean certHashMatched,
+      @NonNull final byte[] responderCertId) {
+
+    final SingleResp singleResp = getFirstSingleResp(ocspResp);
+    final CertificateStatus certificateStatus = singleResp.getCertStatus();
+
+    final CertStatus certStatus;
+    long revocationTimeMillis = NOT_SET;
+    if (CertificateStatus.GOOD == certificateStatus) {
+      certStatus = CertStatus.GOOD;
+    } else if (certificateStatus instanceof final RevokedStatus revokedStatus) {
+      certStatus = CertStatus.REVOKED;
+      revocationTimeMillis = revokedStatus.getRevocationTime().getTime();
+    } else {
+      certStatus = CertStatus.UNKNOWN;
+    }
+
+    final long nextUpdateMillis =
+        (singleResp.getNextUpdate() == null) ? NOT_SET : singleResp.getNextUpdate().getTime();
+
+    return new VerifiedOcspResp(
+        ocspResp,
+        certStatus,
+        revocationTimeMillis,
+        singleResp.getThisUpdate().getTime(),
+        nextUpdateMillis,
+        getBasicOcspResp(ocspResp).getProducedAt().getTime(),
+        certHashMatched,
+        responderCertId.clone());
+  }
+
+  /**
+   * Getter for the id of the responder certificate
+   *
+   * @return SHA-256 fingerprint of the certificate the OCSP response was verified with
+   */
+  public byte[] getResponderCertId() {
+    return responderCertId.clone();
+  }
+
+  /**
+   * Check thisUpdate, producedAt and nextUpdate against the given reference date with the same
+   * tolerances as in TUC_PKI_006.
+   *
+   * @param referenceDate reference date to check against
+   * @param toleranceProducedAtPastMilliseconds tolerance of producedAt in the past
+   * @param toleranceProducedAtFutureMilliseconds tolerance of producedAt in the future
+   * @return true, if all time windows are met
+   */
+  public boolean isWithinTimeWindows(
+      @NonNull final ZonedDateTime referenceDate,
+      final long toleranceProducedAtPastMilliseconds,
+      final long toleranceProducedAtFutureMilliseconds) {
+
+    final long referenceMillis = referenceDate.toInstant().toEpochMilli();
+
+    if (thisUpdateMillis > referenceMillis + OCSP_TIME_TOLERANCE_THISNEXTUPDATE_MILLISECONDS) {
+      log.debug("thisUpdate of the cached OCSP response is too far in the future.");
+      return false;
+    }
+
+    if (producedAtMillis < referenceMillis - toleranceProducedAtPastMilliseconds
+        || producedAtMillis > referenceMillis + toleranceProducedAtFutureMilliseconds) {
+      log.debug("producedAt of the cached OCSP response is out of tolerance.");
+      return false;
+    }
+
+    if (nextUpdateMillis != NOT_SET
+        && nextUpdateMillis < referenceMillis - OCSP_TIME_TOLERANCE_THISNEXTUPDATE_MILLISECONDS) {
+      log.debug("nextUpdate of the cached OCSP response is too far in the past.");
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Latest reference date for which producedAt and nextUpdate are within the time windows of
+   * {@link #isWithinTimeWindows}.
+   *
+   * @param toleranceProducedAtPastMilliseconds tolerance of producedAt in the past
+   * @return the date after which the response may not be used anymore
+   */
+  public ZonedDateTime getValidUntil(final long toleranceProducedAtPastMilliseconds) {
+    long validUntilMillis = producedAtMillis + toleranceProducedAtPastMilliseconds;
+    if (nextUpdateMillis != NOT_SET) {
+      validUntilMillis =
+          Math.min(
+              validUntilMillis, nextUpdateMillis + OCSP_TIME_TOLERANCE_THISNEXTUPDATE_MILLISECONDS);
+    }
+    return ZonedDateTime.ofInstant(Instant.ofEpochMilli(validUntilMillis), ZoneOffset.UTC);
+  }
+
+  /**
+   * Check the certificate status against the given reference date as in TUC_PKI_006.
+   *
+   * @param productType the product type for the error message
+   * @param referenceDate reference date for the revocation time to check against
+   * @throws GemPkiException thrown if the certificate is revoked or unknown
+   */
+  public void verifyCertStatus(
+      @NonNull final String productType, @NonNull final ZonedDateTime referenceDate)
+      throws GemPkiException {
+
+    switch (certStatus) {
+      case GOOD -> {
+        // nothing to do
+      }
+      case REVOKED -> {
+        if (revocationTimeMillis <= referenceDate.toInstant().toEpochMilli()) {
+          throw new GemPkiException(productType, ErrorCode.SW_1047_CERT_REVOKED);
+        }
+      }
+      case UNKNOWN -> throw new GemPkiException(productType, ErrorCode.TW_1044_CERT_UNKNOWN);
+    }
+  }
+}
@@ -140,12 +140,14 @@ public class TspInformationProvider {
 
     final TspService tspService = pair.getLeft();
     final X509Certificate x509IssuerCert = pair.getRight();
+    final List<String> serviceSupplyPoints = getServiceSupplyPointsFromTspService(tspService);
 
     return TspServiceSubset.builder()
         .x509IssuerCert(x509IssuerCert)
         .serviceStatus(tspService.getTspServiceType().getServiceInformation().getServiceStatus())
         .statusStartingTime(getCertificateAuthorityStatusStartingTime(tspService))
-        .serviceSupplyPoint(getFirstServiceSupplyPointFromTspService(tspService))
+        .serviceSupplyPoint(serviceSupplyPoints.getFirst())
+        .serviceSupplyPoints(serviceSupplyPoints)
         .extensions(
             tspService
                 .getTspServiceType()
@@ -214,13 +216,14 @@ public class TspInformationProvider {
   }
 
   /**
-   * Get OCSP responder URL from given TspService.
+   * Get OCSP responder URLs from given TspService.
    *
    * @param tspService the given TspService
-   * @return ServiceSupplyPoint as string (URL)
+   * @return ServiceSupplyPoints as strings (URLs), the first one is not blank, blank ones are
+   *     skipped
    * @throws GemPkiException exception thrown if service supply point is missing
    */
-  private String getFirstServiceSupplyPointFromTspService(final TspService tspService)
+  private List<String> getServiceSupplyPointsFromTspService(final TspService tspService)
       throws GemPkiException {
 
     final Optional<ServiceSupplyPointsType> serviceSupplyPointsType =
@@ -245,6 +248,9 @@ public class TspInformationProvider {
     }
 
     log.debug("First ServiceSupplyPoint was identified: {}", firstServiceSupplyPoint);
-    return firstServiceSupplyPoint;
+    return sspList.stream()
+        .map(AttributedNonEmptyURIType::getValue)
+        .filter(ssp -> !ssp.isBlank())
+        .toList();
   }
 }
@@ -31,7 +31,7 @@ import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspConstants;
-import de.gematik.pki.gemlibpki.commons.ocsp.OcspRespCache;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponseStore;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTransceiverFactory;
 import de.gematik.pki.gemlibpki.commons.utils.CertReader;
 import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
@@ -85,7 +85,7 @@ public class TucPki001Verifier {
 
   protected final byte @NonNull [] tslToCheck;
   @Builder.Default protected final boolean withOcspCheck = true;
-  protected final OcspRespCache ocspRespCache;
+  protected final OcspResponseStore ocspRespCache;
 
   @Builder.Default
   protected final int ocspTimeoutSeconds = OcspConstants.DEFAULT_OCSP_TIMEOUT_SECONDS;
@@ -0,0 +1,103 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+
+package de.gematik.pki.gemlibpki.commons.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Thread-safe cache with a maximum number of entries. If it is exceeded, the least recently used
+ * entries are evicted. Used for the caches of the library that are filled per certificate or
+ * issuer and must not grow without limit.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public final class BoundedLruCache<K, V> {
+
+  @Getter private volatile int maxSize;
+
+  private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Constructor
+   *
+   * @param maxSize maximum number of entries
+   */
+  public BoundedLruCache(final int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Setter for the maximum number of entries, surplus entries are evicted.
+   *
+   * @param maxSize maximum number of entries
+   */
+  public synchronized void setMaxSize(final int maxSize) {
+    this.maxSize = maxSize;
+    evict();
+  }
+
+  /**
+   * Reads the value of a key and marks it as recently used.
+   *
+   * @param key the key
+   * @return optional of the value
+   */
+  public synchronized Optional<V> get(@NonNull final K key) {
+    return Optional.ofNullable(entries.get(key));
+  }
+
+  /**
+   * Saves the value of a key and evicts the least recently used entries if maxSize is exceeded.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public synchronized void put(@NonNull final K key, @NonNull final V value) {
+    entries.put(key, value);
+    evict();
+  }
+
+  /**
+   * @return number of entries
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** Removes all entries. */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  private void evict() {
+    final Iterator<K> eldestKeys = entries.keySet().iterator();
+    while (entries.size() > Math.max(0, maxSize) && eldestKeys.hasNext()) {
+      eldestKeys.next();
+      eldestKeys.remove();
+    }
+  }
+}
@@ -24,6 +24,7 @@ import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CE
 
 import de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile;
 import de.gematik.pki.gemlibpki.commons.certificate.CertificateType;
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import java.security.cert.X509Certificate;
@@ -50,23 +51,53 @@ public class CertificateProfileByCertificateTypeOidValidator
       @NonNull final X509Certificate x509EeCert,
       @NonNull final CertificateProfile certificateProfile)
       throws GemPkiException {
+    validate(x509EeCert, certificateProfile).throwIfInvalid(productType);
+  }
+
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final CertificateProfile certificateProfile) {
     if (certificateProfile.equals(CERT_PROFILE_C_TSL_SIG)) {
-      return;
+      return ValidationOutcome.valid();
     }
-    final Set<String> certificatePolicyOidList = getCertificatePolicyOids(x509EeCert, productType);
+    try {
+      return validate(getCertificatePolicyOids(x509EeCert, productType), certificateProfile);
+    } catch (final GemPkiException e) {
+      return ValidationOutcome.invalid(e);
+    }
+  }
+
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final ParsedCertificate parsedCertificate,
+      @NonNull final CertificateProfile certificateProfile) {
+    if (certificateProfile.equals(CERT_PROFILE_C_TSL_SIG)) {
+      return ValidationOutcome.valid();
+    }
+    try {
+      return validate(getCertificatePolicyOids(parsedCertificate, productType), certificateProfile);
+    } catch (final GemPkiException e) {
+      return ValidationOutcome.invalid(e);
+    }
+  }
+
+  private ValidationOutcome validate(
+      final Set<String> certificatePolicyOidList, final CertificateProfile certificateProfile) {
 
     if (certificateProfile.getCertificateType().equals(CertificateType.CERT_TYPE_ANY)) {
       log.info(
           "Skipping check of CertificateTypeOid, because of user request. CertProfile used: {}",
           certificateProfile.name());
-      return;
+      return ValidationOutcome.valid();
     }
 
     if (!certificatePolicyOidList.contains(certificateProfile.getCertificateType().getOid())) {
       log.debug("ZertifikatsTypOids im Zertifikat: {}", certificatePolicyOidList);
       log.debug(
           "Erwartete ZertifikatsTypOid: {}", certificateProfile.getCertificateType().getOid());
-      throw new GemPkiException(productType, ErrorCode.SE_1018_CERT_TYPE_MISMATCH);
+      return ValidationOutcome.invalid(ErrorCode.SE_1018_CERT_TYPE_MISMATCH);
     }
+    return ValidationOutcome.valid();
   }
 }
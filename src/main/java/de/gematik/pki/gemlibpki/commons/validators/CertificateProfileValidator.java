@@ -21,6 +21,7 @@
 package de.gematik.pki.gemlibpki.commons.validators;
 
 import de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile;
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.certificate.Policies;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
@@ -35,6 +36,40 @@ public interface CertificateProfileValidator {
       @NonNull X509Certificate x509EeCert, @NonNull CertificateProfile certificateProfile)
       throws GemPkiException;
 
+  /**
+   * Performs the check of {@link #validateCertificate(X509Certificate, CertificateProfile)} and
+   * returns its outcome instead of throwing a {@link GemPkiException}. Implementations override
+   * this method to avoid the exception on a failed check.
+   *
+   * @param x509EeCert end-entity certificate
+   * @param certificateProfile the profile to check the certificate against
+   * @return the outcome of the check
+   */
+  default ValidationOutcome validate(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final CertificateProfile certificateProfile) {
+    try {
+      validateCertificate(x509EeCert, certificateProfile);
+      return ValidationOutcome.valid();
+    } catch (final GemPkiException e) {
+      return ValidationOutcome.invalid(e);
+    }
+  }
+
+  /**
+   * Performs the check of {@link #validate(X509Certificate, CertificateProfile)} on the already
+   * decoded certificate. Implementations override this method to read the extensions from it.
+   *
+   * @param parsedCertificate end-entity certificate
+   * @param certificateProfile the profile to check the certificate against
+   * @return the outcome of the check
+   */
+  default ValidationOutcome validate(
+      @NonNull final ParsedCertificate parsedCertificate,
+      @NonNull final CertificateProfile certificateProfile) {
+    return validate(parsedCertificate.getX509Certificate(), certificateProfile);
+  }
+
   /**
    * Get policy oids to given end-entity certificate. 1.Test: exists policy extension oid identifier
    * at all (implizit over IllegalArgumentException). 2.Test: extract value from policy extension
@@ -58,4 +93,26 @@ public interface CertificateProfileValidator {
       throw new GemPkiException(productType, ErrorCode.TE_1019_CERT_READ_ERROR);
     }
   }
+
+  /**
+   * Get policy oids to given already decoded end-entity certificate, as in {@link
+   * #getCertificatePolicyOids(X509Certificate, String)}.
+   *
+   * @param parsedCertificate end-entity certificate
+   * @return Set<String> policy oids from end-entity certificate
+   * @throws GemPkiException if the certificate has no cert type
+   */
+  default Set<String> getCertificatePolicyOids(
+      final ParsedCertificate parsedCertificate, final String productType)
+      throws GemPkiException {
+    try {
+      final Set<String> policyOids = parsedCertificate.getPolicyOids();
+      if (policyOids.isEmpty()) {
+        throw new GemPkiException(productType, ErrorCode.SE_1033_CERT_TYPE_INFO_MISSING);
+      }
+      return policyOids;
+    } catch (final IllegalArgumentException e) {
+      throw new GemPkiException(productType, ErrorCode.SE_1033_CERT_TYPE_INFO_MISSING);
+    }
+  }
 }
@@ -23,6 +23,7 @@ package de.gematik.pki.gemlibpki.commons.validators;
 import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_C_TSL_SIG;
 
 import de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile;
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
@@ -54,10 +55,39 @@ public class CertificateTypeOidInIssuerTspServiceExtensionValidator
       @NonNull final X509Certificate x509EeCert,
       @NonNull final CertificateProfile certificateProfile)
       throws GemPkiException {
+    validate(x509EeCert, certificateProfile).throwIfInvalid(productType);
+  }
+
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final CertificateProfile certificateProfile) {
     if (certificateProfile.equals(CERT_PROFILE_C_TSL_SIG)) {
-      return;
+      return ValidationOutcome.valid();
     }
-    final Set<String> certificateTypeOidList = getCertificatePolicyOids(x509EeCert, productType);
+    try {
+      return validate(getCertificatePolicyOids(x509EeCert, productType), certificateProfile);
+    } catch (final GemPkiException e) {
+      return ValidationOutcome.invalid(e);
+    }
+  }
+
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final ParsedCertificate parsedCertificate,
+      @NonNull final CertificateProfile certificateProfile) {
+    if (certificateProfile.equals(CERT_PROFILE_C_TSL_SIG)) {
+      return ValidationOutcome.valid();
+    }
+    try {
+      return validate(getCertificatePolicyOids(parsedCertificate, productType), certificateProfile);
+    } catch (final GemPkiException e) {
+      return ValidationOutcome.invalid(e);
+    }
+  }
+
+  private ValidationOutcome validate(
+      final Set<String> certificateTypeOidList, final CertificateProfile certificateProfile) {
 
     log.debug(
         "Prüfe CA Autorisierung für die Herausgabe des Zertifikatstyps {} ",
@@ -68,11 +98,11 @@ public class CertificateTypeOidInIssuerTspServiceExtensionValidator
         if (object instanceof final Node node) {
           final Node firstChild = node.getFirstChild();
           if (certificateTypeOidList.contains(firstChild.getNodeValue().trim())) {
-            return;
+            return ValidationOutcome.valid();
           }
         }
       }
     }
-    throw new GemPkiException(productType, ErrorCode.SE_1061_CERT_TYPE_CA_NOT_AUTHORIZED);
+    return ValidationOutcome.invalid(ErrorCode.SE_1061_CERT_TYPE_CA_NOT_AUTHORIZED);
   }
 }
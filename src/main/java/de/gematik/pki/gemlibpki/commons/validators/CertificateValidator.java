@@ -36,4 +36,22 @@ public interface CertificateValidator {
   void validateCertificate(
       @NonNull X509Certificate x509EeCert, @NonNull ZonedDateTime referenceDate)
       throws GemPkiException;
+
+  /**
+   * Performs the check of {@link #validateCertificate(X509Certificate, ZonedDateTime)} and returns
+   * its outcome instead of throwing a {@link GemPkiException}.
+   *
+   * @param x509EeCert end-entity certificate
+   * @param referenceDate date to check against
+   * @return the outcome of the check
+   */
+  default ValidationOutcome validate(
+      @NonNull final X509Certificate x509EeCert, @NonNull final ZonedDateTime referenceDate) {
+    try {
+      validateCertificate(x509EeCert, referenceDate);
+      return ValidationOutcome.valid();
+    } catch (final GemPkiException e) {
+      return ValidationOutcome.invalid(e);
+    }
+  }
 }
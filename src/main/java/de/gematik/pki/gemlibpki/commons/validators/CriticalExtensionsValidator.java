@@ -21,6 +21,7 @@
 package de.gematik.pki.gemlibpki.commons.validators;
 
 import de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile;
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import java.security.cert.X509Certificate;
@@ -43,8 +44,24 @@ public class CriticalExtensionsValidator implements CertificateProfileValidator
       @NonNull final X509Certificate x509EeCert,
       @NonNull final CertificateProfile certificateProfile)
       throws GemPkiException {
+    validate(x509EeCert, certificateProfile).throwIfInvalid(productType);
+  }
+
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final CertificateProfile certificateProfile) {
+    return validate(x509EeCert.getCriticalExtensionOIDs());
+  }
+
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final ParsedCertificate parsedCertificate,
+      @NonNull final CertificateProfile certificateProfile) {
+    return validate(parsedCertificate.getCriticalExtensionOids());
+  }
 
-    final Set<String> certCriticalExtensions = x509EeCert.getCriticalExtensionOIDs();
+  private ValidationOutcome validate(final Set<String> certCriticalExtensions) {
 
     // NOTE: as specified in gemSpec_PKI 2.15.0 for all certificate profiles in Kapitel 5
     // X.509-Zertifikate
@@ -57,7 +74,8 @@ public class CriticalExtensionsValidator implements CertificateProfileValidator
           "Detected unknown / missing critical extensions in certificate {} vs expected {}",
           new TreeSet<>(certCriticalExtensions),
           new TreeSet<>(expectedCriticalExtensions));
-      throw new GemPkiException(productType, ErrorCode.CUSTOM_CERTIFICATE_EXCEPTION);
+      return ValidationOutcome.invalid(ErrorCode.CUSTOM_CERTIFICATE_EXCEPTION);
     }
+    return ValidationOutcome.valid();
   }
 }
@@ -22,6 +22,7 @@ package de.gematik.pki.gemlibpki.commons.validators;
 
 import de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile;
 import de.gematik.pki.gemlibpki.commons.certificate.ExtendedKeyUsage;
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
@@ -49,18 +50,50 @@ public class ExtendedKeyUsageValidator implements CertificateProfileValidator {
       @NonNull final X509Certificate x509EeCert,
       @NonNull final CertificateProfile certificateProfile)
       throws GemPkiException {
+    validate(x509EeCert, certificateProfile).throwIfInvalid(productType);
+  }
 
-    final List<String> intendedExtendedKeyUsageOidList =
-        getOidOfIntendedExtendedKeyUsagesFromCertificateProfile(certificateProfile);
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final CertificateProfile certificateProfile) {
+    if (isSkipped(certificateProfile)) {
+      return ValidationOutcome.valid();
+    }
+    return validate(getExtendedKeyUsagesOid(x509EeCert), certificateProfile);
+  }
+
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final ParsedCertificate parsedCertificate,
+      @NonNull final CertificateProfile certificateProfile) {
+    if (isSkipped(certificateProfile)) {
+      return ValidationOutcome.valid();
+    }
+    return validate(parsedCertificate.getExtendedKeyUsage().orElse(null), certificateProfile);
+  }
 
-    if (intendedExtendedKeyUsageOidList.isEmpty() || !certificateProfile.isFailOnMissingEku()) {
+  private static boolean isSkipped(final CertificateProfile certificateProfile) {
+    if (certificateProfile.getExtKeyUsages().isEmpty()
+        || !certificateProfile.isFailOnMissingEku()) {
       log.info(
           "Skipping check of extendedKeyUsage, because of user request. CertProfile used: {}",
           certificateProfile.name());
-      return;
+      return true;
+    }
+    return false;
+  }
+
+  private ValidationOutcome validate(
+      final List<String> eeExtendedKeyUsagesOid, final CertificateProfile certificateProfile) {
+
+    final List<String> intendedExtendedKeyUsageOidList =
+        getOidOfIntendedExtendedKeyUsagesFromCertificateProfile(certificateProfile);
+
+    if (eeExtendedKeyUsagesOid == null) {
+      return ValidationOutcome.invalid(ErrorCode.SE_1017_WRONG_EXTENDEDKEYUSAGE);
     }
 
-    final List<String> eeExtendedKeyUsagesOid = getExtendedKeyUsagesOid(x509EeCert);
     final List<String> filteredList =
         eeExtendedKeyUsagesOid.stream()
             .filter(
@@ -71,26 +104,21 @@ public class ExtendedKeyUsageValidator implements CertificateProfileValidator {
     if (filteredList.isEmpty()
         || (eeExtendedKeyUsagesOid.size() != intendedExtendedKeyUsageOidList.size())) {
       log.debug("{}", ErrorCode.SE_1017_WRONG_EXTENDEDKEYUSAGE.getErrorMessage(productType));
-      throw new GemPkiException(productType, ErrorCode.SE_1017_WRONG_EXTENDEDKEYUSAGE);
+      return ValidationOutcome.invalid(ErrorCode.SE_1017_WRONG_EXTENDEDKEYUSAGE);
     }
+    return ValidationOutcome.valid();
   }
 
-  private List<String> getExtendedKeyUsagesOid(final X509Certificate x509EeCert)
-      throws GemPkiException {
-    final List<String> eeExtendedKeyUsagesOid;
+  /** Returns the extended key usages of the certificate or null if it has none */
+  private static List<String> getExtendedKeyUsagesOid(final X509Certificate x509EeCert) {
     try {
-      eeExtendedKeyUsagesOid = x509EeCert.getExtendedKeyUsage();
+      return x509EeCert.getExtendedKeyUsage();
     } catch (final CertificateParsingException e) {
       throw new GemPkiRuntimeException(
           "Fehler beim Lesen der ExtendedKeyUsage des Zertifikats: "
               + x509EeCert.getSubjectX500Principal().getName(),
           e);
     }
-
-    if (eeExtendedKeyUsagesOid == null) {
-      throw new GemPkiException(productType, ErrorCode.SE_1017_WRONG_EXTENDEDKEYUSAGE);
-    }
-    return eeExtendedKeyUsagesOid;
   }
 
   /**
@@ -0,0 +1,104 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.validators;
+
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Verifies the signatures of certificates issued by one issuer. The public key of the issuer is
+ * decoded once and kept, so provider specific precomputations (e.g. for EC points) stay available.
+ * {@link Signature} instances are pooled per signature algorithm and reused by all threads,
+ * including virtual threads, instead of being looked up from the providers for every
+ * verification. Certificates with RSASSA-PSS signatures, whose algorithm parameters are part of
+ * the certificate, are verified by {@link X509Certificate#verify(PublicKey)}. Instances can be
+ * shared between threads.
+ */
+public final class IssuerSignatureVerifier {
+
+  private static final String RSASSA_PSS_OID = "1.2.840.113549.1.1.10";
+
+  @Getter private final X509Certificate x509IssuerCert;
+  @Getter private final PublicKey publicKey;
+  private final byte[] publicKeyHash;
+
+  private final Map<String, Queue<Signature>> signaturePools = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor
+   *
+   * @param x509IssuerCert issuer certificate
+   */
+  public IssuerSignatureVerifier(@NonNull final X509Certificate x509IssuerCert) {
+    this.x509IssuerCert = x509IssuerCert;
+    this.publicKey = x509IssuerCert.getPublicKey();
+    this.publicKeyHash = GemLibPkiUtils.calculateSha256(publicKey.getEncoded());
+  }
+
+  /**
+   * @return the SHA-256 hash of the SubjectPublicKeyInfo of the issuer, not to be modified
+   */
+  byte[] getPublicKeyHash() {
+    return publicKeyHash;
+  }
+
+  /**
+   * Verifies the signature of the given certificate with the public key of the issuer
+   *
+   * @param x509EeCert certificate issued by the issuer
+   * @throws GeneralSecurityException if the signature cannot be verified or is invalid
+   */
+  public void verify(@NonNull final X509Certificate x509EeCert) throws GeneralSecurityException {
+    if (RSASSA_PSS_OID.equals(x509EeCert.getSigAlgOID())) {
+      x509EeCert.verify(publicKey);
+      return;
+    }
+
+    final String sigAlgName = x509EeCert.getSigAlgName();
+    final Queue<Signature> signaturePool =
+        signaturePools.computeIfAbsent(sigAlgName, name -> new ConcurrentLinkedQueue<>());
+
+    Signature signature = signaturePool.poll();
+    if (signature == null) {
+      signature = Signature.getInstance(sigAlgName);
+    }
+
+    // initVerify resets the instance, so an instance of a failed verification can be reused
+    signature.initVerify(publicKey);
+    signature.update(x509EeCert.getTBSCertificate());
+    final boolean valid = signature.verify(x509EeCert.getSignature());
+    signaturePool.offer(signature);
+
+    if (!valid) {
+      throw new SignatureException("Signature of the certificate does not match the issuer key.");
+    }
+  }
+}
@@ -22,6 +22,7 @@ package de.gematik.pki.gemlibpki.commons.validators;
 
 import de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile;
 import de.gematik.pki.gemlibpki.commons.certificate.KeyUsage;
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import java.security.cert.X509Certificate;
@@ -48,11 +49,28 @@ public class KeyUsageValidator implements CertificateProfileValidator {
       @NonNull final X509Certificate x509EeCert,
       @NonNull final CertificateProfile certificateProfile)
       throws GemPkiException {
+    validate(x509EeCert, certificateProfile).throwIfInvalid(productType);
+  }
+
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final CertificateProfile certificateProfile) {
+    return validate(x509EeCert.getKeyUsage(), certificateProfile);
+  }
+
+  @Override
+  public ValidationOutcome validate(
+      @NonNull final ParsedCertificate parsedCertificate,
+      @NonNull final CertificateProfile certificateProfile) {
+    return validate(parsedCertificate.getKeyUsage(), certificateProfile);
+  }
 
-    final boolean[] certKeyUsage = x509EeCert.getKeyUsage();
+  private ValidationOutcome validate(
+      final boolean[] certKeyUsage, final CertificateProfile certificateProfile) {
     if (certKeyUsage == null) {
       log.error("KeyUsage extension im Zertifikat nicht vorhanden.");
-      throw new GemPkiException(productType, ErrorCode.SE_1016_WRONG_KEYUSAGE);
+      return ValidationOutcome.invalid(ErrorCode.SE_1016_WRONG_KEYUSAGE);
     }
 
     final List<KeyUsage> intendedKeyUsageList =
@@ -61,14 +79,15 @@ public class KeyUsageValidator implements CertificateProfileValidator {
       log.info(
           "Skipping check of KeyUsage, because of user request. CertProfile used: {}",
           certificateProfile.name());
-      return;
+      return ValidationOutcome.valid();
     }
 
     for (final KeyUsage keyUsage : intendedKeyUsageList) {
       if (!certKeyUsage[keyUsage.getBit()]) {
-        throw new GemPkiException(productType, ErrorCode.SE_1016_WRONG_KEYUSAGE);
+        return ValidationOutcome.invalid(ErrorCode.SE_1016_WRONG_KEYUSAGE);
       }
     }
+    return ValidationOutcome.valid();
   }
 
   /**
@@ -0,0 +1,56 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.validators;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Outcome of {@link OcspValidator#validateOcsp}: which OCSP response the decision is based on and,
+ * for a verified response of the cache or the OCSP responder, until when the response may be used.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class OcspValidationOutcome {
+
+  @Getter @NonNull private final OcspValidationResult result;
+  private final ZonedDateTime validUntil;
+
+  static OcspValidationOutcome of(@NonNull final OcspValidationResult result) {
+    return new OcspValidationOutcome(result, null);
+  }
+
+  static OcspValidationOutcome of(
+      @NonNull final OcspValidationResult result, @NonNull final ZonedDateTime validUntil) {
+    return new OcspValidationOutcome(result, validUntil);
+  }
+
+  /**
+   * @return the date after which the OCSP response of the decision may not be used anymore, empty
+   *     if the decision is not based on a response of the cache or the OCSP responder
+   */
+  public Optional<ZonedDateTime> getValidUntil() {
+    return Optional.ofNullable(validUntil);
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.validators;
+
+/** Which OCSP response the decision of {@link OcspValidator#validateOcsp} is based on. */
+public enum OcspValidationResult {
+  /** OCSP check is disabled */
+  NOT_CHECKED,
+  /** the OCSP response provided to the validator was verified */
+  PROVIDED_RESPONSE,
+  /** the OCSP response from the cache was used within the grace period */
+  CACHED_RESPONSE,
+  /**
+   * the OCSP response from the cache was used after the grace period (within the maximum staleness
+   * of the cache) and is revalidated in the background
+   */
+  STALE_CACHED_RESPONSE,
+  /** the OCSP response received from the OCSP responder was verified */
+  RECEIVED_RESPONSE,
+  /** no OCSP response was received, but that was tolerated */
+  NO_RESPONSE_TOLERATED
+}
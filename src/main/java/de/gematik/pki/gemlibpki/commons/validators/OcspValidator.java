@@ -26,14 +26,21 @@ import static de.gematik.pki.gemlibpki.commons.ocsp.OcspConstants.OCSP_TIME_TOLE
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
-import de.gematik.pki.gemlibpki.commons.ocsp.OcspRespCache;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspCertId;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponseStore;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspSignerIndex;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTransceiver;
 import de.gematik.pki.gemlibpki.commons.ocsp.TucPki006OcspVerifier;
+import de.gematik.pki.gemlibpki.commons.ocsp.VerifiedOcspResp;
+import de.gematik.pki.gemlibpki.commons.tsl.TspInformationProvider;
 import de.gematik.pki.gemlibpki.commons.tsl.TspService;
+import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
 import java.security.cert.X509Certificate;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -53,11 +60,14 @@ public final class OcspValidator implements CertificateValidator {
 
   private final boolean withOcspCheck;
   private final OCSPResp ocspResponse;
-  private final OcspRespCache ocspRespCache;
+  private final OcspResponseStore ocspRespCache;
   private final int ocspTimeoutSeconds;
   private final OcspTransceiver ocspTransceiver;
   @Builder.Default private final boolean tolerateOcspFailure = false;
 
+  /** OCSP signers of tspServiceList, built once per TSL, otherwise built per OCSP response */
+  @Builder.Default private final OcspSignerIndex ocspSignerIndex = null;
+
   @Builder.Default
   private int ocspTimeToleranceProducedAtFutureMilliseconds =
       OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_FUTURE_MILLISECONDS;
@@ -76,18 +86,57 @@ public final class OcspValidator implements CertificateValidator {
   public void validateCertificate(
       @NonNull final X509Certificate x509EeCert, @NonNull final ZonedDateTime referenceDate)
       throws GemPkiException {
+    validateOcsp(x509EeCert, referenceDate);
+  }
+
+  /**
+   * Perform the OCSP check of the end-entity certificate as in {@link #validateCertificate} and
+   * report which OCSP response the decision is based on and until when it may be used. If the cache
+   * has a maximum staleness (maxStaleSeconds greater than 0) and no response within the grace
+   * period is cached, a stale cached response is used without contacting the OCSP responder, and it
+   * is revalidated in the background.
+   *
+   * @param x509EeCert end-entity certificate to check
+   * @param referenceDate reference date to check against
+   * @return the outcome of the OCSP check
+   * @throws GemPkiException if the certificate status is not good or the OCSP check failed
+   */
+  public OcspValidationOutcome validateOcsp(
+      @NonNull final X509Certificate x509EeCert, @NonNull final ZonedDateTime referenceDate)
+      throws GemPkiException {
+    return validateOcsp(x509EeCert, referenceDate, null);
+  }
+
+  /**
+   * Perform the OCSP check of the end-entity certificate as in {@link
+   * #validateOcsp(X509Certificate, ZonedDateTime)}, with the issuer of the end-entity certificate
+   * already determined from the TSL, e.g. by TUC_PKI_018.
+   *
+   * @param x509EeCert end-entity certificate to check
+   * @param referenceDate reference date to check against
+   * @param issuerTspServiceSubset the issuer of the end-entity certificate, determined from the TSL
+   *     if null
+   * @return the outcome of the OCSP check
+   * @throws GemPkiException if the certificate status is not good or the OCSP check failed
+   */
+  public OcspValidationOutcome validateOcsp(
+      @NonNull final X509Certificate x509EeCert,
+      @NonNull final ZonedDateTime referenceDate,
+      final TspServiceSubset issuerTspServiceSubset)
+      throws GemPkiException {
 
     if (!withOcspCheck) {
       log.warn(ErrorCode.SW_1039_NO_OCSP_CHECK.getErrorMessage(productType));
-      return;
+      return OcspValidationOutcome.of(OcspValidationResult.NOT_CHECKED);
     }
     verifyToleranceSettings();
 
     // use parameterized OCSP response if available
     if (ocspResponse != null) {
       try {
-        createVerifier(x509EeCert, ocspResponse).performTucPki006Checks(referenceDate);
-        return;
+        createVerifier(x509EeCert, ocspResponse, issuerTspServiceSubset)
+            .performTucPki006Checks(referenceDate);
+        return OcspValidationOutcome.of(OcspValidationResult.PROVIDED_RESPONSE);
 
       } catch (final GemPkiException e) {
         log.warn(ErrorCode.TW_1050_PROVIDED_OCSP_RESPONSE_NOT_VALID.getErrorMessage(productType));
@@ -95,13 +144,37 @@ public final class OcspValidator implements CertificateValidator {
     }
 
     // use cached OCSP response if available
+    OcspCertId certId = null;
     if (ocspRespCache != null) {
-      final Optional<OCSPResp> ocspRespCachedOpt =
-          ocspRespCache.getResponse(x509EeCert.getSerialNumber());
+      certId = getCertId(x509EeCert, issuerTspServiceSubset);
+      final Optional<VerifiedOcspResp> verifiedOcspRespCachedOpt =
+          ocspRespCache.getVerifiedResponse(certId);
+
+      if (verifiedOcspRespCachedOpt.isPresent()
+          && isCachedResponseUsable(verifiedOcspRespCachedOpt.get(), referenceDate)
+          && isBoundToCertificate(verifiedOcspRespCachedOpt.get(), x509EeCert)
+          && isSignedByTslOcspSigner(verifiedOcspRespCachedOpt.get())) {
+        verifiedOcspRespCachedOpt.get().verifyCertStatus(productType, referenceDate);
+        log.debug("Ocsp resp from cache: time windows and certificate status verified.");
+        return OcspValidationOutcome.of(
+            OcspValidationResult.CACHED_RESPONSE,
+            verifiedOcspRespCachedOpt
+                .get()
+                .getValidUntil(ocspTimeToleranceProducedAtPastMilliseconds));
+      }
+
+      // use stale cached OCSP response and revalidate it in the background
+      final Optional<VerifiedOcspResp> verifiedOcspRespStaleOpt =
+          ocspRespCache.getStaleResponse(certId);
 
-      if (ocspRespCachedOpt.isPresent()) {
-        log.debug("Ocsp resp from cache: verification is not performed");
-        return;
+      if (verifiedOcspRespStaleOpt.isPresent()
+          && isStaleResponseUsable(verifiedOcspRespStaleOpt.get(), referenceDate)
+          && isBoundToCertificate(verifiedOcspRespStaleOpt.get(), x509EeCert)
+          && isSignedByTslOcspSigner(verifiedOcspRespStaleOpt.get())) {
+        verifiedOcspRespStaleOpt.get().verifyCertStatus(productType, referenceDate);
+        ocspRespCache.revalidate(certId);
+        log.info("Stale Ocsp resp from cache used, revalidation requested.");
+        return OcspValidationOutcome.of(OcspValidationResult.STALE_CACHED_RESPONSE);
       }
     }
 
@@ -111,15 +184,37 @@ public final class OcspValidator implements CertificateValidator {
       // no OCSP response available but that was tolerated (otherwise exception would have been
       // thrown)
       log.debug("No Ocsp resp received, but tolerated.");
-      return;
+      return OcspValidationOutcome.of(OcspValidationResult.NO_RESPONSE_TOLERATED);
     }
 
-    createVerifier(x509EeCert, ocspRespOpt.get()).performTucPki006Checks(referenceDate);
+    final VerifiedOcspResp verifiedOcspResp =
+        createVerifier(x509EeCert, ocspRespOpt.get(), issuerTspServiceSubset)
+            .getVerifiedOcspResp(referenceDate);
 
     if (ocspRespCache != null) {
-      ocspRespCache.saveResponse(x509EeCert.getSerialNumber(), ocspRespOpt.get());
+      ocspRespCache.saveResponse(
+          certId, verifiedOcspResp, () -> refreshOcspResp(x509EeCert, issuerTspServiceSubset));
       log.debug("Ocsp response from server saved to cache.");
     }
+    return OcspValidationOutcome.of(
+        OcspValidationResult.RECEIVED_RESPONSE,
+        verifiedOcspResp.getValidUntil(ocspTimeToleranceProducedAtPastMilliseconds));
+  }
+
+  /**
+   * Requests and verifies a new OCSP response for the end-entity certificate, used by the cache to
+   * refresh hot entries ahead of their expiry.
+   */
+  private Optional<VerifiedOcspResp> refreshOcspResp(
+      final X509Certificate x509EeCert, final TspServiceSubset issuerTspServiceSubset)
+      throws GemPkiException {
+    final Optional<OCSPResp> ocspRespOpt = ocspTransceiver.getOcspResponse();
+    if (ocspRespOpt.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        createVerifier(x509EeCert, ocspRespOpt.get(), issuerTspServiceSubset)
+            .getVerifiedOcspResp(GemLibPkiUtils.now()));
   }
 
   private void verifyToleranceSettings() {
@@ -129,13 +224,99 @@ public final class OcspValidator implements CertificateValidator {
     }
   }
 
+  private boolean isCachedResponseUsable(
+      final VerifiedOcspResp verifiedOcspResp, final ZonedDateTime referenceDate) {
+    if (verifiedOcspResp.isWithinTimeWindows(
+        referenceDate,
+        ocspTimeToleranceProducedAtPastMilliseconds,
+        ocspTimeToleranceProducedAtFutureMilliseconds)) {
+      return true;
+    }
+    log.debug("Ocsp resp from cache is not valid for the reference date: request a new one.");
+    return false;
+  }
+
+  /** The producedAt tolerance in the past is extended by the maximum staleness of the cache. */
+  private boolean isStaleResponseUsable(
+      final VerifiedOcspResp verifiedOcspResp, final ZonedDateTime referenceDate) {
+    final long maxStaleMilliseconds = TimeUnit.SECONDS.toMillis(ocspRespCache.getMaxStaleSeconds());
+    if (verifiedOcspResp.isWithinTimeWindows(
+        referenceDate,
+        ocspTimeToleranceProducedAtPastMilliseconds + maxStaleMilliseconds,
+        ocspTimeToleranceProducedAtFutureMilliseconds)) {
+      return true;
+    }
+    log.debug("Stale Ocsp resp from cache is not valid for the reference date.");
+    return false;
+  }
+
+  /**
+   * A stored response whose cert hash was not checked, e.g. loaded from an {@link
+   * de.gematik.pki.gemlibpki.commons.ocsp.OcspRespFileStore}, is only used if its cert hash
+   * matches the certificate, as in TUC_PKI_006.
+   */
+  private boolean isBoundToCertificate(
+      final VerifiedOcspResp verifiedOcspResp, final X509Certificate x509EeCert) {
+    if (verifiedOcspResp.isCertHashMatched()) {
+      return true;
+    }
+    try {
+      TucPki006OcspVerifier.verifyCertHash(productType, verifiedOcspResp.getOcspResp(), x509EeCert);
+      return true;
+    } catch (final GemPkiException e) {
+      log.warn("Cert hash of the Ocsp resp from cache does not match: request a new one.", e);
+      return false;
+    }
+  }
+
+  /**
+   * A stored response is only used if the certificate it was verified with is still the signer of
+   * an OCSP service of the TSL, e.g. after a TSL update or for responses loaded from a file.
+   */
+  private boolean isSignedByTslOcspSigner(final VerifiedOcspResp verifiedOcspResp) {
+    final byte[] responderCertId = verifiedOcspResp.getResponderCertId();
+    final boolean ocspSigner =
+        (ocspSignerIndex != null)
+            ? ocspSignerIndex.isOcspSigner(responderCertId)
+            : OcspSignerIndex.isOcspSignerInTsl(tspServiceList, responderCertId);
+    if (!ocspSigner) {
+      log.warn("Signer of the Ocsp resp from cache is not in the TSL: request a new one.");
+    }
+    return ocspSigner;
+  }
+
+  /**
+   * Determines the cert id of the end-entity certificate. The issuer certificate is taken from the
+   * given issuer or the transceiver if available, otherwise it is determined from the TSL.
+   */
+  private OcspCertId getCertId(
+      final X509Certificate x509EeCert, final TspServiceSubset issuerTspServiceSubset)
+      throws GemPkiException {
+    final X509Certificate x509IssuerCert;
+    if (issuerTspServiceSubset != null) {
+      x509IssuerCert = issuerTspServiceSubset.getX509IssuerCert();
+    } else if (ocspTransceiver != null) {
+      x509IssuerCert = ocspTransceiver.getX509IssuerCert();
+    } else {
+      x509IssuerCert =
+          new TspInformationProvider(tspServiceList, productType)
+              .getIssuerTspServiceSubset(x509EeCert)
+              .getX509IssuerCert();
+    }
+    return OcspCertId.of(x509EeCert, x509IssuerCert);
+  }
+
   private TucPki006OcspVerifier createVerifier(
-      final X509Certificate x509EeCert, final OCSPResp ocspResponse) {
+      final X509Certificate x509EeCert,
+      final OCSPResp ocspResponse,
+      final TspServiceSubset issuerTspServiceSubset) {
     return TucPki006OcspVerifier.builder()
         .productType(productType)
         .tspServiceList(tspServiceList)
         .eeCert(x509EeCert)
         .ocspResponse(ocspResponse)
+        .issuerTspServiceSubset(issuerTspServiceSubset)
+        .ocspSignerIndex(ocspSignerIndex)
         .ocspTimeToleranceProducedAtFutureMilliseconds(
             ocspTimeToleranceProducedAtFutureMilliseconds)
         .ocspTimeToleranceProducedAtPastMilliseconds(ocspTimeToleranceProducedAtPastMilliseconds)
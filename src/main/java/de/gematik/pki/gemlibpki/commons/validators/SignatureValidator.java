@@ -20,25 +20,72 @@
 
 package de.gematik.pki.gemlibpki.commons.validators;
 
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import java.security.GeneralSecurityException;
 import java.security.cert.X509Certificate;
 import java.time.ZonedDateTime;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@RequiredArgsConstructor
 public class SignatureValidator implements CertificateValidator {
 
-  @NonNull private final String productType;
-  @NonNull private final X509Certificate x509IssuerCert;
+  private final String productType;
+  private final X509Certificate x509IssuerCert;
+  private final IssuerSignatureVerifier issuerSignatureVerifier;
+  private final SignatureVerificationCache signatureVerificationCache;
+
+  /**
+   * Constructor
+   *
+   * @param productType product type for error messages
+   * @param x509IssuerCert issuer certificate to verify the signature with
+   */
+  public SignatureValidator(
+      @NonNull final String productType, @NonNull final X509Certificate x509IssuerCert) {
+    this(productType, x509IssuerCert, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param productType product type for error messages
+   * @param x509IssuerCert issuer certificate to verify the signature with
+   * @param signatureVerificationCache cache of successful verifications, may be null
+   */
+  public SignatureValidator(
+      @NonNull final String productType,
+      @NonNull final X509Certificate x509IssuerCert,
+      final SignatureVerificationCache signatureVerificationCache) {
+    this.productType = productType;
+    this.x509IssuerCert = x509IssuerCert;
+    this.issuerSignatureVerifier = null;
+    this.signatureVerificationCache = signatureVerificationCache;
+  }
+
+  /**
+   * Constructor using a verifier that is shared by all checks of certificates of the issuer
+   *
+   * @param productType product type for error messages
+   * @param issuerSignatureVerifier verifier of the issuer
+   * @param signatureVerificationCache cache of successful verifications, may be null
+   */
+  public SignatureValidator(
+      @NonNull final String productType,
+      @NonNull final IssuerSignatureVerifier issuerSignatureVerifier,
+      final SignatureVerificationCache signatureVerificationCache) {
+    this.productType = productType;
+    this.x509IssuerCert = issuerSignatureVerifier.getX509IssuerCert();
+    this.issuerSignatureVerifier = issuerSignatureVerifier;
+    this.signatureVerificationCache = signatureVerificationCache;
+  }
 
   /**
    * Verify signature of parameterized end-entity certificate against given issuer certificate.
-   * Issuer certificate (CA) is determined from TSL file.
+   * Issuer certificate (CA) is determined from TSL file. With a {@link SignatureVerificationCache}
+   * the signature of a certificate is verified only once per issuer key.
    *
    * @throws GemPkiException if certificate is mathematically invalid
    */
@@ -47,8 +94,51 @@ public class SignatureValidator implements CertificateValidator {
       @NonNull final X509Certificate x509EeCert, @NonNull final ZonedDateTime referenceDate)
       throws GemPkiException {
 
+    if (signatureVerificationCache != null
+        && signatureVerificationCache.isVerified(x509EeCert, x509IssuerCert)) {
+      log.debug("Signature verification for end entity certificate found in cache.");
+      return;
+    }
+    verify(x509EeCert);
+    if (signatureVerificationCache != null) {
+      signatureVerificationCache.saveVerified(x509EeCert, x509IssuerCert);
+    }
+  }
+
+  /**
+   * Verify signature of the parsed end-entity certificate as in {@link
+   * #validateCertificate(X509Certificate, ZonedDateTime)}. With a {@link
+   * SignatureVerificationCache} and an {@link IssuerSignatureVerifier}, the lookup uses the
+   * fingerprint of the parsed certificate and the key hash of the verifier instead of computing
+   * them again.
+   *
+   * @param parsedEeCert end-entity certificate to check
+   * @param referenceDate date to check against
+   * @throws GemPkiException if certificate is mathematically invalid
+   */
+  public void validateParsedCertificate(
+      @NonNull final ParsedCertificate parsedEeCert, @NonNull final ZonedDateTime referenceDate)
+      throws GemPkiException {
+
+    if (signatureVerificationCache == null || issuerSignatureVerifier == null) {
+      validateCertificate(parsedEeCert.getX509Certificate(), referenceDate);
+      return;
+    }
+    if (signatureVerificationCache.isVerified(parsedEeCert, issuerSignatureVerifier)) {
+      log.debug("Signature verification for end entity certificate found in cache.");
+      return;
+    }
+    verify(parsedEeCert.getX509Certificate());
+    signatureVerificationCache.saveVerified(parsedEeCert, issuerSignatureVerifier);
+  }
+
+  private void verify(final X509Certificate x509EeCert) throws GemPkiException {
     try {
-      x509EeCert.verify(x509IssuerCert.getPublicKey());
+      if (issuerSignatureVerifier != null) {
+        issuerSignatureVerifier.verify(x509EeCert);
+      } else {
+        x509EeCert.verify(x509IssuerCert.getPublicKey());
+      }
       log.debug("Signature verification for end entity certificate successful.");
     } catch (final GeneralSecurityException verifyFailed) {
       throw new GemPkiException(
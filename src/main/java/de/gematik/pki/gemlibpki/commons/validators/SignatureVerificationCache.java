@@ -0,0 +1,113 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.validators;
+
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
+import de.gematik.pki.gemlibpki.commons.utils.BoundedLruCache;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
+import java.nio.ByteBuffer;
+import java.security.cert.X509Certificate;
+import lombok.NonNull;
+
+/**
+ * Optional cache of successful signature verifications of certificates, to be shared by {@link
+ * SignatureValidator} instances. A verification is identified by the SHA-256 fingerprint of the
+ * end-entity certificate and the SHA-256 hash of the SubjectPublicKeyInfo of the issuer, so the
+ * public key operation is skipped only for the identical certificate and issuer key. Failed
+ * verifications are not cached. The number of verifications is limited to maxSize, the least
+ * recently used ones are evicted.
+ */
+public class SignatureVerificationCache {
+
+  public static final int DEFAULT_MAX_SIZE = 10_000;
+
+  private final BoundedLruCache<ByteBuffer, Boolean> verifications =
+      new BoundedLruCache<>(DEFAULT_MAX_SIZE);
+
+  /**
+   * @return maximum number of cached verifications
+   */
+  public int getMaxSize() {
+    return verifications.getMaxSize();
+  }
+
+  /**
+   * @param maxSize maximum number of cached verifications, the least recently used ones are evicted
+   */
+  public void setMaxSize(final int maxSize) {
+    verifications.setMaxSize(maxSize);
+  }
+
+  /**
+   * @return number of cached verifications
+   */
+  public int getSize() {
+    return verifications.size();
+  }
+
+  /** Removes all verifications. */
+  public void clear() {
+    verifications.clear();
+  }
+
+  boolean isVerified(
+      @NonNull final X509Certificate x509EeCert, @NonNull final X509Certificate x509IssuerCert) {
+    return verifications.get(getKey(x509EeCert, x509IssuerCert)).isPresent();
+  }
+
+  void saveVerified(
+      @NonNull final X509Certificate x509EeCert, @NonNull final X509Certificate x509IssuerCert) {
+    verifications.put(getKey(x509EeCert, x509IssuerCert), Boolean.TRUE);
+  }
+
+  /** The fingerprint and the issuer key hash are taken from the given objects, not computed. */
+  boolean isVerified(
+      @NonNull final ParsedCertificate parsedEeCert,
+      @NonNull final IssuerSignatureVerifier issuerSignatureVerifier) {
+    return verifications.get(getKey(parsedEeCert, issuerSignatureVerifier)).isPresent();
+  }
+
+  void saveVerified(
+      @NonNull final ParsedCertificate parsedEeCert,
+      @NonNull final IssuerSignatureVerifier issuerSignatureVerifier) {
+    verifications.put(getKey(parsedEeCert, issuerSignatureVerifier), Boolean.TRUE);
+  }
+
+  private static ByteBuffer getKey(
+      final X509Certificate x509EeCert, final X509Certificate x509IssuerCert) {
+    return getKey(
+        GemLibPkiUtils.calculateSha256(GemLibPkiUtils.certToBytes(x509EeCert)),
+        GemLibPkiUtils.calculateSha256(x509IssuerCert.getPublicKey().getEncoded()));
+  }
+
+  private static ByteBuffer getKey(
+      final ParsedCertificate parsedEeCert,
+      final IssuerSignatureVerifier issuerSignatureVerifier) {
+    return getKey(parsedEeCert.getSha256Fingerprint(), issuerSignatureVerifier.getPublicKeyHash());
+  }
+
+  private static ByteBuffer getKey(final byte[] eeCertFingerprint, final byte[] issuerKeyHash) {
+    return ByteBuffer.allocate(eeCertFingerprint.length + issuerKeyHash.length)
+        .put(eeCertFingerprint)
+        .put(issuerKeyHash)
+        .flip();
+  }
+}
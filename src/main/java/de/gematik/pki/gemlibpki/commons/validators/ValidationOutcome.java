@@ -0,0 +1,123 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.validators;
+
+import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Outcome of a certificate check without an exception: valid, or invalid with an {@link
+ * ErrorCode}. The error message and the {@link GemPkiException} are only built on request, so an
+ * expected mismatch (e.g. of one of several certificate profiles) captures no stack trace. The
+ * outcomes without exception are shared instances.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ValidationOutcome {
+
+  private static final ValidationOutcome VALID = new ValidationOutcome(null, null);
+  private static final Map<ErrorCode, ValidationOutcome> INVALID = new EnumMap<>(ErrorCode.class);
+
+  static {
+    for (final ErrorCode errorCode : ErrorCode.values()) {
+      INVALID.put(errorCode, new ValidationOutcome(errorCode, null));
+    }
+  }
+
+  private final ErrorCode errorCode;
+  private final GemPkiException exception;
+
+  /**
+   * @return the outcome of a passed check
+   */
+  public static ValidationOutcome valid() {
+    return VALID;
+  }
+
+  /**
+   * @param errorCode the error of the failed check
+   * @return the outcome of a failed check
+   */
+  public static ValidationOutcome invalid(@NonNull final ErrorCode errorCode) {
+    return INVALID.get(errorCode);
+  }
+
+  /**
+   * @param exception the exception of the failed check, thrown as it is by {@link
+   *     #throwIfInvalid(String)}
+   * @return the outcome of a failed check
+   */
+  public static ValidationOutcome invalid(@NonNull final GemPkiException exception) {
+    return new ValidationOutcome(exception.getError(), exception);
+  }
+
+  /**
+   * @return true if the check passed
+   */
+  public boolean isValid() {
+    return errorCode == null;
+  }
+
+  /**
+   * @return the error of the failed check
+   */
+  public Optional<ErrorCode> getErrorCode() {
+    return Optional.ofNullable(errorCode);
+  }
+
+  /**
+   * @param productType a string determines the caller of function
+   * @return the error message of the failed check
+   */
+  public Optional<String> getErrorMessage(@NonNull final String productType) {
+    if (exception != null) {
+      return Optional.ofNullable(exception.getMessage());
+    }
+    return getErrorCode().map(error -> error.getErrorMessage(productType));
+  }
+
+  /**
+   * @param productType a string determines the caller of function
+   * @return the exception of the failed check
+   */
+  public Optional<GemPkiException> toException(@NonNull final String productType) {
+    if (exception != null) {
+      return Optional.of(exception);
+    }
+    return getErrorCode().map(error -> new GemPkiException(productType, error));
+  }
+
+  /**
+   * @param productType a string determines the caller of function
+   * @throws GemPkiException if the check failed
+   */
+  public void throwIfInvalid(@NonNull final String productType) throws GemPkiException {
+    final Optional<GemPkiException> gemPkiException = toException(productType);
+    if (gemPkiException.isPresent()) {
+      throw gemPkiException.get();
+    }
+  }
+}
@@ -21,6 +21,7 @@
 package de.gematik.pki.gemlibpki.ti10.ocsp;
 
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponderRegistry;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTransceiver;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTransceiverFactory;
 import de.gematik.pki.gemlibpki.commons.tsl.TspInformationProvider;
@@ -35,31 +36,50 @@ public class TslBasedSspOcspTransceiverFactory implements OcspTransceiverFactory
   private final List<TspService> tspServiceList;
   private final int timeoutSeconds;
   private final boolean tolerateOcspFailure;
+  private final OcspResponderRegistry ocspResponderRegistry;
 
   public TslBasedSspOcspTransceiverFactory(
       final String productType,
       final List<TspService> tspServiceList,
       final int timeoutSeconds,
       final boolean tolerateOcspFailure) {
+    this(productType, tspServiceList, timeoutSeconds, tolerateOcspFailure, null);
+  }
+
+  public TslBasedSspOcspTransceiverFactory(
+      final String productType,
+      final List<TspService> tspServiceList,
+      final int timeoutSeconds,
+      final boolean tolerateOcspFailure,
+      final OcspResponderRegistry ocspResponderRegistry) {
     this.productType = productType;
     this.tspServiceList = tspServiceList;
     this.timeoutSeconds = timeoutSeconds;
     this.tolerateOcspFailure = tolerateOcspFailure;
+    this.ocspResponderRegistry = ocspResponderRegistry;
   }
 
   @Override
   public OcspTransceiver create(final X509Certificate eeCert) throws GemPkiException {
+    return create(
+        eeCert,
+        new TspInformationProvider(tspServiceList, productType).getIssuerTspServiceSubset(eeCert));
+  }
 
-    final TspServiceSubset subset =
-        new TspInformationProvider(tspServiceList, productType).getIssuerTspServiceSubset(eeCert);
+  @Override
+  public OcspTransceiver create(final X509Certificate eeCert, final TspServiceSubset subset) {
+    final List<String> ssps = subset.getServiceSupplyPoints();
 
     return OcspTransceiver.builder()
         .productType(productType)
         .x509EeCert(eeCert)
         .x509IssuerCert(subset.getX509IssuerCert())
         .ssp(subset.getServiceSupplyPoint())
+        .additionalSsps(
+            (ssps == null || ssps.isEmpty()) ? List.of() : ssps.subList(1, ssps.size()))
         .ocspTimeoutSeconds(timeoutSeconds)
         .tolerateOcspFailure(tolerateOcspFailure)
+        .ocspResponderRegistry(ocspResponderRegistry)
         .build();
   }
 }
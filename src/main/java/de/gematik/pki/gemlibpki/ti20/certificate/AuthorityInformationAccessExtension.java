@@ -20,10 +20,12 @@
 
 package de.gematik.pki.gemlibpki.ti20.certificate;
 
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
 import java.io.IOException;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
+import java.util.List;
 import lombok.NonNull;
 import org.bouncycastle.asn1.x509.AccessDescription;
 import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
@@ -53,6 +55,25 @@ public class AuthorityInformationAccessExtension {
     accessDescriptions = (aia != null) ? aia.getAccessDescriptions() : new AccessDescription[0];
   }
 
+  private AuthorityInformationAccessExtension(final AccessDescription[] accessDescriptions) {
+    this.accessDescriptions = accessDescriptions;
+  }
+
+  /**
+   * Uses Authority Information Access from extensions of the already decoded certificate
+   *
+   * @param parsedCertificate end-entity certificate
+   * @return the Authority Information Access extension
+   */
+  public static AuthorityInformationAccessExtension of(
+      @NonNull final ParsedCertificate parsedCertificate) {
+    return new AuthorityInformationAccessExtension(
+        parsedCertificate
+            .getAuthorityInformationAccess()
+            .map(AuthorityInformationAccess::getAccessDescriptions)
+            .orElseGet(() -> new AccessDescription[0]));
+  }
+
   /**
    * Reading OCSP responder URI (Service Supply Point)
    *
@@ -60,6 +81,17 @@ public class AuthorityInformationAccessExtension {
    *     present
    */
   public String getSsp() {
+    final List<String> ssps = getSsps();
+    return ssps.isEmpty() ? null : ssps.getFirst();
+  }
+
+  /**
+   * Reading all OCSP responder URIs (Service Supply Points)
+   *
+   * @return OCSP responder URIs from the Authority Information Access extension in their order in
+   *     the extension, empty if not present
+   */
+  public List<String> getSsps() {
     return Arrays.stream(accessDescriptions)
         .filter(
             accessDescription ->
@@ -69,7 +101,6 @@ public class AuthorityInformationAccessExtension {
                 accessDescription.getAccessLocation().getTagNo()
                     == GeneralName.uniformResourceIdentifier)
         .map(accessDescription -> accessDescription.getAccessLocation().getName().toString())
-        .findFirst()
-        .orElse(null);
+        .toList();
   }
 }
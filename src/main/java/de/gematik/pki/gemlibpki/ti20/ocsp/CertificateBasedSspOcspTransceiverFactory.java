@@ -22,6 +22,7 @@ package de.gematik.pki.gemlibpki.ti20.ocsp;
 
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponderRegistry;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTransceiver;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTransceiverFactory;
 import de.gematik.pki.gemlibpki.commons.tsl.TspInformationProvider;
@@ -39,16 +40,27 @@ public class CertificateBasedSspOcspTransceiverFactory implements OcspTransceive
   private final List<TspService> tspServiceList;
   private final int timeoutSeconds;
   private final boolean tolerateOcspFailure;
+  private final OcspResponderRegistry ocspResponderRegistry;
 
   public CertificateBasedSspOcspTransceiverFactory(
       @NonNull final String productType,
       @NonNull final List<TspService> tspServiceList,
       final int timeoutSeconds,
       final boolean tolerateOcspFailure) {
+    this(productType, tspServiceList, timeoutSeconds, tolerateOcspFailure, null);
+  }
+
+  public CertificateBasedSspOcspTransceiverFactory(
+      @NonNull final String productType,
+      @NonNull final List<TspService> tspServiceList,
+      final int timeoutSeconds,
+      final boolean tolerateOcspFailure,
+      final OcspResponderRegistry ocspResponderRegistry) {
     this.productType = productType;
     this.tspServiceList = tspServiceList;
     this.timeoutSeconds = timeoutSeconds;
     this.tolerateOcspFailure = tolerateOcspFailure;
+    this.ocspResponderRegistry = ocspResponderRegistry;
   }
 
   @Override
@@ -57,9 +69,9 @@ public class CertificateBasedSspOcspTransceiverFactory implements OcspTransceive
     final TspServiceSubset subset =
         new TspInformationProvider(tspServiceList, productType).getIssuerTspServiceSubset(eeCert);
 
-    final String ssp;
+    final List<String> ssps;
     try {
-      ssp = new AuthorityInformationAccessExtension(eeCert).getSsp();
+      ssps = new AuthorityInformationAccessExtension(eeCert).getSsps();
     } catch (final IOException e) {
       throw new GemPkiException(
           ErrorCode.TE_1026_SERVICESUPPLYPOINT_MISSING,
@@ -71,9 +83,11 @@ public class CertificateBasedSspOcspTransceiverFactory implements OcspTransceive
         .productType(productType)
         .x509EeCert(eeCert)
         .x509IssuerCert(subset.getX509IssuerCert())
-        .ssp(ssp)
+        .ssp(ssps.isEmpty() ? null : ssps.getFirst())
+        .additionalSsps(ssps.isEmpty() ? List.of() : ssps.subList(1, ssps.size()))
         .ocspTimeoutSeconds(timeoutSeconds)
         .tolerateOcspFailure(tolerateOcspFailure)
+        .ocspResponderRegistry(ocspResponderRegistry)
         .build();
   }
 }
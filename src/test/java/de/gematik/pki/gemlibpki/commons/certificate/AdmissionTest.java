@@ -22,14 +22,17 @@ package de.gematik.pki.gemlibpki.commons.certificate;
 
 import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
 import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB_KZBV;
+import static de.gematik.pki.gemlibpki.commons.certificate.Role.OID_PRAXIS_ARZT;
 import static de.gematik.pki.gemlibpki.commons.certificate.Role.OID_PRAXIS_PSYCHOTHERAPEUT;
 import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
 import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
 import java.io.IOException;
 import java.security.cert.X509Certificate;
+import java.util.EnumSet;
 import java.util.Set;
 import org.bouncycastle.asn1.isismtt.x509.AdmissionSyntax;
 import org.bouncycastle.asn1.isismtt.x509.Admissions;
@@ -158,4 +161,36 @@ final class AdmissionTest {
       assertThat(professionItems).isEmpty();
     }
   }
+
+  @Test
+  void getRoles() throws IOException {
+    final Admission admission = new Admission(VALID_X509_EE_CERT_SMCB);
+
+    assertThat(admission.getRoles()).containsExactly(OID_PRAXIS_PSYCHOTHERAPEUT);
+    assertThat(admission.hasAnyRole(EnumSet.of(OID_PRAXIS_ARZT, OID_PRAXIS_PSYCHOTHERAPEUT)))
+        .isTrue();
+    assertThat(admission.hasAnyRole(EnumSet.of(OID_PRAXIS_ARZT))).isFalse();
+  }
+
+  @Test
+  void verifyValuesUnmodifiable() throws IOException {
+    final Admission admission = new Admission(VALID_X509_EE_CERT_SMCB);
+    final Set<String> professionOids = admission.getProfessionOids();
+
+    assertThatThrownBy(professionOids::clear).isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> admission.getRoles().clear())
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThat(admission.getProfessionOids()).isSameAs(professionOids);
+  }
+
+  @Test
+  void verifyMissingAdmissionRoles() throws IOException {
+    final X509Certificate missingAdmission =
+        TestUtils.readCert("GEM.SMCB-CA57/valid/BabetteBeyer-missing-admission.pem");
+    final Admission admission = new Admission(missingAdmission);
+
+    assertThat(admission.getRoles()).isEmpty();
+    assertThat(admission.getRegistrationNumber()).isEmpty();
+    assertThat(admission.hasAnyRole(EnumSet.allOf(Role.class))).isFalse();
+  }
 }
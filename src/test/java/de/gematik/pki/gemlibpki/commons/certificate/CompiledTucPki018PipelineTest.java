@@ -0,0 +1,174 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.certificate;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.PRODUCT_TYPE;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_INVALID_KEY_USAGE;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_ANY;
+import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_C_HCI_AUT_ECC;
+import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_C_HCI_AUT_RSA;
+import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_C_HP_AUT_ECC;
+import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_C_TSL_SIG;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiParsingException;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
+import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
+import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
+import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CompiledTucPki018PipelineTest {
+
+  private static CompiledTucPki018Pipeline buildPipeline(
+      final List<CertificateProfile> certificateProfiles) {
+    return CompiledTucPki018Pipeline.builder()
+        .productType(PRODUCT_TYPE)
+        .tspServiceList(TestUtils.getDefaultTspServiceList())
+        .certificateProfiles(certificateProfiles)
+        .build();
+  }
+
+  @Test
+  void verifyValidCert() throws GemPkiException {
+    final CompiledTucPki018Pipeline pipeline = buildPipeline(List.of(CERT_PROFILE_C_HCI_AUT_ECC));
+    final Admission admission = pipeline.verify(VALID_X509_EE_CERT_SMCB, GemLibPkiUtils.now());
+    assertThat(admission).isNotNull();
+  }
+
+  @Test
+  void verifyPipelineIsReusable() throws GemPkiException {
+    final CompiledTucPki018Pipeline pipeline = buildPipeline(List.of(CERT_PROFILE_C_HCI_AUT_ECC));
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    final Admission admission1 = pipeline.verify(VALID_X509_EE_CERT_SMCB, now);
+    final Admission admission2 = pipeline.verify(VALID_X509_EE_CERT_SMCB, now);
+    assertThat(admission2.getProfessionOids()).isEqualTo(admission1.getProfessionOids());
+  }
+
+  @Test
+  void verifyProfileChecksCollectErrors() {
+    final CompiledTucPki018Pipeline pipeline =
+        buildPipeline(List.of(CERT_PROFILE_C_HCI_AUT_ECC, CERT_PROFILE_C_HP_AUT_ECC));
+    assertThatThrownBy(
+            () -> pipeline.verify(VALID_X509_EE_CERT_INVALID_KEY_USAGE, GemLibPkiUtils.now()))
+        .isInstanceOf(GemPkiParsingException.class)
+        .hasMessageContaining(ErrorCode.SE_1018_CERT_TYPE_MISMATCH.name())
+        .hasMessageContaining(ErrorCode.SE_1016_WRONG_KEYUSAGE.name());
+  }
+
+  @Test
+  void verifyCandidateProfilesByCertificateTypeOid() {
+    final CompiledTucPki018Pipeline pipeline = buildPipeline(List.of(CertificateProfile.values()));
+
+    assertThat(pipeline.getCandidateProfiles(VALID_X509_EE_CERT_SMCB))
+        .contains(
+            CERT_PROFILE_C_HCI_AUT_ECC,
+            CERT_PROFILE_C_HCI_AUT_RSA,
+            CERT_PROFILE_C_TSL_SIG,
+            CERT_PROFILE_ANY)
+        .doesNotContain(CERT_PROFILE_C_HP_AUT_ECC);
+  }
+
+  @Test
+  void verifyCandidateProfilesWithoutPolicyExtension() {
+    final CompiledTucPki018Pipeline pipeline = buildPipeline(List.of(CertificateProfile.values()));
+    final X509Certificate certWithoutPolicies =
+        TestUtils.readP12("ocsp/dsaCert.p12").getCertificate();
+
+    assertThat(pipeline.getCandidateProfiles(certWithoutPolicies))
+        .containsExactlyInAnyOrder(CERT_PROFILE_C_TSL_SIG, CERT_PROFILE_ANY);
+  }
+
+  @Test
+  void verifyProfileChecksWithoutPolicyExtension() throws GemPkiException {
+    final CompiledTucPki018Pipeline pipeline =
+        buildPipeline(List.of(CERT_PROFILE_C_TSL_SIG, CERT_PROFILE_C_HCI_AUT_ECC));
+    final TspServiceSubset tspServiceSubset =
+        pipeline.getIssuerTspServiceSubset(VALID_X509_EE_CERT_SMCB);
+    final X509Certificate certWithoutPolicies =
+        TestUtils.readP12("ocsp/dsaCert.p12").getCertificate();
+
+    assertThatThrownBy(() -> pipeline.profileChecks(certWithoutPolicies, tspServiceSubset))
+        .isInstanceOf(GemPkiParsingException.class)
+        .hasMessageContaining(CERT_PROFILE_C_TSL_SIG.name())
+        .hasMessageContaining(CERT_PROFILE_C_HCI_AUT_ECC.name());
+  }
+
+  @Test
+  void verifyManyProfilesValid() throws GemPkiException {
+    final CompiledTucPki018Pipeline pipeline =
+        buildPipeline(
+            List.of(
+                CERT_PROFILE_C_HP_AUT_ECC, CERT_PROFILE_C_HCI_AUT_RSA, CERT_PROFILE_C_HCI_AUT_ECC));
+    assertThat(pipeline.verify(VALID_X509_EE_CERT_SMCB, GemLibPkiUtils.now())).isNotNull();
+  }
+
+  @Test
+  void verifyEmptyProfiles() throws GemPkiException {
+    final CompiledTucPki018Pipeline pipeline = buildPipeline(List.of());
+    final TspServiceSubset tspServiceSubset =
+        pipeline.getIssuerTspServiceSubset(VALID_X509_EE_CERT_SMCB);
+    assertThatThrownBy(() -> pipeline.profileChecks(VALID_X509_EE_CERT_SMCB, tspServiceSubset))
+        .isInstanceOf(GemPkiRuntimeException.class)
+        .hasMessage("Liste der konfigurierten Zertifikatsprofile ist leer.");
+  }
+
+  @Test
+  void verifyConfigurationIsCopied() {
+    final CompiledTucPki018Pipeline pipeline = buildPipeline(List.of(CERT_PROFILE_C_HCI_AUT_ECC));
+    assertThat(pipeline.getProductType()).isEqualTo(PRODUCT_TYPE);
+    assertThat(pipeline.getCertificateProfiles()).containsExactly(CERT_PROFILE_C_HCI_AUT_ECC);
+    assertThatThrownBy(() -> pipeline.getCertificateProfiles().add(CERT_PROFILE_C_HP_AUT_ECC))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void nonNull() throws GemPkiException {
+    final CompiledTucPki018Pipeline pipeline = buildPipeline(List.of(CERT_PROFILE_C_HCI_AUT_ECC));
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    final TspServiceSubset tspServiceSubset =
+        pipeline.getIssuerTspServiceSubset(VALID_X509_EE_CERT_SMCB);
+
+    assertNonNullParameter(() -> pipeline.verify(null, now), "x509EeCert");
+    assertNonNullParameter(() -> pipeline.verify(VALID_X509_EE_CERT_SMCB, null), "referenceDate");
+    assertNonNullParameter(() -> pipeline.getIssuerTspServiceSubset(null), "x509EeCert");
+    assertNonNullParameter(
+        () -> pipeline.commonChecks(VALID_X509_EE_CERT_SMCB, null, now), "tspServiceSubset");
+    assertNonNullParameter(
+        () -> pipeline.profileChecks(VALID_X509_EE_CERT_SMCB, null, tspServiceSubset),
+        "certificateProfile");
+    assertNonNullParameter(
+        () ->
+            CompiledTucPki018Pipeline.builder()
+                .tspServiceList(TestUtils.getDefaultTspServiceList())
+                .certificateProfiles(List.of())
+                .build(),
+        "productType");
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.certificate;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.MISSING_CERT_TYPE;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
+import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+import org.bouncycastle.asn1.x509.Extension;
+import org.junit.jupiter.api.Test;
+
+class ParsedCertificateTest {
+
+  private final ParsedCertificate parsedCertificate =
+      new ParsedCertificate(VALID_X509_EE_CERT_SMCB);
+
+  @Test
+  void parsedCertificateNull() {
+    assertNonNullParameter(() -> new ParsedCertificate(null), "x509Certificate");
+  }
+
+  @Test
+  void verifyAdmission() throws IOException {
+    final Admission admission = parsedCertificate.getAdmission();
+
+    assertThat(admission.getProfessionOids())
+        .isEqualTo(new Admission(VALID_X509_EE_CERT_SMCB).getProfessionOids());
+    assertThat(parsedCertificate.getAdmission()).isSameAs(admission);
+  }
+
+  @Test
+  void verifyPolicyOids() throws IOException {
+    assertThat(parsedCertificate.getPolicyOids())
+        .isEqualTo(new Policies(VALID_X509_EE_CERT_SMCB).getPolicyOids())
+        .contains(CertificateType.CERT_TYPE_SMC_B_AUT.getOid());
+    assertThat(new ParsedCertificate(MISSING_CERT_TYPE).getPolicyOids()).isEmpty();
+  }
+
+  @Test
+  void verifyPolicyOidsWithoutPolicyExtension() {
+    final X509Certificate certWithoutPolicies =
+        TestUtils.readP12("ocsp/dsaCert.p12").getCertificate();
+    assertThat(new ParsedCertificate(certWithoutPolicies).getPolicyOids()).isEmpty();
+  }
+
+  @Test
+  void verifyKeyUsage() {
+    final boolean[] keyUsage = parsedCertificate.getKeyUsage();
+    assertThat(keyUsage).isEqualTo(VALID_X509_EE_CERT_SMCB.getKeyUsage());
+
+    // the memoized value is not changed by the caller
+    keyUsage[0] = !keyUsage[0];
+    assertThat(parsedCertificate.getKeyUsage()).isEqualTo(VALID_X509_EE_CERT_SMCB.getKeyUsage());
+  }
+
+  @Test
+  void verifyExtendedKeyUsage() throws Exception {
+    assertThat(parsedCertificate.getExtendedKeyUsage())
+        .contains(VALID_X509_EE_CERT_SMCB.getExtendedKeyUsage());
+  }
+
+  @Test
+  void verifyCriticalExtensionOids() {
+    assertThat(parsedCertificate.getCriticalExtensionOids())
+        .containsExactlyInAnyOrder(Extension.basicConstraints.getId(), Extension.keyUsage.getId());
+  }
+
+  @Test
+  void verifyKeyIdentifiers() {
+    final byte[] subjectKeyIdentifier = parsedCertificate.getSubjectKeyIdentifier().orElseThrow();
+    final byte[] authorityKeyIdentifier =
+        parsedCertificate.getAuthorityKeyIdentifier().orElseThrow();
+
+    // the memoized values are not changed by the caller
+    subjectKeyIdentifier[0]++;
+    authorityKeyIdentifier[0]++;
+    assertThat(parsedCertificate.getSubjectKeyIdentifier().orElseThrow())
+        .isNotEqualTo(subjectKeyIdentifier);
+    assertThat(parsedCertificate.getAuthorityKeyIdentifier().orElseThrow())
+        .isNotEqualTo(authorityKeyIdentifier);
+  }
+
+  @Test
+  void verifySha256Fingerprint() {
+    final byte[] fingerprint = parsedCertificate.getSha256Fingerprint();
+    assertThat(fingerprint)
+        .isEqualTo(
+            GemLibPkiUtils.calculateSha256(GemLibPkiUtils.certToBytes(VALID_X509_EE_CERT_SMCB)));
+
+    fingerprint[0]++;
+    assertThat(parsedCertificate.getSha256Fingerprint()).isNotEqualTo(fingerprint);
+  }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.certificate;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.PRODUCT_TYPE;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_C_HCI_AUT_ECC;
+import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_C_HP_AUT_ECC;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.gematik.pki.gemlibpki.commons.certificate.TucPki018DecisionCache.DecisionKey;
+import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.tsl.TspService;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
+import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TucPki018DecisionCacheTest {
+
+  private static final int TTL_SECONDS = 30;
+  private static final List<CertificateProfile> certificateProfiles =
+      List.of(CERT_PROFILE_C_HCI_AUT_ECC);
+
+  private final List<TspService> tspServiceList = TestUtils.getDefaultTspServiceList();
+  private TucPki018DecisionCache decisionCache;
+  private DecisionKey key;
+
+  @BeforeEach
+  void init() {
+    decisionCache = new TucPki018DecisionCache(TTL_SECONDS);
+    key =
+        DecisionKey.of(
+            VALID_X509_EE_CERT_SMCB, PRODUCT_TYPE, certificateProfiles, tspServiceList, true);
+  }
+
+  private static TucPki018Result validResult() throws IOException {
+    return TucPki018Result.valid(VALID_X509_EE_CERT_SMCB, new Admission(VALID_X509_EE_CERT_SMCB));
+  }
+
+  private static TucPki018Result invalidResult(final ErrorCode errorCode) {
+    return TucPki018Result.invalid(
+        VALID_X509_EE_CERT_SMCB, new GemPkiException(PRODUCT_TYPE, errorCode));
+  }
+
+  @Test
+  void verifySaveAndGet() throws IOException {
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    final TucPki018Result result = validResult();
+    decisionCache.save(key, result, now);
+
+    assertThat(decisionCache.getSize()).isEqualTo(1);
+    assertThat(decisionCache.get(key, now)).containsSame(result);
+    assertThat(decisionCache.get(key, now.plusSeconds(TTL_SECONDS))).containsSame(result);
+  }
+
+  @Test
+  void verifyDecisionExpires() throws IOException {
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    decisionCache.save(key, validResult(), now);
+
+    assertThat(decisionCache.get(key, now.plusSeconds(TTL_SECONDS + 1))).isEmpty();
+    assertThat(decisionCache.get(key, now.minusSeconds(1))).isEmpty();
+  }
+
+  @Test
+  void verifyDecisionExpiresWithCertificate() throws IOException {
+    final ZonedDateTime notAfter =
+        ZonedDateTime.ofInstant(VALID_X509_EE_CERT_SMCB.getNotAfter().toInstant(), ZoneOffset.UTC);
+    final ZonedDateTime referenceDate = notAfter.minusSeconds(1);
+    decisionCache.save(key, validResult(), referenceDate);
+
+    assertThat(decisionCache.get(key, referenceDate)).isPresent();
+    assertThat(decisionCache.get(key, notAfter.plusSeconds(1))).isEmpty();
+  }
+
+  @Test
+  void verifyDecisionExpiresWithOcspResponse() throws IOException {
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    final ZonedDateTime ocspValidUntil = now.plusSeconds(TTL_SECONDS / 2);
+    decisionCache.save(key, validResult(), now, ocspValidUntil);
+
+    assertThat(decisionCache.get(key, ocspValidUntil)).isPresent();
+    assertThat(decisionCache.get(key, ocspValidUntil.plusSeconds(1))).isEmpty();
+
+    // the ttl still applies to a later expiry of the OCSP response
+    decisionCache.save(key, validResult(), now, now.plusSeconds(TTL_SECONDS * 2L));
+    assertThat(decisionCache.get(key, now.plusSeconds(TTL_SECONDS))).isPresent();
+    assertThat(decisionCache.get(key, now.plusSeconds(TTL_SECONDS + 1))).isEmpty();
+  }
+
+  @Test
+  void verifyOnlySecurityErrorsAreCached() {
+    final ZonedDateTime now = GemLibPkiUtils.now();
+
+    decisionCache.save(key, invalidResult(ErrorCode.TE_1032_OCSP_NOT_AVAILABLE), now);
+    assertThat(decisionCache.get(key, now)).isEmpty();
+
+    decisionCache.save(key, invalidResult(ErrorCode.SE_1016_WRONG_KEYUSAGE), now);
+    assertThat(decisionCache.get(key, now)).isPresent();
+  }
+
+  @Test
+  void verifyKeyComponents() throws IOException {
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    decisionCache.save(key, validResult(), now);
+
+    assertThat(
+            decisionCache.get(
+                DecisionKey.of(
+                    VALID_X509_EE_CERT_SMCB,
+                    PRODUCT_TYPE,
+                    certificateProfiles,
+                    tspServiceList,
+                    true),
+                now))
+        .isPresent();
+    assertThat(
+            decisionCache.get(
+                DecisionKey.of(
+                    new ParsedCertificate(VALID_X509_EE_CERT_SMCB),
+                    PRODUCT_TYPE,
+                    certificateProfiles,
+                    tspServiceList,
+                    true),
+                now))
+        .isPresent();
+    assertThat(
+            decisionCache.get(
+                DecisionKey.of(
+                    VALID_X509_EE_CERT_SMCB,
+                    PRODUCT_TYPE,
+                    List.of(CERT_PROFILE_C_HCI_AUT_ECC, CERT_PROFILE_C_HP_AUT_ECC),
+                    tspServiceList,
+                    true),
+                now))
+        .isEmpty();
+    assertThat(
+            decisionCache.get(
+                DecisionKey.of(
+                    VALID_X509_EE_CERT_SMCB,
+                    "otherProduct",
+                    certificateProfiles,
+                    tspServiceList,
+                    true),
+                now))
+        .isEmpty();
+    // a new TSL is a new trust store, even with equal content
+    assertThat(
+            decisionCache.get(
+                DecisionKey.of(
+                    VALID_X509_EE_CERT_SMCB,
+                    PRODUCT_TYPE,
+                    certificateProfiles,
+                    TestUtils.getDefaultTspServiceList(),
+                    true),
+                now))
+        .isEmpty();
+    // a decision without OCSP check does not apply to checks with OCSP check
+    assertThat(
+            decisionCache.get(
+                DecisionKey.of(
+                    VALID_X509_EE_CERT_SMCB,
+                    PRODUCT_TYPE,
+                    certificateProfiles,
+                    tspServiceList,
+                    false),
+                now))
+        .isEmpty();
+  }
+
+  @Test
+  void verifyMaxSizeAndClear() throws IOException {
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    decisionCache.setMaxSize(1);
+    decisionCache.save(key, validResult(), now);
+    final DecisionKey otherKey =
+        DecisionKey.of(
+            VALID_X509_EE_CERT_SMCB, "otherProduct", certificateProfiles, tspServiceList, true);
+    decisionCache.save(otherKey, validResult(), now);
+
+    assertThat(decisionCache.getSize()).isEqualTo(1);
+    assertThat(decisionCache.get(key, now)).isEmpty();
+
+    decisionCache.clear();
+    assertThat(decisionCache.getSize()).isZero();
+  }
+
+  @Test
+  void verifyLeastRecentlyUsedDecisionIsEvicted() throws IOException {
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    decisionCache.setMaxSize(2);
+    final DecisionKey otherKey =
+        DecisionKey.of(
+            VALID_X509_EE_CERT_SMCB, "otherProduct", certificateProfiles, tspServiceList, true);
+    final DecisionKey thirdKey =
+        DecisionKey.of(
+            VALID_X509_EE_CERT_SMCB, "thirdProduct", certificateProfiles, tspServiceList, true);
+    decisionCache.save(key, validResult(), now);
+    decisionCache.save(otherKey, validResult(), now);
+    assertThat(decisionCache.get(key, now)).isPresent();
+
+    decisionCache.save(thirdKey, validResult(), now);
+
+    assertThat(decisionCache.getMaxSize()).isEqualTo(2);
+    assertThat(decisionCache.getSize()).isEqualTo(2);
+    assertThat(decisionCache.get(key, now)).isPresent();
+    assertThat(decisionCache.get(otherKey, now)).isEmpty();
+    assertThat(decisionCache.get(thirdKey, now)).isPresent();
+  }
+
+  @Test
+  void verifyNewExceptionPerHit() {
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    final TucPki018Result result = invalidResult(ErrorCode.SE_1016_WRONG_KEYUSAGE);
+    decisionCache.save(key, result, now);
+
+    final GemPkiException cachedException =
+        decisionCache.get(key, now).orElseThrow().getGemPkiException().orElseThrow();
+
+    assertThat(cachedException).isNotSameAs(result.getGemPkiException().orElseThrow());
+    assertThat(cachedException.getError()).isEqualTo(ErrorCode.SE_1016_WRONG_KEYUSAGE);
+    assertThat(cachedException).hasMessage(result.getGemPkiException().orElseThrow().getMessage());
+    assertThat(decisionCache.get(key, now).orElseThrow().getGemPkiException().orElseThrow())
+        .isNotSameAs(cachedException);
+  }
+
+  @Test
+  void verifyTtlZeroDisablesCache() throws IOException {
+    decisionCache.setTtlSeconds(0);
+    decisionCache.save(key, validResult(), GemLibPkiUtils.now());
+    assertThat(decisionCache.getSize()).isZero();
+  }
+}
@@ -69,6 +69,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import de.gematik.pki.gemlibpki.commons.certificate.TucPki018DecisionCache.DecisionKey;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiParsingException;
@@ -87,14 +88,25 @@ import de.gematik.pki.gemlibpki.commons.utils.CertificateProvider;
 import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
 import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
 import de.gematik.pki.gemlibpki.commons.utils.VariableSource;
+import de.gematik.pki.gemlibpki.commons.validators.OcspValidator;
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.bouncycastle.asn1.x509.CRLReason;
 import org.bouncycastle.cert.ocsp.OCSPReq;
 import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -237,6 +249,33 @@ class TucPki018VerifierTest {
     assertTrue(() -> TucPki018Verifier.checkAllowedProfessionOids(admission, allowedProfOids));
   }
 
+  @Test
+  void checkAllowedProfessionOidsRepeated() throws IOException {
+    final Set<String> allowedProfOids = Set.of(OID_PRAXIS_PSYCHOTHERAPEUT.getProfessionOid());
+    final Admission admission = new Admission(VALID_X509_EE_CERT_SMCB);
+
+    assertTrue(() -> TucPki018Verifier.checkAllowedProfessionOids(admission, allowedProfOids));
+    assertTrue(() -> TucPki018Verifier.checkAllowedProfessionOids(admission, allowedProfOids));
+    assertThat(admission.getProfessionOids())
+        .containsExactly(OID_PRAXIS_PSYCHOTHERAPEUT.getProfessionOid());
+  }
+
+  @Test
+  void checkAllowedRoles() throws IOException {
+    final Admission admission = new Admission(VALID_X509_EE_CERT_SMCB);
+
+    assertTrue(
+        () ->
+            TucPki018Verifier.checkAllowedRoles(
+                admission, EnumSet.of(OID_PRAXIS_ARZT, OID_PRAXIS_PSYCHOTHERAPEUT)));
+    assertFalse(
+        () -> TucPki018Verifier.checkAllowedRoles(admission, EnumSet.of(OID_KOSTENTRAEGER)));
+    assertFalse(
+        () -> TucPki018Verifier.checkAllowedRoles(null, EnumSet.of(OID_PRAXIS_PSYCHOTHERAPEUT)));
+    assertNonNullParameter(
+        () -> TucPki018Verifier.checkAllowedRoles(admission, null), "allowedRoles");
+  }
+
   @Test
   void checkAllowedProfessionOidsNotMatching() throws IOException {
     final Set<String> allowedProfOids = Set.of(OID_KOSTENTRAEGER.getProfessionOid());
@@ -318,6 +357,19 @@ class TucPki018VerifierTest {
                 .performTucPki018Checks(VALID_X509_EE_CERT_SMCB_CA41_RSA));
   }
 
+  @Test
+  void verifyVerifierReusedForCertsOfDifferentIssuers() {
+    final TucPki018Verifier verifier =
+        buildTucPki18Verifier(List.of(CERT_PROFILE_C_HCI_AUT_ECC, CERT_PROFILE_C_HCI_AUT_RSA));
+
+    ocspResponderMock.configureForOcspRequest(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    assertDoesNotThrow(() -> verifier.performTucPki018Checks(VALID_X509_EE_CERT_SMCB));
+
+    ocspResponderMock.configureForOcspRequest(
+        VALID_X509_EE_CERT_SMCB_CA41_RSA, VALID_ISSUER_CERT_SMCB_CA41_RSA);
+    assertDoesNotThrow(() -> verifier.performTucPki018Checks(VALID_X509_EE_CERT_SMCB_CA41_RSA));
+  }
+
   @Test
   void verifySigDCertValid() {
     final X509Certificate eeCert = readCert("GEM.KOMP-CA51/fdsig_erezept.pem");
@@ -426,6 +478,284 @@ class TucPki018VerifierTest {
         .hasMessageContaining(ErrorCode.SE_1016_WRONG_KEYUSAGE.name());
   }
 
+  @Test
+  void verifyBatchChecksResultsInGivenOrder() {
+    final List<TspService> tspServiceList = TestUtils.getDefaultTspServiceList();
+    final TucPki018Verifier verifier =
+        TucPki018Verifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .certificateProfiles(List.of(CERT_PROFILE_C_HCI_AUT_ECC, CERT_PROFILE_C_HP_AUT_ECC))
+            .withOcspCheck(false)
+            .build();
+
+    final List<TucPki018Result> results =
+        verifier.performTucPki018BatchChecks(
+            List.of(
+                VALID_X509_EE_CERT_SMCB,
+                VALID_X509_EE_CERT_INVALID_KEY_USAGE,
+                VALID_X509_EE_CERT_SMCB),
+            GemLibPkiUtils.now());
+
+    assertThat(results).hasSize(3);
+    assertThat(results.get(0).isValid()).isTrue();
+    assertThat(results.get(0).getX509EeCert()).isEqualTo(VALID_X509_EE_CERT_SMCB);
+    assertThat(results.get(0).getAdmission()).isPresent();
+    assertThat(results.get(1).isValid()).isFalse();
+    assertThat(results.get(1).getAdmission()).isEmpty();
+    assertThat(results.get(1).getGemPkiException())
+        .containsInstanceOf(GemPkiParsingException.class);
+    assertThat(results.get(1).getGemPkiException().orElseThrow())
+        .hasMessageContaining(ErrorCode.SE_1016_WRONG_KEYUSAGE.name());
+    assertThat(results.get(2)).isSameAs(results.get(0));
+  }
+
+  @Test
+  void verifyBatchChecksWithRuntimeExceptionOfOneCertificate() {
+    // without an issuer the lookup in the trust store fails with a NullPointerException
+    final X509Certificate brokenCert = Mockito.mock(X509Certificate.class);
+    final TucPki018Verifier verifier =
+        TucPki018Verifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(TestUtils.getDefaultTspServiceList())
+            .certificateProfiles(List.of(CERT_PROFILE_C_HCI_AUT_ECC))
+            .withOcspCheck(false)
+            .build();
+
+    final List<TucPki018Result> results =
+        verifier.performTucPki018BatchChecks(
+            List.of(VALID_X509_EE_CERT_SMCB, brokenCert, VALID_X509_EE_CERT_INVALID_KEY_USAGE),
+            GemLibPkiUtils.now());
+
+    assertThat(results).hasSize(3);
+    assertThat(results.get(0).isValid()).isTrue();
+    assertThat(results.get(1).isValid()).isFalse();
+    assertThat(results.get(1).getX509EeCert()).isSameAs(brokenCert);
+    assertThat(results.get(1).getAdmission()).isEmpty();
+    assertThat(results.get(1).getGemPkiException()).isEmpty();
+    assertThat(results.get(1).getRuntimeException())
+        .containsInstanceOf(NullPointerException.class);
+    assertThat(results.get(2).getGemPkiException().orElseThrow())
+        .hasMessageContaining(ErrorCode.SE_1016_WRONG_KEYUSAGE.name());
+    assertThat(results.get(2).getRuntimeException()).isEmpty();
+
+    final CompletableFuture<Admission> future = verifier.performTucPki018ChecksAsync(brokenCert);
+    assertThatThrownBy(future::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void verifyBatchChecksWithOcsp() {
+    ocspResponderMock.configureForOcspRequest(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final List<TucPki018Result> results =
+        tucPki018Verifier.performTucPki018BatchChecks(
+            List.of(VALID_X509_EE_CERT_SMCB, VALID_X509_EE_CERT_SMCB), GemLibPkiUtils.now());
+
+    assertThat(results).hasSize(2).allMatch(TucPki018Result::isValid);
+    assertThat(tucPki018Verifier.performTucPki018BatchChecks(List.of(), GemLibPkiUtils.now()))
+        .isEmpty();
+  }
+
+  /** The OCSP checks of certificates of the same issuer and OCSP responder run in parallel. */
+  @Test
+  void verifyBatchChecksOcspChecksInParallel() throws GemPkiException {
+    final CountDownLatch ocspChecks = new CountDownLatch(2);
+    final OcspValidator ocspValidator = Mockito.mock(OcspValidator.class);
+    Mockito.when(
+            ocspValidator.validateOcsp(
+                Mockito.any(X509Certificate.class),
+                Mockito.any(ZonedDateTime.class),
+                Mockito.any(TspServiceSubset.class)))
+        .thenAnswer(
+            invocation -> {
+              ocspChecks.countDown();
+              if (!ocspChecks.await(10, TimeUnit.SECONDS)) {
+                throw new GemPkiException(PRODUCT_TYPE, ErrorCode.TE_1032_OCSP_NOT_AVAILABLE);
+              }
+              return null;
+            });
+    final TucPki018Verifier verifier =
+        TucPki018Verifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(TestUtils.getDefaultTspServiceList())
+            .certificateProfiles(List.of(CERT_PROFILE_C_HCI_AUT_ECC))
+            .ocspValidator(ocspValidator)
+            .build();
+
+    final List<TucPki018Result> results =
+        verifier.performTucPki018BatchChecks(
+            List.of(VALID_X509_EE_CERT_SMCB, VALID_X509_EE_CERT_INVALID_KEY_USAGE),
+            GemLibPkiUtils.now());
+
+    assertThat(results.get(0).isValid()).isTrue();
+    assertThat(results.get(1).getGemPkiException().orElseThrow())
+        .hasMessageContaining(ErrorCode.SE_1016_WRONG_KEYUSAGE.name());
+    assertThat(ocspChecks.getCount()).isZero();
+  }
+
+  @Test
+  void verifyPerformTucPki18ChecksWithDecisionCache() throws GemPkiException {
+    final TucPki018DecisionCache decisionCache =
+        new TucPki018DecisionCache(OCSP_GRACE_PERIOD_30_SECONDS);
+    final TucPki018Verifier verifier =
+        TucPki018Verifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(TestUtils.getDefaultTspServiceList())
+            .certificateProfiles(certificateProfiles)
+            .withOcspCheck(false)
+            .decisionCache(decisionCache)
+            .build();
+
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    final Admission admission = verifier.performTucPki018Checks(VALID_X509_EE_CERT_SMCB, now);
+    assertThat(decisionCache.getSize()).isEqualTo(1);
+    assertThat(verifier.performTucPki018Checks(VALID_X509_EE_CERT_SMCB, now)).isSameAs(admission);
+
+    final X509Certificate invalidCert = VALID_X509_EE_CERT_INVALID_KEY_USAGE;
+    final TucPki018Verifier verifierKeyUsage =
+        TucPki018Verifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(TestUtils.getDefaultTspServiceList())
+            .certificateProfiles(List.of(CERT_PROFILE_C_HP_AUT_ECC))
+            .withOcspCheck(false)
+            .decisionCache(decisionCache)
+            .build();
+    assertThatThrownBy(() -> verifierKeyUsage.performTucPki018Checks(invalidCert, now))
+        .isInstanceOf(GemPkiException.class);
+    assertThat(decisionCache.getSize()).isEqualTo(2);
+    assertThatThrownBy(() -> verifierKeyUsage.performTucPki018Checks(invalidCert, now))
+        .isInstanceOf(GemPkiException.class);
+  }
+
+  @Test
+  void verifyPerformTucPki18ChecksWithDecisionCacheLimitedByOcspResponse() throws GemPkiException {
+    ocspResponderMock.configureForOcspRequest(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final TucPki018DecisionCache decisionCache = new TucPki018DecisionCache(3600);
+    final List<TspService> tspServiceList = TestUtils.getDefaultTspServiceList();
+    overwriteSspUrls(tspServiceList, ocspResponderMock.getSspUrl());
+    final TucPki018Verifier verifier =
+        TucPki018Verifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .certificateProfiles(certificateProfiles)
+            .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_30_SECONDS * 1000)
+            .ocspTimeoutSeconds(ocspTimeoutSeconds)
+            .decisionCache(decisionCache)
+            .build();
+
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    verifier.performTucPki018Checks(VALID_X509_EE_CERT_SMCB, now);
+
+    final DecisionKey key =
+        DecisionKey.of(
+            VALID_X509_EE_CERT_SMCB, PRODUCT_TYPE, certificateProfiles, tspServiceList, true);
+    assertThat(decisionCache.get(key, now)).isPresent();
+    // the OCSP response expires long before the ttl of the decision
+    assertThat(decisionCache.get(key, now.plusSeconds(OCSP_GRACE_PERIOD_30_SECONDS + 2)))
+        .isEmpty();
+  }
+
+  @Test
+  void verifyPerformTucPki18ChecksWithDecisionCacheAndGivenOcspResponse() {
+    final ZonedDateTime referenceDate = GemLibPkiUtils.now();
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final OCSPResp ocspResp =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .producedAt(referenceDate)
+            .nextUpdate(referenceDate)
+            .thisUpdate(referenceDate)
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final TucPki018DecisionCache decisionCache =
+        new TucPki018DecisionCache(OCSP_GRACE_PERIOD_30_SECONDS);
+    final TucPki018Verifier verifier =
+        TucPki018Verifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(TestUtils.getDefaultTspServiceList())
+            .certificateProfiles(certificateProfiles)
+            .ocspResponse(ocspResp)
+            .decisionCache(decisionCache)
+            .build();
+
+    assertDoesNotThrow(
+        () -> verifier.performTucPki018Checks(VALID_X509_EE_CERT_SMCB, referenceDate));
+    assertThat(decisionCache.getSize()).isZero();
+  }
+
+  @Test
+  void verifyPerformTucPki18ChecksAsyncValid() {
+    ocspResponderMock.configureForOcspRequest(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    assertThat(tucPki018Verifier.performTucPki018ChecksAsync(VALID_X509_EE_CERT_SMCB))
+        .succeedsWithin(Duration.ofSeconds(ocspTimeoutSeconds))
+        .isNotNull();
+  }
+
+  @Test
+  void verifyPerformTucPki18ChecksAsyncOcspError() {
+    ocspResponderMock.configureWireMockReceiveHttpPost(
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(
+                OcspRequestGenerator.generateSingleOcspRequest(
+                    VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB),
+                VALID_X509_EE_CERT_SMCB,
+                VALID_ISSUER_CERT_SMCB,
+                new RevokedStatus(new Date(), CRLReason.keyCompromise)),
+        HttpURLConnection.HTTP_OK);
+
+    assertThat(tucPki018Verifier.performTucPki018ChecksAsync(VALID_X509_EE_CERT_SMCB))
+        .failsWithin(Duration.ofSeconds(ocspTimeoutSeconds))
+        .withThrowableOfType(ExecutionException.class)
+        .havingCause()
+        .isInstanceOf(GemPkiException.class);
+  }
+
+  @Test
+  void verifyPerformTucPki18ChecksAsyncWithDecisionCache() {
+    ocspResponderMock.configureForOcspRequest(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final TucPki018DecisionCache decisionCache = new TucPki018DecisionCache(3600);
+    final List<TspService> tspServiceList = TestUtils.getDefaultTspServiceList();
+    overwriteSspUrls(tspServiceList, ocspResponderMock.getSspUrl());
+    final TucPki018Verifier verifier =
+        TucPki018Verifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .certificateProfiles(certificateProfiles)
+            .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_30_SECONDS * 1000)
+            .ocspTimeoutSeconds(ocspTimeoutSeconds)
+            .decisionCache(decisionCache)
+            .build();
+
+    final ZonedDateTime now = GemLibPkiUtils.now();
+    final Admission admission =
+        verifier
+            .performTucPki018ChecksAsync(VALID_X509_EE_CERT_SMCB, now)
+            .completeOnTimeout(null, ocspTimeoutSeconds, TimeUnit.SECONDS)
+            .join();
+    assertThat(admission).isNotNull();
+    assertThat(decisionCache.getSize()).isEqualTo(1);
+
+    final CompletableFuture<Admission> cachedFuture =
+        verifier.performTucPki018ChecksAsync(VALID_X509_EE_CERT_SMCB, now);
+    assertThat(cachedFuture).isCompletedWithValue(admission);
+  }
+
+  @Test
+  void verifyPerformTucPki18ChecksAsyncInvalidCertFailsAtOnce() {
+    final TucPki018Verifier verifier =
+        buildTucPki18Verifier(List.of(CERT_PROFILE_C_HCI_AUT_ECC, CERT_PROFILE_C_HP_AUT_ECC));
+    final CompletableFuture<Admission> future =
+        verifier.performTucPki018ChecksAsync(INVALID_CERT_TYPE, GemLibPkiUtils.now());
+
+    assertThat(future).isCompletedExceptionally();
+  }
+
   @Test
   void nonNullTests() throws GemPkiException {
 
@@ -435,6 +765,15 @@ class TucPki018VerifierTest {
     assertNonNullParameter(
         () -> tucPki018Verifier.performTucPki018Checks(VALID_X509_EE_CERT_SMCB, null),
         "referenceDate");
+    assertNonNullParameter(
+        () -> tucPki018Verifier.performTucPki018BatchChecks(null, GemLibPkiUtils.now()),
+        "x509EeCerts");
+    assertNonNullParameter(() -> tucPki018Verifier.performTucPki018ChecksAsync(null), "x509EeCert");
+    assertNonNullParameter(
+        () -> tucPki018Verifier.performTucPki018ChecksAsync(VALID_X509_EE_CERT_SMCB, null),
+        "referenceDate");
+    assertNonNullParameter(
+        () -> tucPki018Verifier.performTucPki018BatchChecks(List.of(), null), "referenceDate");
 
     assertNonNullParameter(() -> buildTucPki18Verifier(null), "certificateProfiles");
 
@@ -0,0 +1,120 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NearCacheOcspResponseStoreTest {
+
+  private static final OcspCertId CERT_ID_SMCB =
+      OcspCertId.of(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+  private OcspRespCache localStore;
+  // local stand-in for a store shared by several nodes
+  private OcspRespCache remoteStore;
+  private NearCacheOcspResponseStore nearCache;
+
+  @BeforeEach
+  void setup() {
+    localStore = new OcspRespCache(30);
+    remoteStore = new OcspRespCache(30);
+    nearCache = new NearCacheOcspResponseStore(localStore, remoteStore);
+  }
+
+  private static VerifiedOcspResp getVerifiedOcspResp() {
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final OCSPResp ocspResp =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    return VerifiedOcspResp.of(ocspResp, true, new byte[32]);
+  }
+
+  @Test
+  void saveWritesToBothStores() {
+    nearCache.saveResponse(CERT_ID_SMCB, getVerifiedOcspResp());
+
+    assertThat(localStore.getVerifiedResponse(CERT_ID_SMCB)).isPresent();
+    assertThat(remoteStore.getVerifiedResponse(CERT_ID_SMCB)).isPresent();
+    assertThat(nearCache.getStats().getSaveCount()).isEqualTo(1);
+  }
+
+  @Test
+  void getFromRemoteStoreFillsLocalStore() {
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp();
+    remoteStore.saveResponse(CERT_ID_SMCB, verifiedOcspResp);
+
+    assertThat(nearCache.getVerifiedResponse(CERT_ID_SMCB)).contains(verifiedOcspResp);
+    assertThat(localStore.getVerifiedResponse(CERT_ID_SMCB)).contains(verifiedOcspResp);
+
+    final OcspResponseStoreStats stats = nearCache.getStats();
+    assertThat(stats.getHitCount()).isEqualTo(1);
+    assertThat(stats.getMissCount()).isZero();
+    assertThat(stats.getSize()).isEqualTo(1);
+  }
+
+  @Test
+  void getMissInBothStores() {
+    assertThat(nearCache.getVerifiedResponse(CERT_ID_SMCB)).isEmpty();
+    assertThat(nearCache.getStats().getMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  void remoteStoreFailureIsTreatedAsMiss() {
+    final OcspResponseStore failingRemoteStore = mock(OcspResponseStore.class);
+    when(failingRemoteStore.getVerifiedResponse(any()))
+        .thenThrow(new IllegalStateException("remote store not available"));
+
+    final NearCacheOcspResponseStore store =
+        new NearCacheOcspResponseStore(localStore, failingRemoteStore);
+
+    assertThat(store.getVerifiedResponse(CERT_ID_SMCB)).isEmpty();
+  }
+
+  @Test
+  void staleResponseFromLocalStore() {
+    localStore.setMaxStaleSeconds(60);
+    assertThat(nearCache.getMaxStaleSeconds()).isEqualTo(60);
+    assertThat(nearCache.getStaleResponse(CERT_ID_SMCB)).isEqualTo(Optional.empty());
+  }
+
+  @Test
+  void nonNull() {
+    assertNonNullParameter(() -> new NearCacheOcspResponseStore(null, remoteStore), "localStore");
+    assertNonNullParameter(() -> new NearCacheOcspResponseStore(localStore, null), "remoteStore");
+    assertNonNullParameter(() -> nearCache.getVerifiedResponse(null), "certId");
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class OcspBulkheadTest {
+
+  @Test
+  void rejectsIfQueueIsFull() throws InterruptedException {
+    final OcspBulkhead bulkhead = new OcspBulkhead(1, 2, false, 100, 0, 100);
+
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    assertThat(bulkhead.tryAcquire()).isFalse();
+    assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+    assertThat(bulkhead.getInFlight()).isEqualTo(2);
+
+    bulkhead.release();
+    assertThat(bulkhead.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void rejectsAfterMaxQueueWait() throws InterruptedException {
+    final OcspBulkhead bulkhead = new OcspBulkhead(1, 1, false, 100, 1, 50);
+
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    assertThat(bulkhead.tryAcquire()).isFalse();
+    assertThat(bulkhead.getQueuedCount()).isEqualTo(1);
+    assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+    assertThat(bulkhead.getQueueWaitMillisTotal()).isGreaterThanOrEqualTo(40);
+  }
+
+  @Test
+  void queuedRequestGetsReleasedPermit() throws Exception {
+    final OcspBulkhead bulkhead = new OcspBulkhead(1, 1, false, 100, 1, 10_000);
+    assertThat(bulkhead.tryAcquire()).isTrue();
+
+    final CompletableFuture<Boolean> queued =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return bulkhead.tryAcquire();
+              } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+              }
+            });
+    while (bulkhead.getQueuedCount() == 0) {
+      Thread.onSpinWait();
+    }
+
+    bulkhead.release(true, 10);
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(bulkhead.getInFlight()).isEqualTo(1);
+  }
+
+  @Test
+  void staticLimitIsNotAdapted() throws InterruptedException {
+    final OcspBulkhead bulkhead = new OcspBulkhead(1, 4, false, 100, 0, 0);
+
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    bulkhead.release(false, 1000);
+    assertThat(bulkhead.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  void adaptiveLimitDecreasesOnSlowOrFailedRequests() throws InterruptedException {
+    final OcspBulkhead bulkhead = new OcspBulkhead(1, 8, true, 100, 0, 0);
+
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    bulkhead.release(true, 500);
+    assertThat(bulkhead.getLimit()).isEqualTo(4);
+
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    bulkhead.release(false, 10);
+    assertThat(bulkhead.getLimit()).isEqualTo(2);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(bulkhead.tryAcquire()).isTrue();
+      bulkhead.release(false, 10);
+    }
+    assertThat(bulkhead.getLimit()).isEqualTo(1);
+  }
+
+  @Test
+  void adaptiveLimitIncreasesOnFastRequests() throws InterruptedException {
+    final OcspBulkhead bulkhead = new OcspBulkhead(1, 2, true, 100, 0, 0);
+
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    bulkhead.release(false, 10);
+    assertThat(bulkhead.getLimit()).isEqualTo(1);
+
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    bulkhead.release(true, 10);
+    assertThat(bulkhead.getLimit()).isEqualTo(2);
+
+    // never above the maximum
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    bulkhead.release(true, 10);
+    assertThat(bulkhead.getLimit()).isEqualTo(2);
+  }
+}
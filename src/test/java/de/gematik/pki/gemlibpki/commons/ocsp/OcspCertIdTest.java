@@ -0,0 +1,95 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB_CA41_RSA;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.security.cert.X509Certificate;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.junit.jupiter.api.Test;
+
+class OcspCertIdTest {
+
+  @Test
+  void sameCertIdFromRequestAndResponse() {
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final OCSPResp ocspResp =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final OcspCertId certId = OcspCertId.of(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final OcspCertId certIdFromReq =
+        OcspCertId.of(OcspUtils.getFirstSingleReq(ocspReq).getCertID());
+    final OcspCertId certIdFromResp =
+        OcspCertId.of(OcspUtils.getFirstSingleResp(ocspResp).getCertID());
+
+    assertThat(certIdFromReq).isEqualTo(certId).hasSameHashCodeAs(certId);
+    assertThat(certIdFromResp).isEqualTo(certId).hasSameHashCodeAs(certId);
+  }
+
+  @Test
+  void sameSerialDifferentIssuer() {
+    final BigInteger serialNumber = VALID_X509_EE_CERT_SMCB.getSerialNumber();
+    assertThat(OcspCertId.of(serialNumber, VALID_ISSUER_CERT_SMCB))
+        .isNotEqualTo(OcspCertId.of(serialNumber, VALID_ISSUER_CERT_SMCB_CA41_RSA));
+  }
+
+  @Test
+  void differentSerialSameIssuer() {
+    assertThat(OcspCertId.of(BigInteger.ONE, VALID_ISSUER_CERT_SMCB))
+        .isNotEqualTo(OcspCertId.of(BigInteger.TWO, VALID_ISSUER_CERT_SMCB));
+  }
+
+  @Test
+  void encodedRoundTrip() {
+    final OcspCertId certId = OcspCertId.of(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final OcspCertId certIdDecoded = OcspCertId.fromEncoded(certId.getEncoded());
+
+    assertThat(certIdDecoded).isEqualTo(certId).hasToString(certId.toString());
+  }
+
+  @Test
+  void nonNull() {
+    final CertificateID certificateId = null;
+    final X509Certificate x509Certificate = null;
+    final BigInteger serialNumber = null;
+    final byte[] hash = new byte[20];
+
+    assertNonNullParameter(() -> OcspCertId.of(certificateId), "certificateId");
+    assertNonNullParameter(
+        () -> OcspCertId.of(serialNumber, VALID_ISSUER_CERT_SMCB), "serialNumber");
+    assertNonNullParameter(
+        () -> OcspCertId.of(VALID_X509_EE_CERT_SMCB, x509Certificate), "x509IssuerCert");
+    assertNonNullParameter(() -> OcspCertId.of(null, hash, BigInteger.ONE), "issuerNameHash");
+    assertNonNullParameter(() -> OcspCertId.fromEncoded(null), "encoded");
+  }
+}
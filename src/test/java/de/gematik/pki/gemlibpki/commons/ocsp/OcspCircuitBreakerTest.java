@@ -0,0 +1,124 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspCircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+class OcspCircuitBreakerTest {
+
+  private static final String SSP = "http://ocsp.example";
+
+  @Test
+  void opensAfterFailureThreshold() {
+    final OcspCircuitBreaker circuitBreaker = new OcspCircuitBreaker(SSP, 3, 1000, 0);
+
+    circuitBreaker.onFailure(0);
+    circuitBreaker.onFailure(0);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    assertThat(circuitBreaker.tryAcquirePermission(0)).isTrue();
+
+    circuitBreaker.onFailure(0);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission(999)).isFalse();
+  }
+
+  @Test
+  void successResetsFailures() {
+    final OcspCircuitBreaker circuitBreaker = new OcspCircuitBreaker(SSP, 2, 1000, 0);
+
+    circuitBreaker.onFailure(0);
+    circuitBreaker.onSuccess(0, 10);
+    circuitBreaker.onFailure(0);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void halfOpenProbeSucceeds() {
+    final OcspCircuitBreaker circuitBreaker = new OcspCircuitBreaker(SSP, 1, 1000, 0);
+    circuitBreaker.onFailure(0);
+
+    assertThat(circuitBreaker.tryAcquirePermission(1000)).isTrue();
+    assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+    // only one probe request at a time
+    assertThat(circuitBreaker.tryAcquirePermission(1000)).isFalse();
+
+    circuitBreaker.onSuccess(1010, 10);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    assertThat(circuitBreaker.tryAcquirePermission(1010)).isTrue();
+  }
+
+  @Test
+  void halfOpenProbeFails() {
+    final OcspCircuitBreaker circuitBreaker = new OcspCircuitBreaker(SSP, 1, 1000, 0);
+    circuitBreaker.onFailure(0);
+
+    assertThat(circuitBreaker.tryAcquirePermission(1000)).isTrue();
+    circuitBreaker.onFailure(1500);
+
+    assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission(2000)).isFalse();
+    assertThat(circuitBreaker.tryAcquirePermission(2500)).isTrue();
+  }
+
+  @Test
+  void halfOpenIgnoresRequestsStartedBeforeOpening() {
+    final OcspCircuitBreaker circuitBreaker = new OcspCircuitBreaker(SSP, 1, 1000, 0);
+    assertThat(circuitBreaker.tryAcquirePermission(0)).isTrue();
+    circuitBreaker.onFailure(10);
+    assertThat(circuitBreaker.tryAcquirePermission(1010)).isTrue();
+    assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+
+    // the request started at 0 is not the probe
+    circuitBreaker.onFailure(1020, 1020);
+    circuitBreaker.onSuccess(1020, 1020);
+    circuitBreaker.releasePermission(1020, 1020);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission(1020)).isFalse();
+
+    circuitBreaker.onSuccess(1030, 20);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void halfOpenProbeReleased() {
+    final OcspCircuitBreaker circuitBreaker = new OcspCircuitBreaker(SSP, 1, 1000, 0);
+    circuitBreaker.onFailure(0);
+    assertThat(circuitBreaker.tryAcquirePermission(1000)).isTrue();
+
+    circuitBreaker.releasePermission(1010, 10);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission(1010)).isTrue();
+  }
+
+  @Test
+  void slowCallCountsAsFailure() {
+    final OcspCircuitBreaker circuitBreaker = new OcspCircuitBreaker(SSP, 1, 1000, 100);
+
+    circuitBreaker.onSuccess(0, 100);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+
+    circuitBreaker.onSuccess(0, 101);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+  }
+}
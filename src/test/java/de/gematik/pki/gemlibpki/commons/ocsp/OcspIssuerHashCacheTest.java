@@ -0,0 +1,83 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.cert.CertificateEncodingException;
+import org.bouncycastle.asn1.nist.NISTObjectIdentifiers;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class OcspIssuerHashCacheTest {
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void hashesAsComputedByBouncyCastle(final boolean sha256)
+      throws CertificateEncodingException, OperatorCreationException, OCSPException {
+
+    final AlgorithmIdentifier algorithmIdentifier =
+        sha256
+            ? new AlgorithmIdentifier(NISTObjectIdentifiers.id_sha256)
+            : CertificateID.HASH_SHA1;
+
+    final CertificateID expectedCertificateId =
+        new CertificateID(
+            new JcaDigestCalculatorProviderBuilder().build().get(algorithmIdentifier),
+            new JcaX509CertificateHolder(VALID_ISSUER_CERT_SMCB),
+            VALID_X509_EE_CERT_SMCB.getSerialNumber());
+
+    final OcspIssuerHashCache.IssuerHashes issuerHashes =
+        OcspIssuerHashCache.get(VALID_ISSUER_CERT_SMCB, algorithmIdentifier);
+    assertThat(issuerHashes.getIssuerNameHash())
+        .isEqualTo(expectedCertificateId.getIssuerNameHash());
+    assertThat(issuerHashes.getIssuerKeyHash()).isEqualTo(expectedCertificateId.getIssuerKeyHash());
+
+    assertThat(
+            OcspRequestGenerator.createCertificateId(
+                VALID_X509_EE_CERT_SMCB.getSerialNumber(),
+                VALID_ISSUER_CERT_SMCB,
+                algorithmIdentifier))
+        .isEqualTo(expectedCertificateId);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void hashesComputedOncePerIssuerAndAlgorithm(final boolean sha256)
+      throws CertificateEncodingException, OperatorCreationException, OCSPException {
+
+    final AlgorithmIdentifier algorithmIdentifier =
+        sha256
+            ? new AlgorithmIdentifier(NISTObjectIdentifiers.id_sha256)
+            : CertificateID.HASH_SHA1;
+
+    assertThat(OcspIssuerHashCache.get(VALID_ISSUER_CERT_SMCB, algorithmIdentifier))
+        .isSameAs(OcspIssuerHashCache.get(VALID_ISSUER_CERT_SMCB, algorithmIdentifier));
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class OcspLatencyHistogramTest {
+
+  @Test
+  void percentile() {
+    final OcspLatencyHistogram histogram = new OcspLatencyHistogram(100);
+    for (int latency = 1; latency <= 100; latency++) {
+      histogram.record(latency);
+    }
+
+    assertThat(histogram.getCount()).isEqualTo(100);
+    assertThat(histogram.getPercentileMillis(0.5, 1)).hasValue(50);
+    assertThat(histogram.getPercentileMillis(0.99, 1)).hasValue(99);
+    assertThat(histogram.getPercentileMillis(1.0, 1)).hasValue(100);
+  }
+
+  @Test
+  void slidingWindow() {
+    final OcspLatencyHistogram histogram = new OcspLatencyHistogram(2);
+    histogram.record(1000);
+    histogram.record(10);
+    histogram.record(20);
+
+    assertThat(histogram.getCount()).isEqualTo(2);
+    assertThat(histogram.getPercentileMillis(1.0, 1)).hasValue(20);
+  }
+
+  @Test
+  void notEnoughSamples() {
+    final OcspLatencyHistogram histogram = new OcspLatencyHistogram(10);
+    assertThat(histogram.getPercentileMillis(0.99, 1)).isEmpty();
+
+    histogram.record(10);
+    assertThat(histogram.getPercentileMillis(0.99, 2)).isEmpty();
+  }
+}
@@ -20,6 +20,8 @@
 
 package de.gematik.pki.gemlibpki.commons.ocsp;
 
+import static de.gematik.pki.gemlibpki.commons.TestConstants.FILE_NAME_TSL_RSA_DEFAULT;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.PRODUCT_TYPE;
 import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
 import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB_CA41_RSA;
 import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
@@ -27,13 +29,21 @@ import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_
 import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
+import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.ocsp.VerifiedOcspResp.CertStatus;
+import de.gematik.pki.gemlibpki.commons.tsl.TslInformationProvider;
+import de.gematik.pki.gemlibpki.commons.tsl.TspService;
 import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
-import java.math.BigInteger;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.security.cert.X509Certificate;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bouncycastle.asn1.x509.CRLReason;
 import org.bouncycastle.cert.ocsp.CertificateStatus;
 import org.bouncycastle.cert.ocsp.OCSPReq;
@@ -42,10 +52,15 @@ import org.bouncycastle.cert.ocsp.RevokedStatus;
 import org.bouncycastle.cert.ocsp.UnknownStatus;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class OcspRespCacheTest {
 
   static OCSPReq ocspReq;
+  static final OcspCertId CERT_ID_SMCB =
+      OcspCertId.of(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+  static final OcspCertId CERT_ID_SMCB_CA41_RSA =
+      OcspCertId.of(VALID_X509_EE_CERT_SMCB_CA41_RSA, VALID_ISSUER_CERT_SMCB_CA41_RSA);
 
   @BeforeAll
   static void setup() {
@@ -85,7 +100,7 @@ class OcspRespCacheTest {
     final OcspRespCache ocspRespCache = new OcspRespCache(30);
     assertThat(ocspRespCache.getSize()).isZero();
     final OCSPResp ocspResp = getOcspResp();
-    ocspRespCache.saveResponse(VALID_X509_EE_CERT_SMCB.getSerialNumber(), ocspResp);
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(ocspResp));
     assertThat(ocspRespCache.getSize()).isEqualTo(1);
   }
 
@@ -93,10 +108,285 @@ class OcspRespCacheTest {
   void saveAndGetResponse() {
     final OcspRespCache ocspRespCache = new OcspRespCache(30);
 
-    assertThat(ocspRespCache.getResponse(VALID_X509_EE_CERT_SMCB.getSerialNumber())).isEmpty();
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).isEmpty();
     final OCSPResp ocspResp = getOcspResp();
-    ocspRespCache.saveResponse(VALID_X509_EE_CERT_SMCB.getSerialNumber(), ocspResp);
-    assertThat(ocspRespCache.getResponse(VALID_X509_EE_CERT_SMCB.getSerialNumber())).isPresent();
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(ocspResp));
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspResp);
+    assertThat(ocspRespCache.getVerifiedResponse(CERT_ID_SMCB))
+        .hasValueSatisfying(
+            verifiedOcspResp ->
+                assertThat(verifiedOcspResp.getCertStatus()).isEqualTo(CertStatus.GOOD));
+  }
+
+  @Test
+  void getStats() {
+    final OcspRespCache ocspRespCache = new OcspRespCache(30);
+
+    assertThat(ocspRespCache.getVerifiedResponse(CERT_ID_SMCB)).isEmpty();
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(getOcspResp()));
+    assertThat(ocspRespCache.getVerifiedResponse(CERT_ID_SMCB)).isPresent();
+
+    final OcspResponseStoreStats stats = ocspRespCache.getStats();
+    assertThat(stats.getHitCount()).isEqualTo(1);
+    assertThat(stats.getMissCount()).isEqualTo(1);
+    assertThat(stats.getStaleHitCount()).isZero();
+    assertThat(stats.getSaveCount()).isEqualTo(1);
+    assertThat(stats.getSize()).isEqualTo(1);
+  }
+
+  @Test
+  void saveAndGetResponseSameSerialOtherIssuer() {
+    final OcspRespCache ocspRespCache = new OcspRespCache(30);
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(getOcspResp()));
+
+    final OcspCertId certIdOtherIssuer =
+        OcspCertId.of(VALID_X509_EE_CERT_SMCB.getSerialNumber(), VALID_ISSUER_CERT_SMCB_CA41_RSA);
+
+    assertThat(ocspRespCache.getResponse(certIdOtherIssuer)).isEmpty();
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).isPresent();
+  }
+
+  private static OCSPResp getOcspResp(final ZonedDateTime producedAt) {
+    return OcspResponseGenerator.builder()
+        .signer(OcspTestConstants.getOcspSignerEcc())
+        .producedAt(producedAt)
+        .build()
+        .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+  }
+
+  private static OcspRespCache createRefreshAheadCache(final int minAccessCount) {
+    final OcspRespCache ocspRespCache = new OcspRespCache(30);
+    ocspRespCache.setRefreshAheadSeconds(10);
+    ocspRespCache.setRefreshAheadMinAccessCount(minAccessCount);
+    ocspRespCache.setRefreshExecutor(Runnable::run);
+    return ocspRespCache;
+  }
+
+  @Test
+  void refreshAheadOfExpiryForHotEntry() {
+    final OcspRespCache ocspRespCache = createRefreshAheadCache(2);
+
+    final OCSPResp ocspRespOld = getOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(25));
+    final OCSPResp ocspRespNew = getOcspResp(ZonedDateTime.now(ZoneOffset.UTC));
+    final AtomicInteger refreshCount = new AtomicInteger();
+
+    ocspRespCache.saveResponse(
+        CERT_ID_SMCB,
+        verified(ocspRespOld),
+        () -> {
+          refreshCount.incrementAndGet();
+          return Optional.of(verified(ocspRespNew));
+        });
+
+    // first access: entry is within the refresh window, but not hot yet
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspRespOld);
+    assertThat(refreshCount.get()).isZero();
+
+    // second access: entry is hot, the old response is returned and the entry is refreshed
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspRespOld);
+    assertThat(refreshCount.get()).isEqualTo(1);
+
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspRespNew);
+    assertThat(refreshCount.get()).isEqualTo(1);
+  }
+
+  @Test
+  void refreshAheadNotBeforeRefreshWindow() {
+    final OcspRespCache ocspRespCache = createRefreshAheadCache(1);
+    final AtomicInteger refreshCount = new AtomicInteger();
+
+    final OCSPResp ocspResp = getOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(5));
+    ocspRespCache.saveResponse(
+        CERT_ID_SMCB,
+        verified(ocspResp),
+        () -> {
+          refreshCount.incrementAndGet();
+          return Optional.empty();
+        });
+
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspResp);
+    assertThat(refreshCount.get()).isZero();
+  }
+
+  @Test
+  void refreshAheadFailureKeepsEntry() {
+    final OcspRespCache ocspRespCache = createRefreshAheadCache(1);
+    final AtomicInteger refreshCount = new AtomicInteger();
+
+    final OCSPResp ocspResp = getOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(25));
+    ocspRespCache.saveResponse(
+        CERT_ID_SMCB,
+        verified(ocspResp),
+        () -> {
+          refreshCount.incrementAndGet();
+          throw new GemPkiException(PRODUCT_TYPE, ErrorCode.TE_1032_OCSP_NOT_AVAILABLE);
+        });
+
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspResp);
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspResp);
+    assertThat(refreshCount.get()).isEqualTo(1);
+  }
+
+  @Test
+  void refreshAheadFailureRetriedOncePerBackoff() {
+    final OcspRespCache ocspRespCache = createRefreshAheadCache(1);
+    ocspRespCache.setRefreshBackoffSeconds(1);
+    final AtomicInteger refreshCount = new AtomicInteger();
+
+    final OCSPResp ocspResp = getOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(25));
+    ocspRespCache.saveResponse(
+        CERT_ID_SMCB,
+        verified(ocspResp),
+        () -> {
+          refreshCount.incrementAndGet();
+          return Optional.empty();
+        });
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspResp);
+      ocspRespCache.revalidate(CERT_ID_SMCB);
+    }
+    assertThat(refreshCount.get()).isEqualTo(1);
+
+    TestUtils.waitSeconds(1);
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspResp);
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspResp);
+    assertThat(refreshCount.get()).isEqualTo(2);
+  }
+
+  @Test
+  void getStaleResponseWithinMaxStaleness() {
+    final OcspRespCache ocspRespCache = new OcspRespCache(30);
+    ocspRespCache.setMaxStaleSeconds(60);
+
+    final OCSPResp ocspResp = getOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(40));
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(ocspResp), Optional::empty);
+
+    assertThat(ocspRespCache.getVerifiedResponse(CERT_ID_SMCB)).isEmpty();
+    assertThat(ocspRespCache.getStaleResponse(CERT_ID_SMCB))
+        .hasValueSatisfying(
+            verifiedOcspResp -> assertThat(verifiedOcspResp.getOcspResp()).isEqualTo(ocspResp));
+    assertThat(ocspRespCache.getSize()).isEqualTo(1);
+  }
+
+  @Test
+  void getStaleResponseNotForFreshResponse() {
+    final OcspRespCache ocspRespCache = new OcspRespCache(30);
+    ocspRespCache.setMaxStaleSeconds(60);
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(getOcspResp()));
+
+    assertThat(ocspRespCache.getStaleResponse(CERT_ID_SMCB)).isEmpty();
+    assertThat(ocspRespCache.getVerifiedResponse(CERT_ID_SMCB)).isPresent();
+  }
+
+  @Test
+  void getStaleResponseNotAfterNextUpdate() {
+    final OcspRespCache ocspRespCache = new OcspRespCache(30);
+    ocspRespCache.setMaxStaleSeconds(60);
+
+    final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+    final OCSPResp ocspResp =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .thisUpdate(now.minusSeconds(40))
+            .producedAt(now.minusSeconds(40))
+            .nextUpdate(now.minusSeconds(5))
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(ocspResp), Optional::empty);
+
+    assertThat(ocspRespCache.getStaleResponse(CERT_ID_SMCB)).isEmpty();
+  }
+
+  @Test
+  void getStaleResponseNotWithoutRefresher() {
+    final OcspRespCache ocspRespCache = new OcspRespCache(30);
+    ocspRespCache.setMaxStaleSeconds(60);
+
+    final OCSPResp ocspResp = getOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(40));
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(ocspResp));
+
+    assertThat(ocspRespCache.getStaleResponse(CERT_ID_SMCB)).isEmpty();
+    assertThat(ocspRespCache.getSize()).isEqualTo(1);
+  }
+
+  @Test
+  void getStaleResponseWithoutMaxStaleness() {
+    final OcspRespCache ocspRespCache = new OcspRespCache(30);
+
+    final OCSPResp ocspResp = getOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(40));
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(ocspResp));
+
+    assertThat(ocspRespCache.getStaleResponse(CERT_ID_SMCB)).isEmpty();
+    assertThat(ocspRespCache.getSize()).isZero();
+  }
+
+  @Test
+  void revalidateReplacesEntry() {
+    final OcspRespCache ocspRespCache = new OcspRespCache(30);
+    ocspRespCache.setMaxStaleSeconds(60);
+    ocspRespCache.setRefreshExecutor(Runnable::run);
+
+    final OCSPResp ocspRespOld = getOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(40));
+    final OCSPResp ocspRespNew = getOcspResp();
+    ocspRespCache.saveResponse(
+        CERT_ID_SMCB, verified(ocspRespOld), () -> Optional.of(verified(ocspRespNew)));
+
+    ocspRespCache.revalidate(CERT_ID_SMCB);
+
+    assertThat(ocspRespCache.getStaleResponse(CERT_ID_SMCB)).isEmpty();
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).contains(ocspRespNew);
+  }
+
+  @Test
+  void attachFileStoreLoadsEntriesAfterRestart(@TempDir final Path tempDir) throws IOException {
+    final Path path = tempDir.resolve("ocsp.store");
+    final OCSPResp ocspResp = getOcspResp();
+    final OCSPResp ocspRespExpired =
+        getOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(60));
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      final OcspRespCache ocspRespCache = new OcspRespCache(30);
+      ocspRespCache.attachFileStore(fileStore, PRODUCT_TYPE, TestUtils.getDefaultTspServiceList());
+      ocspRespCache.saveResponse(CERT_ID_SMCB, verified(ocspResp));
+      ocspRespCache.saveResponse(CERT_ID_SMCB_CA41_RSA, verified(ocspRespExpired));
+    }
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      final OcspRespCache ocspRespCache = new OcspRespCache(30);
+      ocspRespCache.attachFileStore(fileStore, PRODUCT_TYPE, TestUtils.getDefaultTspServiceList());
+
+      assertThat(ocspRespCache.getSize()).isEqualTo(1);
+      assertThat(ocspRespCache.getResponse(CERT_ID_SMCB))
+          .hasValueSatisfying(
+              loaded -> assertThat(loaded.getEncoded()).isEqualTo(ocspResp.getEncoded()));
+
+      ocspRespCache.compactFileStore();
+      assertThat(fileStore.getRecordCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void attachFileStoreSkipsResponsesOfSignersNotInTsl(@TempDir final Path tempDir)
+      throws IOException {
+    final Path path = tempDir.resolve("ocsp.store");
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      fileStore.append(CERT_ID_SMCB, verified(getOcspResp()));
+    }
+
+    final List<TspService> tspServiceListRsa =
+        new TslInformationProvider(TestUtils.getTslUnsigned(FILE_NAME_TSL_RSA_DEFAULT))
+            .getTspServices();
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      final OcspRespCache ocspRespCache = new OcspRespCache(30);
+      ocspRespCache.attachFileStore(fileStore, PRODUCT_TYPE, tspServiceListRsa);
+
+      assertThat(ocspRespCache.getSize()).isZero();
+    }
+  }
+
+  private static VerifiedOcspResp verified(final OCSPResp ocspResp) {
+    return VerifiedOcspResp.of(ocspResp, true, new byte[32]);
   }
 
   private static OCSPResp getOcspResp() {
@@ -111,7 +401,7 @@ class OcspRespCacheTest {
     final int gracePeriodSeconds = 2;
     final OcspRespCache ocspRespCache = new OcspRespCache(gracePeriodSeconds);
 
-    assertThat(ocspRespCache.getResponse(VALID_X509_EE_CERT_SMCB.getSerialNumber())).isEmpty();
+    assertThat(ocspRespCache.getResponse(CERT_ID_SMCB)).isEmpty();
 
     final OCSPReq ocspReq1 = ocspReq;
 
@@ -129,19 +419,19 @@ class OcspRespCacheTest {
             VALID_ISSUER_CERT_SMCB_CA41_RSA,
             certificateStatus);
 
-    ocspRespCache.saveResponse(VALID_X509_EE_CERT_SMCB.getSerialNumber(), ocspResp1);
-    ocspRespCache.saveResponse(VALID_X509_EE_CERT_SMCB_CA41_RSA.getSerialNumber(), ocspResp2);
+    ocspRespCache.saveResponse(CERT_ID_SMCB, verified(ocspResp1));
+    ocspRespCache.saveResponse(CERT_ID_SMCB_CA41_RSA, verified(ocspResp2));
 
     assertThat(ocspRespCache.getSize()).isEqualTo(2);
 
     Optional<OCSPResp> ocspRespX =
-        ocspRespCache.getResponse(VALID_X509_EE_CERT_SMCB_CA41_RSA.getSerialNumber());
+        ocspRespCache.getResponse(CERT_ID_SMCB_CA41_RSA);
     assertThat(ocspRespX).isPresent();
     assertThat(ocspRespCache.getSize()).isEqualTo(2);
 
     TestUtils.waitSeconds(gracePeriodSeconds + 1);
 
-    ocspRespX = ocspRespCache.getResponse(VALID_X509_EE_CERT_SMCB_CA41_RSA.getSerialNumber());
+    ocspRespX = ocspRespCache.getResponse(CERT_ID_SMCB_CA41_RSA);
     assertThat(ocspRespX).isEmpty();
     assertThat(ocspRespCache.getSize()).isZero();
   }
@@ -170,11 +460,19 @@ class OcspRespCacheTest {
   @Test
   void nonNull() {
     final OcspRespCache ocspRespCache = new OcspRespCache(30);
-    assertNonNullParameter(() -> ocspRespCache.getResponse(null), "certSerialNr");
+    assertNonNullParameter(() -> ocspRespCache.getResponse(null), "certId");
 
-    final OCSPResp ocspResp = getOcspResp();
-    assertNonNullParameter(() -> ocspRespCache.saveResponse(null, ocspResp), "certSerialNr");
-    final BigInteger certSerialNr = BigInteger.valueOf(1);
-    assertNonNullParameter(() -> ocspRespCache.saveResponse(certSerialNr, null), "ocspResp");
+    final VerifiedOcspResp verifiedOcspResp = verified(getOcspResp());
+    assertNonNullParameter(() -> ocspRespCache.saveResponse(null, verifiedOcspResp), "certId");
+    assertNonNullParameter(
+        () -> ocspRespCache.saveResponse(CERT_ID_SMCB, null), "verifiedOcspResp");
+    assertNonNullParameter(() -> ocspRespCache.getVerifiedResponse(null), "certId");
+    assertNonNullParameter(() -> ocspRespCache.getStaleResponse(null), "certId");
+    assertNonNullParameter(() -> ocspRespCache.revalidate(null), "certId");
+    final List<TspService> tspServiceList = TestUtils.getDefaultTspServiceList();
+    assertNonNullParameter(
+        () -> ocspRespCache.attachFileStore(null, PRODUCT_TYPE, tspServiceList), "fileStore");
+    assertNonNullParameter(
+        () -> ocspRespCache.saveResponse(CERT_ID_SMCB, verifiedOcspResp, null), "refresher");
   }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.PRODUCT_TYPE;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB_CA41_RSA;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB_CA41_RSA;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspRespFileStore.ResponseVerifier;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.cert.X509Certificate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OcspRespFileStoreTest {
+
+  private static final OcspCertId CERT_ID_SMCB =
+      OcspCertId.of(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+  private static final OcspCertId CERT_ID_SMCB_CA41_RSA =
+      OcspCertId.of(VALID_X509_EE_CERT_SMCB_CA41_RSA, VALID_ISSUER_CERT_SMCB_CA41_RSA);
+
+  private static final ResponseVerifier VERIFIER = ocspResp -> new byte[] {4, 5, 6};
+
+  @TempDir Path tempDir;
+
+  private static VerifiedOcspResp getVerifiedOcspResp(
+      final X509Certificate eeCert,
+      final X509Certificate issuerCert,
+      final ZonedDateTime producedAt) {
+    final OCSPReq ocspReq = OcspRequestGenerator.generateSingleOcspRequest(eeCert, issuerCert);
+    final OCSPResp ocspResp =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .producedAt(producedAt)
+            .build()
+            .generate(ocspReq, eeCert, issuerCert);
+    return VerifiedOcspResp.of(ocspResp, true, new byte[] {1, 2, 3});
+  }
+
+  private static VerifiedOcspResp getVerifiedOcspResp(final ZonedDateTime producedAt) {
+    return getVerifiedOcspResp(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB, producedAt);
+  }
+
+  private static VerifiedOcspResp getVerifiedOcspResp() {
+    return getVerifiedOcspResp(ZonedDateTime.now(ZoneOffset.UTC));
+  }
+
+  private static VerifiedOcspResp getVerifiedOcspRespCa41Rsa() {
+    return getVerifiedOcspResp(
+        VALID_X509_EE_CERT_SMCB_CA41_RSA,
+        VALID_ISSUER_CERT_SMCB_CA41_RSA,
+        ZonedDateTime.now(ZoneOffset.UTC));
+  }
+
+  @Test
+  void appendAndLoadAfterReopen() throws IOException {
+    final Path path = tempDir.resolve("ocsp.store");
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp();
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      fileStore.append(CERT_ID_SMCB, verifiedOcspResp);
+      fileStore.append(CERT_ID_SMCB_CA41_RSA, getVerifiedOcspRespCa41Rsa());
+    }
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      final Map<OcspCertId, VerifiedOcspResp> entries = fileStore.load(VERIFIER, v -> true);
+
+      assertThat(entries).containsOnlyKeys(CERT_ID_SMCB, CERT_ID_SMCB_CA41_RSA);
+      final VerifiedOcspResp loaded = entries.get(CERT_ID_SMCB);
+      assertThat(loaded.getOcspResp().getEncoded())
+          .isEqualTo(verifiedOcspResp.getOcspResp().getEncoded());
+      // stored facts are not trusted, the responder cert id is the one of the verification
+      assertThat(loaded.isCertHashMatched()).isFalse();
+      assertThat(loaded.getResponderCertId()).containsExactly(4, 5, 6);
+      assertThat(loaded.getProducedAtMillis()).isEqualTo(verifiedOcspResp.getProducedAtMillis());
+      assertThat(fileStore.getRecordCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void laterRecordReplacesEarlierOne() throws IOException {
+    final VerifiedOcspResp verifiedOcspRespOld =
+        getVerifiedOcspResp(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(30));
+    final VerifiedOcspResp verifiedOcspRespNew = getVerifiedOcspResp();
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(tempDir.resolve("a.store"))) {
+      fileStore.append(CERT_ID_SMCB, verifiedOcspRespOld);
+      fileStore.append(CERT_ID_SMCB, verifiedOcspRespNew);
+
+      final Map<OcspCertId, VerifiedOcspResp> entries = fileStore.load(VERIFIER, v -> true);
+      assertThat(entries).hasSize(1);
+      assertThat(entries.get(CERT_ID_SMCB).getProducedAtMillis())
+          .isEqualTo(verifiedOcspRespNew.getProducedAtMillis());
+      assertThat(fileStore.getRecordCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void loadDropsEntriesNotKept() throws IOException {
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(tempDir.resolve("b.store"))) {
+      fileStore.append(CERT_ID_SMCB, getVerifiedOcspResp());
+
+      assertThat(fileStore.load(VERIFIER, v -> false)).isEmpty();
+    }
+  }
+
+  @Test
+  void loadSkipsRecordsFailingVerification() throws IOException {
+    final Path path = tempDir.resolve("f.store");
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      fileStore.append(CERT_ID_SMCB, getVerifiedOcspResp());
+      fileStore.append(CERT_ID_SMCB_CA41_RSA, getVerifiedOcspRespCa41Rsa());
+    }
+
+    final ResponseVerifier verifier =
+        ocspResp -> {
+          if (CERT_ID_SMCB.equals(
+              OcspCertId.of(OcspUtils.getFirstSingleResp(ocspResp).getCertID()))) {
+            throw new GemPkiException(PRODUCT_TYPE, ErrorCode.SE_1030_OCSP_CERT_MISSING);
+          }
+          return new byte[] {4, 5, 6};
+        };
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      assertThat(fileStore.load(verifier, v -> true)).containsOnlyKeys(CERT_ID_SMCB_CA41_RSA);
+      assertThat(fileStore.getRecordCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void loadSkipsRecordsOfForeignCertId() throws IOException {
+    final Path path = tempDir.resolve("g.store");
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      fileStore.append(CERT_ID_SMCB, getVerifiedOcspResp());
+      // response of CERT_ID_SMCB stored under another cert id
+      fileStore.append(CERT_ID_SMCB_CA41_RSA, getVerifiedOcspResp());
+    }
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      assertThat(fileStore.load(VERIFIER, v -> true)).containsOnlyKeys(CERT_ID_SMCB);
+    }
+  }
+
+  @Test
+  void loadTruncatesIncompleteRecord() throws IOException {
+    final Path path = tempDir.resolve("c.store");
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      fileStore.append(CERT_ID_SMCB, getVerifiedOcspResp());
+    }
+    final long sizeComplete = Files.size(path);
+    Files.write(path, new byte[] {0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      assertThat(fileStore.load(VERIFIER, v -> true)).containsOnlyKeys(CERT_ID_SMCB);
+    }
+    assertThat(Files.size(path)).isEqualTo(sizeComplete);
+  }
+
+  @Test
+  void compact() throws IOException {
+    final Path path = tempDir.resolve("d.store");
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp();
+    final VerifiedOcspResp verifiedOcspRespCa41Rsa = getVerifiedOcspRespCa41Rsa();
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      fileStore.append(CERT_ID_SMCB, verifiedOcspResp);
+      fileStore.append(CERT_ID_SMCB, verifiedOcspResp);
+      fileStore.append(CERT_ID_SMCB_CA41_RSA, verifiedOcspRespCa41Rsa);
+      final long sizeBefore = Files.size(path);
+
+      fileStore.compact(Map.of(CERT_ID_SMCB, verifiedOcspResp));
+
+      assertThat(fileStore.getRecordCount()).isEqualTo(1);
+      assertThat(Files.size(path)).isLessThan(sizeBefore);
+
+      // appending after compaction writes to the new file
+      fileStore.append(CERT_ID_SMCB_CA41_RSA, verifiedOcspRespCa41Rsa);
+    }
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(path)) {
+      assertThat(fileStore.load(VERIFIER, v -> true))
+          .containsOnlyKeys(CERT_ID_SMCB, CERT_ID_SMCB_CA41_RSA);
+    }
+  }
+
+  @Test
+  void openInvalidFile() throws IOException {
+    final Path path = tempDir.resolve("invalid.store");
+    Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+    assertThatThrownBy(() -> new OcspRespFileStore(path))
+        .isInstanceOf(GemPkiRuntimeException.class)
+        .hasMessageStartingWith("Datei ist kein OCSP Response Store");
+  }
+
+  @Test
+  void nonNull() throws IOException {
+    assertNonNullParameter(() -> new OcspRespFileStore(null), "path");
+
+    try (final OcspRespFileStore fileStore = new OcspRespFileStore(tempDir.resolve("e.store"))) {
+      final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp();
+      assertNonNullParameter(() -> fileStore.load(null, v -> true), "verifier");
+      assertNonNullParameter(() -> fileStore.load(VERIFIER, null), "keep");
+      assertNonNullParameter(() -> fileStore.append(null, verifiedOcspResp), "certId");
+      assertNonNullParameter(() -> fileStore.append(CERT_ID_SMCB, null), "verifiedOcspResp");
+      assertNonNullParameter(() -> fileStore.compact(null), "entries");
+    }
+  }
+}
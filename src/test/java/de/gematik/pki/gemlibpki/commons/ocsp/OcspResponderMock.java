@@ -21,8 +21,11 @@
 package de.gematik.pki.gemlibpki.commons.ocsp;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
@@ -146,4 +149,36 @@ public class OcspResponderMock {
                         OcspConstants.MEDIA_TYPE_APPLICATION_OCSP_RESPONSE)
                     .withBody(ocspRespTx.getEncoded())));
   }
+
+  /**
+   * Configures WireMock with OCSP Response generated from provided OCSP request and end-entity
+   * certificate, for OCSP requests sent by HTTP GET only
+   *
+   * @param ocspReq OCSP request
+   * @param eeCert end-entity certificate
+   */
+  public void configureForOcspRequestHttpGet(
+      final OCSPReq ocspReq, final X509Certificate eeCert, final X509Certificate issuerCert) {
+    final OCSPResp ocspRespToSent =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(ocspReq, eeCert, issuerCert);
+    configureWireMockReceiveHttpGet(ocspRespToSent);
+  }
+
+  @SneakyThrows
+  public void configureWireMockReceiveHttpGet(final OCSPResp ocspRespTx) {
+    wireMockServer.stubFor(
+        get(urlPathMatching(sspDir + "/.+"))
+            .withHeader(HttpHeaders.CACHE_CONTROL, matching("max-age=\\d+"))
+            .willReturn(
+                aResponse()
+                    .withStatus(HttpURLConnection.HTTP_OK)
+                    .withHeader(
+                        HttpHeaders.CONTENT_TYPE,
+                        OcspConstants.MEDIA_TYPE_APPLICATION_OCSP_RESPONSE)
+                    .withHeader(HttpHeaders.CACHE_CONTROL, "max-age=60")
+                    .withBody(ocspRespTx.getEncoded())));
+  }
 }
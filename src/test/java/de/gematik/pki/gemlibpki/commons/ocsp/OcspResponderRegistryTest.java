@@ -0,0 +1,112 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class OcspResponderRegistryTest {
+
+  private static final OcspCertId CERT_ID_SMCB =
+      OcspCertId.of(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+  @Test
+  void getResponderIsSharedPerSsp() {
+    final OcspResponderRegistry registry = OcspResponderRegistry.builder().build();
+
+    final OcspResponder ocspResponder = registry.getResponder("http://ocsp1.example");
+    assertThat(registry.getResponder("http://ocsp1.example")).isSameAs(ocspResponder);
+    assertThat(registry.getResponder("http://ocsp2.example")).isNotSameAs(ocspResponder);
+    assertThat(registry.getResponders()).hasSize(2);
+  }
+
+  @Test
+  void negativeCacheExpires() {
+    final OcspResponderRegistry registry =
+        OcspResponderRegistry.builder().negativeCacheTtlMillis(1000).build();
+
+    assertThat(registry.isNegativeCached(CERT_ID_SMCB, 0)).isFalse();
+    registry.addNegativeResult(CERT_ID_SMCB, 0);
+    assertThat(registry.isNegativeCached(CERT_ID_SMCB, 999)).isTrue();
+    assertThat(registry.isNegativeCached(CERT_ID_SMCB, 1000)).isFalse();
+  }
+
+  @Test
+  void negativeCacheDisabled() {
+    final OcspResponderRegistry registry =
+        OcspResponderRegistry.builder().negativeCacheTtlMillis(0).build();
+
+    registry.addNegativeResult(CERT_ID_SMCB, 0);
+    assertThat(registry.isNegativeCached(CERT_ID_SMCB, 0)).isFalse();
+  }
+
+  @Test
+  void negativeResultRemoved() {
+    final OcspResponderRegistry registry = OcspResponderRegistry.builder().build();
+
+    registry.addNegativeResult(CERT_ID_SMCB, 0);
+    registry.removeNegativeResult(CERT_ID_SMCB);
+    assertThat(registry.isNegativeCached(CERT_ID_SMCB, 0)).isFalse();
+  }
+
+  @Test
+  void adaptiveTimeoutDisabled() {
+    final OcspResponderRegistry registry =
+        OcspResponderRegistry.builder().minLatencySamples(1).build();
+    final OcspResponder ocspResponder = registry.getResponder("http://ocsp1.example");
+    ocspResponder.onSuccess(0, 20);
+
+    assertThat(registry.getTimeoutMillis(ocspResponder, 10_000)).isEqualTo(10_000);
+  }
+
+  @Test
+  void adaptiveTimeoutFromLatencies() {
+    final OcspResponderRegistry registry =
+        OcspResponderRegistry.builder()
+            .minLatencySamples(10)
+            .adaptiveTimeoutFactor(3)
+            .minAdaptiveTimeoutMillis(100)
+            .build();
+    final OcspResponder fastResponder = registry.getResponder("http://ocsp1.example");
+    final OcspResponder slowResponder = registry.getResponder("http://ocsp2.example");
+
+    // not enough latencies known
+    assertThat(registry.getTimeoutMillis(fastResponder, 10_000)).isEqualTo(10_000);
+
+    for (int i = 0; i < 10; i++) {
+      fastResponder.onSuccess(0, 20);
+      slowResponder.onSuccess(0, 800);
+    }
+    assertThat(registry.getTimeoutMillis(fastResponder, 10_000)).isEqualTo(100);
+    assertThat(registry.getTimeoutMillis(slowResponder, 10_000)).isEqualTo(2_400);
+    assertThat(registry.getTimeoutMillis(slowResponder, 2_000)).isEqualTo(2_000);
+  }
+
+  @Test
+  void nonNull() {
+    final OcspResponderRegistry registry = OcspResponderRegistry.builder().build();
+    assertNonNullParameter(() -> registry.getResponder(null), "ssp");
+  }
+}
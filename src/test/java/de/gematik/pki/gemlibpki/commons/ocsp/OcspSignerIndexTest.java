@@ -0,0 +1,105 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.gematik.pki.gemlibpki.commons.tsl.TspService;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
+import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OcspSignerIndexTest {
+
+  private final List<TspService> tspServiceList = TestUtils.getDefaultTspServiceList();
+
+  @Test
+  void getOcspSignerInTsl() throws CertificateEncodingException {
+    final X509Certificate ocspSigner = OcspTestConstants.getOcspSignerEcc().getCertificate();
+
+    assertThat(new OcspSignerIndex(tspServiceList).getOcspSignerInTsl(ocspSigner.getEncoded()))
+        .isPresent();
+  }
+
+  @Test
+  void getOcspSignerInTslMissing() throws CertificateEncodingException {
+    assertThat(
+            new OcspSignerIndex(tspServiceList)
+                .getOcspSignerInTsl(VALID_X509_EE_CERT_SMCB.getEncoded()))
+        .isEmpty();
+  }
+
+  @Test
+  void getOcspSignerInTslDecodedOnce() throws CertificateEncodingException {
+    final byte[] derOcspSigner = OcspTestConstants.getOcspSignerEcc().getCertificate().getEncoded();
+    final OcspSignerIndex ocspSignerIndex = new OcspSignerIndex(tspServiceList);
+
+    assertThat(ocspSignerIndex.getOcspSignerInTsl(derOcspSigner).orElseThrow())
+        .isSameAs(ocspSignerIndex.getOcspSignerInTsl(derOcspSigner).orElseThrow());
+  }
+
+  @Test
+  void findOcspSignerInTsl() throws CertificateEncodingException {
+    final byte[] derOcspSigner = OcspTestConstants.getOcspSignerEcc().getCertificate().getEncoded();
+
+    assertThat(OcspSignerIndex.findOcspSignerInTsl(tspServiceList, derOcspSigner))
+        .isEqualTo(new OcspSignerIndex(tspServiceList).getOcspSignerInTsl(derOcspSigner));
+    assertThat(
+            OcspSignerIndex.findOcspSignerInTsl(
+                tspServiceList, VALID_X509_EE_CERT_SMCB.getEncoded()))
+        .isEmpty();
+  }
+
+  @Test
+  void isOcspSigner() throws CertificateEncodingException {
+    final byte[] responderCertId =
+        GemLibPkiUtils.calculateSha256(
+            OcspTestConstants.getOcspSignerEcc().getCertificate().getEncoded());
+    final OcspSignerIndex ocspSignerIndex = new OcspSignerIndex(tspServiceList);
+
+    assertThat(ocspSignerIndex.isOcspSigner(responderCertId)).isTrue();
+    assertThat(OcspSignerIndex.isOcspSignerInTsl(tspServiceList, responderCertId)).isTrue();
+    assertThat(ocspSignerIndex.isOcspSigner(new byte[32])).isFalse();
+    assertThat(OcspSignerIndex.isOcspSignerInTsl(tspServiceList, new byte[32])).isFalse();
+  }
+
+  @Test
+  void nonNull() {
+    assertNonNullParameter(() -> new OcspSignerIndex(null), "tspServiceList");
+
+    final OcspSignerIndex ocspSignerIndex = new OcspSignerIndex(tspServiceList);
+    assertNonNullParameter(() -> ocspSignerIndex.getOcspSignerInTsl(null), "derX509Cert");
+    assertNonNullParameter(
+        () -> OcspSignerIndex.findOcspSignerInTsl(null, new byte[0]), "tspServiceList");
+    assertNonNullParameter(
+        () -> OcspSignerIndex.findOcspSignerInTsl(tspServiceList, null), "derX509Cert");
+    assertNonNullParameter(() -> ocspSignerIndex.isOcspSigner(null), "responderCertId");
+    assertNonNullParameter(
+        () -> OcspSignerIndex.isOcspSignerInTsl(null, new byte[0]), "tspServiceList");
+    assertNonNullParameter(
+        () -> OcspSignerIndex.isOcspSignerInTsl(tspServiceList, null), "responderCertId");
+  }
+}
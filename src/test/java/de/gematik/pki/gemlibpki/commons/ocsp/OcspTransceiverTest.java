@@ -37,12 +37,19 @@ import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
 import de.gematik.pki.gemlibpki.commons.tsl.TspService;
 import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
 import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import kong.unirest.core.Headers;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.bouncycastle.cert.ocsp.OCSPReq;
 import org.bouncycastle.cert.ocsp.OCSPResp;
 import org.junit.jupiter.api.AfterAll;
@@ -171,6 +178,329 @@ class OcspTransceiverTest {
         .hasMessage(ErrorCode.TE_1029_OCSP_CHECK_REVOCATION_ERROR.getErrorMessage(PRODUCT_TYPE));
   }
 
+  private static OcspTransceiver getOcspTransceiver(
+      final String ssp, final OcspResponderRegistry ocspResponderRegistry) {
+    return OcspTransceiver.builder()
+        .productType(PRODUCT_TYPE)
+        .x509EeCert(VALID_X509_EE_CERT_SMCB)
+        .x509IssuerCert(VALID_ISSUER_CERT_SMCB)
+        .ssp(ssp)
+        .ocspTimeoutSeconds(ocspTimeoutSeconds)
+        .ocspResponderRegistry(ocspResponderRegistry)
+        .build();
+  }
+
+  @Test
+  void sendOcspRequestUnreachableUrlCircuitOpens() {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OcspResponderRegistry registry =
+        OcspResponderRegistry.builder().failureThreshold(2).negativeCacheTtlMillis(0).build();
+    final String ssp = "http://127.0.0.1:4545/unreachable";
+    final OcspTransceiver ocspTransceiver = getOcspTransceiver(ssp, registry);
+
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(() -> ocspTransceiver.sendOcspRequest(ocspReq))
+          .isInstanceOf(GemPkiException.class)
+          .hasMessage(ErrorCode.TE_1029_OCSP_CHECK_REVOCATION_ERROR.getErrorMessage(PRODUCT_TYPE));
+    }
+
+    // circuit is open: fail fast
+    assertThatThrownBy(() -> ocspTransceiver.sendOcspRequest(ocspReq))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.TE_1032_OCSP_NOT_AVAILABLE.getErrorMessage(PRODUCT_TYPE));
+
+    final OcspResponder ocspResponder = registry.getResponder(ssp);
+    assertThat(ocspResponder.getCircuitBreaker().getState())
+        .isEqualTo(OcspCircuitBreaker.State.OPEN);
+    assertThat(ocspResponder.getFailureCount()).isEqualTo(2);
+    assertThat(ocspResponder.getRejectedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void sendOcspRequestUnreachableUrlNegativeCached() {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OcspResponderRegistry registry = OcspResponderRegistry.builder().build();
+    final OcspTransceiver ocspTransceiver =
+        getOcspTransceiver("http://127.0.0.1:4545/unreachable", registry);
+
+    assertThatThrownBy(() -> ocspTransceiver.sendOcspRequest(ocspReq))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.TE_1029_OCSP_CHECK_REVOCATION_ERROR.getErrorMessage(PRODUCT_TYPE));
+
+    // failure of the certificate is cached: fail fast
+    assertThatThrownBy(() -> ocspTransceiver.sendOcspRequest(ocspReq))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.TE_1032_OCSP_NOT_AVAILABLE.getErrorMessage(PRODUCT_TYPE));
+  }
+
+  @Test
+  void sendOcspRequestWithRegistryReceiveOcspResponseGood() throws GemPkiException {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OcspResponderRegistry registry = OcspResponderRegistry.builder().build();
+
+    assertThat(
+            getOcspTransceiver(ocspResponderMock.getSspUrl(), registry).sendOcspRequest(ocspReq))
+        .isPresent();
+    assertThat(registry.getResponder(ocspResponderMock.getSspUrl()).getSuccessCount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void sendOcspRequestBulkheadFull() throws InterruptedException {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OcspResponderRegistry registry =
+        OcspResponderRegistry.builder()
+            .bulkheadMaxConcurrentRequests(1)
+            .bulkheadMaxQueueLength(0)
+            .build();
+    final String ssp = ocspResponderMock.getSspUrl();
+    final OcspTransceiver ocspTransceiver = getOcspTransceiver(ssp, registry);
+
+    // the only slot is taken by another request
+    final OcspResponder ocspResponder = registry.getResponder(ssp);
+    assertThat(ocspResponder.tryAcquireBulkhead()).isTrue();
+
+    assertThatThrownBy(() -> ocspTransceiver.sendOcspRequest(ocspReq))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.TE_1032_OCSP_NOT_AVAILABLE.getErrorMessage(PRODUCT_TYPE));
+    assertThat(ocspResponder.getBulkhead().getRejectedCount()).isEqualTo(1);
+
+    ocspResponder.releaseBulkhead();
+    assertDoesNotThrow(() -> ocspTransceiver.sendOcspRequest(ocspReq));
+    assertThat(ocspResponder.getBulkhead().getInFlight()).isZero();
+  }
+
+  @Test
+  void sendOcspRequestAdaptiveTimeout() {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OcspResponderRegistry registry =
+        OcspResponderRegistry.builder()
+            .minLatencySamples(10)
+            .adaptiveTimeoutFactor(2)
+            .minAdaptiveTimeoutMillis(100)
+            .build();
+
+    // non-routable address: the request does not answer
+    final String ssp = "http://10.255.255.1/ocsp";
+    final OcspResponder ocspResponder = registry.getResponder(ssp);
+    for (int i = 0; i < 10; i++) {
+      ocspResponder.onSuccess(0, 20);
+    }
+    final OcspTransceiver ocspTransceiver = getOcspTransceiver(ssp, registry);
+
+    final long startMillis = System.currentTimeMillis();
+    assertThatThrownBy(() -> ocspTransceiver.sendOcspRequest(ocspReq))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.TE_1032_OCSP_NOT_AVAILABLE.getErrorMessage(PRODUCT_TYPE));
+    assertThat(System.currentTimeMillis() - startMillis).isLessThan(ocspTimeoutSeconds * 1000L);
+
+    // the timeout is recorded as a failure with its latency
+    assertThat(ocspResponder.getFailureCount()).isEqualTo(1);
+    assertThat(ocspResponder.getLatencyHistogram().getCount()).isEqualTo(11);
+  }
+
+  @Test
+  void sendOcspRequestHttpGet() throws GemPkiException {
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    ocspResponderMock.configureForOcspRequestHttpGet(
+        ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final OcspTransceiver ocspTransceiver =
+        OcspTransceiver.builder()
+            .productType(PRODUCT_TYPE)
+            .x509EeCert(VALID_X509_EE_CERT_SMCB)
+            .x509IssuerCert(VALID_ISSUER_CERT_SMCB)
+            .ssp(ocspResponderMock.getSspUrl())
+            .ocspTimeoutSeconds(ocspTimeoutSeconds)
+            .useHttpGet(true)
+            .httpGetMaxAgeSeconds(60)
+            .build();
+
+    final Optional<OCSPResp> ocspRespOpt = ocspTransceiver.sendOcspRequest(ocspReq);
+    assertThat(ocspRespOpt).isPresent();
+    assertThat(ocspRespOpt.get().getStatus()).isEqualTo(OCSPResp.SUCCESSFUL);
+  }
+
+  @Test
+  void sendOcspRequestHttpGetReusesFreshResponse() throws GemPkiException {
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    ocspResponderMock.configureForOcspRequestHttpGet(
+        ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final OcspResponderRegistry registry = OcspResponderRegistry.builder().build();
+
+    final OcspTransceiver ocspTransceiver =
+        OcspTransceiver.builder()
+            .productType(PRODUCT_TYPE)
+            .x509EeCert(VALID_X509_EE_CERT_SMCB)
+            .x509IssuerCert(VALID_ISSUER_CERT_SMCB)
+            .ssp(ocspResponderMock.getSspUrl())
+            .ocspTimeoutSeconds(ocspTimeoutSeconds)
+            .ocspResponderRegistry(registry)
+            .useHttpGet(true)
+            .httpGetMaxAgeSeconds(60)
+            .build();
+
+    final OCSPResp ocspResp = ocspTransceiver.sendOcspRequest(ocspReq).orElseThrow();
+    assertThat(ocspTransceiver.sendOcspRequest(ocspReq)).contains(ocspResp);
+
+    // the second response is taken from the HTTP cache of the registry (max-age=60)
+    assertThat(registry.getResponder(ocspResponderMock.getSspUrl()).getSuccessCount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void getHttpExpiresAtMillis() {
+    final long nowMillis = System.currentTimeMillis();
+
+    final Headers maxAge = new Headers();
+    maxAge.add(HttpHeaders.CACHE_CONTROL, "public, max-age=60");
+    maxAge.add(HttpHeaders.AGE, "20");
+    assertThat(OcspTransceiver.getHttpExpiresAtMillis(maxAge, nowMillis))
+        .hasValue(nowMillis + 40_000);
+
+    final Headers expires = new Headers();
+    expires.add(
+        HttpHeaders.EXPIRES,
+        DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1)));
+    assertThat(OcspTransceiver.getHttpExpiresAtMillis(expires, nowMillis)).isPresent();
+
+    final Headers noStore = new Headers();
+    noStore.add(HttpHeaders.CACHE_CONTROL, "no-store, max-age=60");
+    assertThat(OcspTransceiver.getHttpExpiresAtMillis(noStore, nowMillis)).isEmpty();
+
+    final Headers expired = new Headers();
+    expired.add(HttpHeaders.CACHE_CONTROL, "max-age=60");
+    expired.add(HttpHeaders.AGE, "60");
+    assertThat(OcspTransceiver.getHttpExpiresAtMillis(expired, nowMillis)).isEmpty();
+
+    final Headers invalidExpires = new Headers();
+    invalidExpires.add(HttpHeaders.EXPIRES, "0");
+    assertThat(OcspTransceiver.getHttpExpiresAtMillis(invalidExpires, nowMillis)).isEmpty();
+    assertThat(OcspTransceiver.getHttpExpiresAtMillis(new Headers(), nowMillis)).isEmpty();
+  }
+
+  @Test
+  void sendOcspRequestHttpGetTooLargeIsPosted() throws GemPkiException {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+
+    final OcspTransceiver ocspTransceiver =
+        OcspTransceiver.builder()
+            .productType(PRODUCT_TYPE)
+            .x509EeCert(VALID_X509_EE_CERT_SMCB)
+            .x509IssuerCert(VALID_ISSUER_CERT_SMCB)
+            .ssp(ocspResponderMock.getSspUrl())
+            .ocspTimeoutSeconds(ocspTimeoutSeconds)
+            .useHttpGet(true)
+            .httpGetMaxRequestLength(10)
+            .build();
+
+    assertThat(ocspTransceiver.sendOcspRequest(ocspReq)).isPresent();
+  }
+
+  @Test
+  void sendOcspRequestFailoverToNextSsp() throws GemPkiException {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OcspResponderRegistry registry = OcspResponderRegistry.builder().build();
+    final String unreachableSsp = "http://127.0.0.1:4545/unreachable";
+
+    final OcspTransceiver ocspTransceiver =
+        OcspTransceiver.builder()
+            .productType(PRODUCT_TYPE)
+            .x509EeCert(VALID_X509_EE_CERT_SMCB)
+            .x509IssuerCert(VALID_ISSUER_CERT_SMCB)
+            .ssp(unreachableSsp)
+            .additionalSsps(List.of(ocspResponderMock.getSspUrl()))
+            .ocspTimeoutSeconds(ocspTimeoutSeconds)
+            .ocspResponderRegistry(registry)
+            .build();
+
+    assertThat(ocspTransceiver.sendOcspRequest(ocspReq)).isPresent();
+    assertThat(registry.getResponder(unreachableSsp).getFailureCount()).isEqualTo(1);
+    assertThat(registry.getResponder(ocspResponderMock.getSspUrl()).getSuccessCount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void sendOcspRequestHedgedToNextSsp() throws GemPkiException {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+
+    // non-routable address: the first request does not answer within the hedge delay
+    final OcspTransceiver ocspTransceiver =
+        OcspTransceiver.builder()
+            .productType(PRODUCT_TYPE)
+            .x509EeCert(VALID_X509_EE_CERT_SMCB)
+            .x509IssuerCert(VALID_ISSUER_CERT_SMCB)
+            .ssp("http://10.255.255.1/ocsp")
+            .additionalSsps(List.of(ocspResponderMock.getSspUrl()))
+            .hedgeDelayMillis(100)
+            .ocspTimeoutSeconds(ocspTimeoutSeconds)
+            .build();
+
+    final long startMillis = System.currentTimeMillis();
+    assertThat(ocspTransceiver.sendOcspRequest(ocspReq)).isPresent();
+    assertThat(System.currentTimeMillis() - startMillis)
+        .isLessThan(ocspTimeoutSeconds * 1000L);
+  }
+
+  @Test
+  void sendOcspRequestHedgedLoserReleasesProbe() throws GemPkiException, IOException {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OcspResponderRegistry registry =
+        OcspResponderRegistry.builder().failureThreshold(1).openDurationMillis(1_000).build();
+
+    // accepts connections, but never answers
+    try (final ServerSocket silentServer = new ServerSocket(0)) {
+      final String slowSsp = "http://127.0.0.1:" + silentServer.getLocalPort() + "/ocsp";
+
+      // open the circuit of the slow SSP, so that the next request to it is the half-open probe
+      final OcspResponder slowResponder = registry.getResponder(slowSsp);
+      slowResponder.onFailure(System.currentTimeMillis() - 2_000);
+
+      final OcspTransceiver ocspTransceiver =
+          OcspTransceiver.builder()
+              .productType(PRODUCT_TYPE)
+              .x509EeCert(VALID_X509_EE_CERT_SMCB)
+              .x509IssuerCert(VALID_ISSUER_CERT_SMCB)
+              .ssp(slowSsp)
+              .additionalSsps(List.of(ocspResponderMock.getSspUrl()))
+              .hedgeDelayMillis(100)
+              .ocspTimeoutSeconds(ocspTimeoutSeconds)
+              .ocspResponderRegistry(registry)
+              .build();
+
+      assertThat(ocspTransceiver.sendOcspRequest(ocspReq)).isPresent();
+
+      // the cancelled probe returned its permission: the next probe can be sent
+      assertThat(slowResponder.getCircuitBreaker().getState())
+          .isEqualTo(OcspCircuitBreaker.State.HALF_OPEN);
+      assertThat(slowResponder.tryAcquirePermission(System.currentTimeMillis())).isTrue();
+    }
+  }
+
+  @Test
+  void sendOcspRequestAllSspsUnreachable() {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+
+    final OcspTransceiver ocspTransceiver =
+        OcspTransceiver.builder()
+            .productType(PRODUCT_TYPE)
+            .x509EeCert(VALID_X509_EE_CERT_SMCB)
+            .x509IssuerCert(VALID_ISSUER_CERT_SMCB)
+            .ssp("http://127.0.0.1:4545/unreachable")
+            .additionalSsps(List.of("http://127.0.0.1:4546/unreachable"))
+            .ocspTimeoutSeconds(ocspTimeoutSeconds)
+            .build();
+
+    assertThatThrownBy(() -> ocspTransceiver.sendOcspRequest(ocspReq))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.TE_1029_OCSP_CHECK_REVOCATION_ERROR.getErrorMessage(PRODUCT_TYPE));
+  }
+
   @Test
   void sendOcspRequestUnreachableUrlTolerate() {
     final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
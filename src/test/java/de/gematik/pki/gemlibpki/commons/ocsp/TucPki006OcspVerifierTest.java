@@ -42,7 +42,9 @@ import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponseGenerator.CertificateId
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponseGenerator.ResponderIdType;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponseGenerator.ResponseAlgoBehavior;
 import de.gematik.pki.gemlibpki.commons.tsl.TslInformationProvider;
+import de.gematik.pki.gemlibpki.commons.tsl.TspInformationProvider;
 import de.gematik.pki.gemlibpki.commons.tsl.TspService;
+import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
 import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
 import de.gematik.pki.gemlibpki.commons.utils.P12Container;
 import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
@@ -318,6 +320,79 @@ class TucPki006OcspVerifierTest {
         .hasMessage(ErrorCode.SE_1030_OCSP_CERT_MISSING.getErrorMessage(PRODUCT_TYPE));
   }
 
+  @Test
+  void verifyStoredOcspResponse() throws GemPkiException {
+    final OCSPResp ocspRespLocal =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final VerifiedOcspResp verifiedOcspResp =
+        TucPki006OcspVerifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .eeCert(VALID_X509_EE_CERT_SMCB)
+            .ocspResponse(ocspRespLocal)
+            .build()
+            .getVerifiedOcspResp(GemLibPkiUtils.now());
+
+    assertThat(
+            TucPki006OcspVerifier.verifyStoredOcspResponse(
+                PRODUCT_TYPE, new OcspSignerIndex(tspServiceList), ocspRespLocal))
+        .isEqualTo(verifiedOcspResp.getResponderCertId());
+  }
+
+  @Test
+  void verifyStoredOcspResponseSignerMissing() {
+    final List<TspService> tspServiceListRsa =
+        new TslInformationProvider(TestUtils.getTslUnsigned(FILE_NAME_TSL_RSA_DEFAULT))
+            .getTspServices();
+
+    final OCSPResp ocspRespLocal =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final OcspSignerIndex ocspSignerIndexRsa = new OcspSignerIndex(tspServiceListRsa);
+
+    assertThatThrownBy(
+            () ->
+                TucPki006OcspVerifier.verifyStoredOcspResponse(
+                    PRODUCT_TYPE, ocspSignerIndexRsa, ocspRespLocal))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.SE_1030_OCSP_CERT_MISSING.getErrorMessage(PRODUCT_TYPE));
+  }
+
+  @Test
+  void verifyOcspSignerWithGivenIndex() {
+    final OcspSignerIndex ocspSignerIndexRsa =
+        new OcspSignerIndex(
+            new TslInformationProvider(TestUtils.getTslUnsigned(FILE_NAME_TSL_RSA_DEFAULT))
+                .getTspServices());
+
+    final OCSPResp ocspRespLocal =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    // the given index is used instead of the one of tspServiceList
+    final TucPki006OcspVerifier tucPki006OcspVerifier =
+        TucPki006OcspVerifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .ocspSignerIndex(ocspSignerIndexRsa)
+            .ocspResponse(ocspRespLocal)
+            .eeCert(VALID_X509_EE_CERT_SMCB)
+            .build();
+
+    assertThatThrownBy(tucPki006OcspVerifier::verifyOcspResponseSignature)
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.SE_1030_OCSP_CERT_MISSING.getErrorMessage(PRODUCT_TYPE));
+  }
+
   @Test
   void verifyOcspSignerMissingDifferentKey() {
     final List<TspService> tspServiceList =
@@ -396,6 +471,25 @@ class TucPki006OcspVerifierTest {
     return arguments.stream();
   }
 
+  @Test
+  void verifyOcspResponseCertIdWithResolvedIssuer() throws GemPkiException {
+    final TspServiceSubset issuerTspServiceSubset =
+        new TspInformationProvider(tspServiceList, PRODUCT_TYPE)
+            .getIssuerTspServiceSubset(VALID_X509_EE_CERT_SMCB);
+
+    // the issuer is not determined from the TSP service list again
+    final TucPki006OcspVerifier tucPki006OcspVerifier =
+        TucPki006OcspVerifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(List.of())
+            .ocspResponse(genDefaultOcspResp())
+            .eeCert(VALID_X509_EE_CERT_SMCB)
+            .issuerTspServiceSubset(issuerTspServiceSubset)
+            .build();
+
+    assertDoesNotThrow(tucPki006OcspVerifier::verifyOcspResponseCertId);
+  }
+
   @ParameterizedTest
   @MethodSource("provideArgumentsForVerifyOcspResponseCertIdValid")
   void verifyOcspResponseCertIdValid(
@@ -493,6 +587,26 @@ class TucPki006OcspVerifierTest {
         .hasMessage(ErrorCode.TW_1044_CERT_UNKNOWN.getErrorMessage(PRODUCT_TYPE));
   }
 
+  @Test
+  void verifyOcspSignatureResponderIdByName() {
+    final OCSPResp ocspRespLocal =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .responderIdType(ResponderIdType.BY_NAME)
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final TucPki006OcspVerifier tucPki006OcspVerifier =
+        TucPki006OcspVerifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .ocspResponse(ocspRespLocal)
+            .eeCert(VALID_X509_EE_CERT_SMCB)
+            .build();
+
+    assertDoesNotThrow(tucPki006OcspVerifier::verifyOcspResponseSignature);
+  }
+
   @Test
   void verifyOcspResponseCertResponderIdByName() {
 
@@ -1053,8 +1167,25 @@ class TucPki006OcspVerifierTest {
       ocspUtils.when(() -> OcspUtils.getBasicOcspResp(Mockito.any())).thenReturn(basicOcspRespSpy);
       assertThatThrownBy(verifier::verifyOcspResponseSignature)
           .isInstanceOf(GemPkiRuntimeException.class)
-          .hasMessage("Fehler beim Lesen des OCSP Signer Zertifikates aus der OCSP Response.");
+          .hasMessage("Interner Fehler beim verifizieren der Ocsp Response Signatur.");
+    }
+  }
+
+  @Test
+  void verifyOcspResponseSignature_MockVerifiedOnce() throws OCSPException {
+
+    final Pair<OCSPResp, TucPki006OcspVerifier> pair = getPairForMocks();
+
+    final OCSPResp ocspResp = pair.getLeft();
+    final TucPki006OcspVerifier verifier = pair.getRight();
+
+    final BasicOCSPResp basicOcspRespSpy = Mockito.spy(getBasicOcspResp(ocspResp));
+
+    try (final MockedStatic<OcspUtils> ocspUtils = Mockito.mockStatic(OcspUtils.class)) {
+      ocspUtils.when(() -> OcspUtils.getBasicOcspResp(Mockito.any())).thenReturn(basicOcspRespSpy);
+      assertDoesNotThrow(verifier::verifyOcspResponseSignature);
     }
+    Mockito.verify(basicOcspRespSpy, Mockito.times(1)).isSignatureValid(Mockito.any());
   }
 
   @Test
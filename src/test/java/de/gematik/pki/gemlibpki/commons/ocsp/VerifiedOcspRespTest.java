@@ -0,0 +1,250 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.ocsp;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.PRODUCT_TYPE;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.ocsp.OcspConstants.OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_FUTURE_MILLISECONDS;
+import static de.gematik.pki.gemlibpki.commons.ocsp.OcspConstants.OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.ocsp.VerifiedOcspResp.CertStatus;
+import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.junit.jupiter.api.Test;
+
+class VerifiedOcspRespTest {
+
+  private static final ZonedDateTime NOW = ZonedDateTime.now(ZoneOffset.UTC);
+
+  private static OCSPResp getOcspResp(
+      final CertificateStatus certificateStatus,
+      final ZonedDateTime producedAt,
+      final ZonedDateTime nextUpdate) {
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    return OcspResponseGenerator.builder()
+        .signer(OcspTestConstants.getOcspSignerEcc())
+        .producedAt(producedAt)
+        .thisUpdate(producedAt)
+        .nextUpdate(nextUpdate)
+        .build()
+        .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB, certificateStatus);
+  }
+
+  private static VerifiedOcspResp getVerifiedOcspResp(final CertificateStatus certificateStatus) {
+    return VerifiedOcspResp.of(getOcspResp(certificateStatus, NOW, null), true, new byte[32]);
+  }
+
+  @Test
+  void extractFacts() {
+    final ZonedDateTime nextUpdate = NOW.plusHours(1);
+    final OCSPResp ocspResp = getOcspResp(CertificateStatus.GOOD, NOW, nextUpdate);
+    final byte[] responderCertId = new byte[32];
+    responderCertId[0] = 1;
+
+    final VerifiedOcspResp verifiedOcspResp = VerifiedOcspResp.of(ocspResp, true, responderCertId);
+
+    assertThat(verifiedOcspResp.getOcspResp()).isSameAs(ocspResp);
+    assertThat(verifiedOcspResp.getCertStatus()).isEqualTo(CertStatus.GOOD);
+    assertThat(verifiedOcspResp.getRevocationTimeMillis()).isEqualTo(VerifiedOcspResp.NOT_SET);
+    // GeneralizedTime in OCSP responses has a precision of seconds
+    assertThat(verifiedOcspResp.getProducedAtMillis() / 1000)
+        .isEqualTo(NOW.toInstant().getEpochSecond());
+    assertThat(verifiedOcspResp.getThisUpdateMillis() / 1000)
+        .isEqualTo(NOW.toInstant().getEpochSecond());
+    assertThat(verifiedOcspResp.getNextUpdateMillis() / 1000)
+        .isEqualTo(nextUpdate.toInstant().getEpochSecond());
+    assertThat(verifiedOcspResp.isCertHashMatched()).isTrue();
+    assertThat(verifiedOcspResp.getResponderCertId()).isEqualTo(responderCertId);
+  }
+
+  @Test
+  void nextUpdateNotSet() {
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp(CertificateStatus.GOOD);
+    assertThat(verifiedOcspResp.getNextUpdateMillis()).isEqualTo(VerifiedOcspResp.NOT_SET);
+    assertThat(verifiedOcspResp.isWithinTimeWindows(NOW.plusDays(1), Integer.MAX_VALUE, 0))
+        .isTrue();
+  }
+
+  @Test
+  void isWithinTimeWindows() {
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp(CertificateStatus.GOOD);
+
+    assertThat(
+            verifiedOcspResp.isWithinTimeWindows(
+                NOW,
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS,
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_FUTURE_MILLISECONDS))
+        .isTrue();
+
+    // producedAt too far in the past
+    assertThat(
+            verifiedOcspResp.isWithinTimeWindows(
+                NOW.plusMinutes(1),
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS,
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_FUTURE_MILLISECONDS))
+        .isFalse();
+
+    // producedAt and thisUpdate too far in the future
+    assertThat(
+            verifiedOcspResp.isWithinTimeWindows(
+                NOW.minusMinutes(1),
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS,
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_FUTURE_MILLISECONDS))
+        .isFalse();
+  }
+
+  @Test
+  void isWithinTimeWindowsToleranceAboveIntRange() {
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp(CertificateStatus.GOOD);
+
+    assertThat(
+            verifiedOcspResp.isWithinTimeWindows(NOW.plusDays(30), TimeUnit.DAYS.toMillis(31), 0))
+        .isTrue();
+  }
+
+  @Test
+  void isWithinTimeWindowsNextUpdateInPast() {
+    final VerifiedOcspResp verifiedOcspResp =
+        VerifiedOcspResp.of(
+            getOcspResp(CertificateStatus.GOOD, NOW, NOW.minusMinutes(1)), true, new byte[32]);
+
+    assertThat(verifiedOcspResp.isWithinTimeWindows(NOW, Integer.MAX_VALUE, Integer.MAX_VALUE))
+        .isFalse();
+  }
+
+  @Test
+  void getValidUntil() {
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp(CertificateStatus.GOOD);
+    final ZonedDateTime validUntil =
+        verifiedOcspResp.getValidUntil(OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS);
+
+    assertThat(validUntil.toInstant().toEpochMilli())
+        .isEqualTo(
+            verifiedOcspResp.getProducedAtMillis()
+                + OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS);
+    assertThat(
+            verifiedOcspResp.isWithinTimeWindows(
+                validUntil,
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS,
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_FUTURE_MILLISECONDS))
+        .isTrue();
+    assertThat(
+            verifiedOcspResp.isWithinTimeWindows(
+                validUntil.plusSeconds(1),
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_PAST_MILLISECONDS,
+                OCSP_TIME_TOLERANCE_PRODUCEDAT_DEFAULT_FUTURE_MILLISECONDS))
+        .isFalse();
+  }
+
+  @Test
+  void getValidUntilLimitedByNextUpdate() {
+    final VerifiedOcspResp verifiedOcspResp =
+        VerifiedOcspResp.of(
+            getOcspResp(CertificateStatus.GOOD, NOW, NOW.plusMinutes(1)), true, new byte[32]);
+
+    assertThat(verifiedOcspResp.getValidUntil(TimeUnit.DAYS.toMillis(1)).toInstant().toEpochMilli())
+        .isEqualTo(
+            verifiedOcspResp.getNextUpdateMillis()
+                + OcspConstants.OCSP_TIME_TOLERANCE_THISNEXTUPDATE_MILLISECONDS);
+  }
+
+  @Test
+  void verifyCertStatusGood() {
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp(CertificateStatus.GOOD);
+    assertDoesNotThrow(() -> verifiedOcspResp.verifyCertStatus(PRODUCT_TYPE, NOW));
+  }
+
+  @Test
+  void verifyCertStatusRevoked() {
+    final ZonedDateTime revocationDate = NOW.minusDays(1);
+    final VerifiedOcspResp verifiedOcspResp =
+        getVerifiedOcspResp(
+            new RevokedStatus(Date.from(revocationDate.toInstant()), CRLReason.keyCompromise));
+
+    assertThat(verifiedOcspResp.getCertStatus()).isEqualTo(CertStatus.REVOKED);
+    assertThatThrownBy(() -> verifiedOcspResp.verifyCertStatus(PRODUCT_TYPE, NOW))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.SW_1047_CERT_REVOKED.getErrorMessage(PRODUCT_TYPE));
+    assertDoesNotThrow(
+        () -> verifiedOcspResp.verifyCertStatus(PRODUCT_TYPE, revocationDate.minusDays(1)));
+  }
+
+  @Test
+  void verifyCertStatusUnknown() {
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp(new UnknownStatus());
+
+    assertThat(verifiedOcspResp.getCertStatus()).isEqualTo(CertStatus.UNKNOWN);
+    assertThatThrownBy(() -> verifiedOcspResp.verifyCertStatus(PRODUCT_TYPE, NOW))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.TW_1044_CERT_UNKNOWN.getErrorMessage(PRODUCT_TYPE));
+  }
+
+  @Test
+  void verifiedOcspRespFromTucPki006() throws GemPkiException {
+    final OCSPResp ocspResp = getOcspResp(CertificateStatus.GOOD, NOW, null);
+
+    final VerifiedOcspResp verifiedOcspResp =
+        TucPki006OcspVerifier.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(TestUtils.getDefaultTspServiceList())
+            .eeCert(VALID_X509_EE_CERT_SMCB)
+            .ocspResponse(ocspResp)
+            .build()
+            .getVerifiedOcspResp(NOW);
+
+    assertThat(verifiedOcspResp.getOcspResp()).isSameAs(ocspResp);
+    assertThat(verifiedOcspResp.isCertHashMatched()).isTrue();
+    assertThat(verifiedOcspResp.getResponderCertId()).hasSize(32);
+  }
+
+  @Test
+  void nonNull() {
+    final OCSPResp ocspResp = getOcspResp(CertificateStatus.GOOD, NOW, null);
+    final byte[] responderCertId = new byte[32];
+    final VerifiedOcspResp verifiedOcspResp = getVerifiedOcspResp(CertificateStatus.GOOD);
+
+    assertNonNullParameter(() -> VerifiedOcspResp.of(null, true, responderCertId), "ocspResp");
+    assertNonNullParameter(() -> VerifiedOcspResp.of(ocspResp, true, null), "responderCertId");
+    assertNonNullParameter(
+        () -> verifiedOcspResp.isWithinTimeWindows(null, 0, 0), "referenceDate");
+    assertNonNullParameter(() -> verifiedOcspResp.verifyCertStatus(null, NOW), "productType");
+    assertNonNullParameter(
+        () -> verifiedOcspResp.verifyCertStatus(PRODUCT_TYPE, null), "referenceDate");
+  }
+}
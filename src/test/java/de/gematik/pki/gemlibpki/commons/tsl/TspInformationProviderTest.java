@@ -101,6 +101,15 @@ class TspInformationProviderTest {
         .isEqualTo("http://ehca-testref.komp-ca.telematik-test:8080/status/ecc-ocsp");
   }
 
+  @Test
+  void generateTspServiceSubsetServiceSupplyPointsValid() throws GemPkiException {
+    assertThat(
+            tspInformationProvider
+                .getIssuerTspServiceSubset(VALID_X509_EE_CERT_SMCB)
+                .getServiceSupplyPoints())
+        .containsExactly("http://ehca-testref.komp-ca.telematik-test:8080/status/ecc-ocsp");
+  }
+
   @Test
   void generateTspServiceSubsetServiceSupplyPointMissing() {
     final TrustStatusListType tslAltCaMissingSsp =
@@ -0,0 +1,78 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+
+package de.gematik.pki.gemlibpki.commons.utils;
+
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedLruCacheTest {
+
+  @Test
+  void evictsLeastRecentlyUsed() {
+    final BoundedLruCache<String, Integer> cache = new BoundedLruCache<>(2);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    assertThat(cache.get("a")).contains(1);
+
+    cache.put("c", 3);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.get("a")).contains(1);
+    assertThat(cache.get("b")).isEmpty();
+    assertThat(cache.get("c")).contains(3);
+  }
+
+  @Test
+  void setMaxSizeEvictsSurplusEntries() {
+    final BoundedLruCache<String, Integer> cache = new BoundedLruCache<>(3);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.put("c", 3);
+
+    cache.setMaxSize(1);
+
+    assertThat(cache.getMaxSize()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.get("c")).contains(3);
+  }
+
+  @Test
+  void clear() {
+    final BoundedLruCache<String, Integer> cache = new BoundedLruCache<>(2);
+    cache.put("a", 1);
+
+    cache.clear();
+
+    assertThat(cache.size()).isZero();
+    assertThat(cache.get("a")).isEmpty();
+  }
+
+  @Test
+  void nonNull() {
+    final BoundedLruCache<String, Integer> cache = new BoundedLruCache<>(2);
+    assertNonNullParameter(() -> cache.get(null), "key");
+    assertNonNullParameter(() -> cache.put(null, 1), "key");
+    assertNonNullParameter(() -> cache.put("a", null), "value");
+  }
+}
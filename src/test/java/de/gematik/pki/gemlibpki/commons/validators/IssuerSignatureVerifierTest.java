@@ -0,0 +1,94 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.validators;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
+import java.security.SignatureException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class IssuerSignatureVerifierTest {
+
+  private final IssuerSignatureVerifier tested =
+      new IssuerSignatureVerifier(VALID_ISSUER_CERT_SMCB);
+
+  @Test
+  void verifyNullParameter() {
+    assertNonNullParameter(() -> new IssuerSignatureVerifier(null), "x509IssuerCert");
+    assertNonNullParameter(() -> tested.verify(null), "x509EeCert");
+  }
+
+  @Test
+  void verifyPublicKeyDecodedOnce() {
+    assertThat(tested.getPublicKey()).isSameAs(tested.getPublicKey());
+    assertThat(tested.getPublicKey()).isEqualTo(VALID_ISSUER_CERT_SMCB.getPublicKey());
+  }
+
+  @Test
+  void verifySignatureValid() {
+    assertDoesNotThrow(() -> tested.verify(VALID_X509_EE_CERT_SMCB));
+    assertDoesNotThrow(() -> tested.verify(VALID_X509_EE_CERT_SMCB));
+  }
+
+  @Test
+  void verifySignatureNotValid() {
+    final X509Certificate invalidX509EeCert =
+        TestUtils.readCert("GEM.SMCB-CA57/invalid/BabetteBeyer-invalid-signature.pem");
+
+    assertThatThrownBy(() -> tested.verify(invalidX509EeCert))
+        .isInstanceOf(SignatureException.class);
+
+    // the signature instance of the failed verification is reused
+    assertDoesNotThrow(() -> tested.verify(VALID_X509_EE_CERT_SMCB));
+  }
+
+  @Test
+  void verifySignatureConcurrently() throws Exception {
+    final List<Callable<Void>> tasks =
+        IntStream.range(0, 20)
+            .<Callable<Void>>mapToObj(
+                i ->
+                    () -> {
+                      tested.verify(VALID_X509_EE_CERT_SMCB);
+                      return null;
+                    })
+            .toList();
+
+    try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (final Future<Void> future : executor.invokeAll(tasks)) {
+        assertDoesNotThrow(() -> future.get());
+      }
+    }
+  }
+}
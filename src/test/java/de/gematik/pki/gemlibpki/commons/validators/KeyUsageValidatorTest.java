@@ -26,6 +26,7 @@ import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CE
 import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_C_HCI_AUT_ECC;
 import static de.gematik.pki.gemlibpki.commons.certificate.CertificateProfile.CERT_PROFILE_C_HCI_AUT_RSA;
 import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
@@ -67,6 +68,16 @@ class KeyUsageValidatorTest {
     assertDoesNotThrow(() -> tested.validateCertificate(VALID_X_509_EE_CERT, CERTIFICATE_PROFILE));
   }
 
+  @Test
+  void verifyKeyUsageOutcome() {
+    assertThat(tested.validate(VALID_X_509_EE_CERT, CERTIFICATE_PROFILE).isValid()).isTrue();
+    assertThat(
+            tested
+                .validate(VALID_X509_EE_CERT_INVALID_KEY_USAGE, CERTIFICATE_PROFILE)
+                .getErrorCode())
+        .contains(ErrorCode.SE_1016_WRONG_KEYUSAGE);
+  }
+
   @Test
   void verifyKeyUsageInvalidInCertificateButNotChecked() {
     assertDoesNotThrow(
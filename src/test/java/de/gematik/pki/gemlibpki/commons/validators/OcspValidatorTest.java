@@ -34,24 +34,36 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiRuntimeException;
+import de.gematik.pki.gemlibpki.commons.ocsp.NearCacheOcspResponseStore;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspCertId;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspRequestGenerator;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspRespCache;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponderMock;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponseGenerator;
+import de.gematik.pki.gemlibpki.commons.ocsp.OcspResponseStore;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTestConstants;
 import de.gematik.pki.gemlibpki.commons.ocsp.OcspTransceiver;
+import de.gematik.pki.gemlibpki.commons.ocsp.VerifiedOcspResp;
+import de.gematik.pki.gemlibpki.commons.tsl.TspInformationProvider;
 import de.gematik.pki.gemlibpki.commons.tsl.TspService;
+import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
 import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
 import eu.europa.esig.dss.spi.x509.revocation.ocsp.OCSPRespStatus;
 import java.net.HttpURLConnection;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bouncycastle.asn1.x509.CRLReason;
 import org.bouncycastle.cert.ocsp.CertificateStatus;
 import org.bouncycastle.cert.ocsp.OCSPReq;
 import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -62,6 +74,8 @@ class OcspValidatorTest {
 
   private static final List<TspService> emptyTspServiceList = new ArrayList<>();
   private static final int OCSP_GRACE_PERIOD_10_SECONDS = 10;
+  private static final OcspCertId CERT_ID_SMCB =
+      OcspCertId.of(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
   private static List<TspService> tspServiceList;
   private static OcspResponderMock ocspResponderMock;
 
@@ -76,6 +90,14 @@ class OcspValidatorTest {
         .build();
   }
 
+  private static final byte[] RESPONDER_CERT_ID_ECC =
+      GemLibPkiUtils.calculateSha256(
+          GemLibPkiUtils.certToBytes(OcspTestConstants.getOcspSignerEcc().getCertificate()));
+
+  private static VerifiedOcspResp verified(final OCSPResp ocspResp) {
+    return VerifiedOcspResp.of(ocspResp, true, RESPONDER_CERT_ID_ECC);
+  }
+
   private OCSPReq configureOcspResponderMockForOcspRequest() {
     final OCSPReq ocspReq =
         OcspRequestGenerator.generateSingleOcspRequest(
@@ -154,7 +176,7 @@ class OcspValidatorTest {
             .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
 
     final OcspRespCache cache = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
-    cache.saveResponse(VALID_X509_EE_CERT_SMCB.getSerialNumber(), ocspResponse);
+    cache.saveResponse(CERT_ID_SMCB, verified(ocspResponse));
 
     final OcspValidator ocspValidator =
         OcspValidator.builder()
@@ -253,8 +275,8 @@ class OcspValidatorTest {
 
   /**
    * Call validateCertificate with cached OCSP response with status success and certificate status
-   * GOOD. An empty tspServiceList and no transceiver are provided and not required for OCSP
-   * validation because OCSP response in cache is fine.
+   * GOOD. No transceiver is provided and not required for OCSP validation because OCSP response in
+   * cache is fine. The tspServiceList is required to determine the issuer for the cert id.
    */
   @Test
   void
@@ -269,12 +291,12 @@ class OcspValidatorTest {
             .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
 
     final OcspRespCache cache = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
-    cache.saveResponse(VALID_X509_EE_CERT_SMCB.getSerialNumber(), ocspResponse);
+    cache.saveResponse(CERT_ID_SMCB, verified(ocspResponse));
 
     final OcspValidator ocspValidator =
         OcspValidator.builder()
             .productType(PRODUCT_TYPE)
-            .tspServiceList(emptyTspServiceList)
+            .tspServiceList(tspServiceList)
             .withOcspCheck(true)
             .ocspResponse(null)
             .ocspRespCache(cache)
@@ -289,6 +311,96 @@ class OcspValidatorTest {
         () -> ocspValidator.validateCertificate(VALID_X509_EE_CERT_SMCB, referenceDate));
   }
 
+  /**
+   * Call validateCertificate with cached OCSP response with status success and certificate status
+   * REVOKED. The revocation is detected from the cached facts without a transceiver.
+   */
+  @Test
+  void test_validateCertificate_CachedOcspResp_RespStatusSuccess_CertStatusRevoked() {
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final ZonedDateTime revocationDate = ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(5);
+    final OCSPResp ocspResponse =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(
+                ocspReq,
+                VALID_X509_EE_CERT_SMCB,
+                VALID_ISSUER_CERT_SMCB,
+                new RevokedStatus(Date.from(revocationDate.toInstant()), CRLReason.keyCompromise));
+
+    final OcspRespCache cache = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
+    cache.saveResponse(CERT_ID_SMCB, verified(ocspResponse));
+
+    final OcspValidator ocspValidator =
+        OcspValidator.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .withOcspCheck(true)
+            .ocspRespCache(cache)
+            .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_10_SECONDS * 1000)
+            .ocspTimeoutSeconds(DEFAULT_OCSP_TIMEOUT_SECONDS)
+            .ocspTransceiver(null)
+            .tolerateOcspFailure(false)
+            .build();
+    final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
+
+    assertThatThrownBy(
+            () -> ocspValidator.validateCertificate(VALID_X509_EE_CERT_SMCB, referenceDate))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.SW_1047_CERT_REVOKED.getErrorMessage(PRODUCT_TYPE));
+
+    // a reference date before the revocation is fine
+    assertDoesNotThrow(
+        () ->
+            ocspValidator.validateCertificate(
+                VALID_X509_EE_CERT_SMCB, revocationDate.minusSeconds(1)));
+  }
+
+  /**
+   * Call validateCertificate with a cached OCSP response whose producedAt is out of tolerance for
+   * the reference date. The cached response is not used and a new one is requested.
+   */
+  @Test
+  void test_validateCertificate_CachedOcspResp_ProducedAtOutOfTolerance_withTransceiver() {
+    configureOcspResponderMockForOcspRequest();
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final ZonedDateTime producedAt = ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(60);
+    final OCSPResp ocspResponse =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .producedAt(producedAt)
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final OcspRespCache cache = new OcspRespCache(120);
+    cache.saveResponse(CERT_ID_SMCB, verified(ocspResponse));
+
+    final OcspValidator ocspValidator =
+        OcspValidator.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .withOcspCheck(true)
+            .ocspRespCache(cache)
+            .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_10_SECONDS * 1000)
+            .ocspTimeoutSeconds(DEFAULT_OCSP_TIMEOUT_SECONDS)
+            .ocspTransceiver(getOcspTransceiver(ocspResponderMock.getSspUrl(), false))
+            .tolerateOcspFailure(false)
+            .build();
+    final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
+
+    assertDoesNotThrow(
+        () -> ocspValidator.validateCertificate(VALID_X509_EE_CERT_SMCB, referenceDate));
+
+    // check that the cached OCSP response was replaced by the received one
+    assertThat(cache.getVerifiedResponse(CERT_ID_SMCB).orElseThrow().getProducedAtMillis())
+        .isGreaterThan(producedAt.toInstant().toEpochMilli());
+  }
+
   @Test
   void test_validateCertificate_ReceiveOcspResp_RespStatusSuccess_CertStatusGood() {
     final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
@@ -401,8 +513,323 @@ class OcspValidatorTest {
     TestUtils.waitSeconds(cache.getOcspGracePeriodSeconds() + 1);
     // check that cached OCSP response was deleted after grace period
     final Optional<OCSPResp> ocspRespOpt =
-        cache.getResponse(VALID_X509_EE_CERT_SMCB.getSerialNumber());
+        cache.getResponse(CERT_ID_SMCB);
     assertThat(ocspRespOpt).isEmpty();
     assertThat(cache.getSize()).isZero();
   }
+
+  @Test
+  void test_validateCertificate_CacheRefreshesHotEntryAheadOfExpiry() {
+    final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
+    configureOcspResponderMockForOcspRequest();
+
+    final OcspRespCache cache = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
+    cache.setRefreshAheadSeconds(OCSP_GRACE_PERIOD_10_SECONDS);
+    cache.setRefreshAheadMinAccessCount(1);
+    cache.setRefreshExecutor(Runnable::run);
+
+    final OcspValidator ocspValidator =
+        OcspValidator.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .withOcspCheck(true)
+            .ocspRespCache(cache)
+            .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_10_SECONDS * 1000)
+            .ocspTimeoutSeconds(DEFAULT_OCSP_TIMEOUT_SECONDS)
+            .ocspTransceiver(getOcspTransceiver(ocspResponderMock.getSspUrl(), false))
+            .tolerateOcspFailure(false)
+            .build();
+
+    assertDoesNotThrow(
+        () -> ocspValidator.validateCertificate(VALID_X509_EE_CERT_SMCB, referenceDate));
+    final VerifiedOcspResp verifiedOcspRespSaved = cache.getVerifiedResponse(CERT_ID_SMCB).get();
+
+    // the access above was within the refresh window: the entry was replaced by a new response
+    assertThat(cache.getVerifiedResponse(CERT_ID_SMCB))
+        .hasValueSatisfying(
+            verifiedOcspResp -> assertThat(verifiedOcspResp).isNotSameAs(verifiedOcspRespSaved));
+    assertThat(cache.getSize()).isEqualTo(1);
+  }
+
+  /**
+   * Call validateOcsp with a cached OCSP response after the grace period, but within the maximum
+   * staleness of the cache. The stale response is used without contacting the OCSP responder and a
+   * revalidation is requested.
+   */
+  @Test
+  void test_validateOcsp_StaleCachedOcspResp_RevalidatedInBackground() throws GemPkiException {
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final OCSPResp ocspResponse =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .producedAt(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(30))
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final OcspRespCache cache = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
+    cache.setMaxStaleSeconds(60);
+    cache.setRefreshExecutor(Runnable::run);
+    final AtomicInteger revalidationCount = new AtomicInteger();
+    cache.saveResponse(
+        CERT_ID_SMCB,
+        verified(ocspResponse),
+        () -> {
+          revalidationCount.incrementAndGet();
+          return Optional.empty();
+        });
+
+    final OcspValidator ocspValidator =
+        OcspValidator.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .withOcspCheck(true)
+            .ocspRespCache(cache)
+            .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_10_SECONDS * 1000)
+            .ocspTimeoutSeconds(DEFAULT_OCSP_TIMEOUT_SECONDS)
+            .ocspTransceiver(getOcspTransceiver("http://localhost:1/ocsp", false))
+            .tolerateOcspFailure(false)
+            .build();
+    final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
+
+    final OcspValidationOutcome outcome =
+        ocspValidator.validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate);
+    assertThat(outcome.getResult()).isEqualTo(OcspValidationResult.STALE_CACHED_RESPONSE);
+    assertThat(outcome.getValidUntil()).isEmpty();
+    assertThat(revalidationCount.get()).isEqualTo(1);
+    assertThat(cache.getSize()).isEqualTo(1);
+  }
+
+  /** A maximum staleness of more than 24 days must not overflow the producedAt tolerance. */
+  @Test
+  void test_validateOcsp_StaleCachedOcspResp_LongMaxStale() throws GemPkiException {
+    final OCSPReq ocspReq =
+        OcspRequestGenerator.generateSingleOcspRequest(
+            VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    final OCSPResp ocspResponse =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .producedAt(ZonedDateTime.now(ZoneOffset.UTC).minusDays(25))
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final OcspRespCache cache = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
+    cache.setMaxStaleSeconds((int) TimeUnit.DAYS.toSeconds(30));
+    cache.setRefreshExecutor(Runnable::run);
+    cache.saveResponse(CERT_ID_SMCB, verified(ocspResponse), Optional::empty);
+
+    final OcspValidator ocspValidator =
+        OcspValidator.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .withOcspCheck(true)
+            .ocspRespCache(cache)
+            .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_10_SECONDS * 1000)
+            .ocspTimeoutSeconds(DEFAULT_OCSP_TIMEOUT_SECONDS)
+            .ocspTransceiver(getOcspTransceiver("http://localhost:1/ocsp", false))
+            .tolerateOcspFailure(false)
+            .build();
+
+    assertThat(
+            ocspValidator
+                .validateOcsp(VALID_X509_EE_CERT_SMCB, ZonedDateTime.now(ZoneOffset.UTC))
+                .getResult())
+        .isEqualTo(OcspValidationResult.STALE_CACHED_RESPONSE);
+  }
+
+  /**
+   * A stale response which cannot be revalidated, e.g. loaded from a file store, is not used: the
+   * OCSP responder is requested synchronously.
+   */
+  @Test
+  void test_validateOcsp_StaleCachedOcspRespWithoutRefresher() throws GemPkiException {
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OCSPResp ocspResponse =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .producedAt(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(30))
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final OcspRespCache cache = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
+    cache.setMaxStaleSeconds(60);
+    cache.saveResponse(CERT_ID_SMCB, verified(ocspResponse));
+    final OcspValidator ocspValidator =
+        getOcspValidatorWithStore(cache, ocspResponderMock.getSspUrl());
+
+    assertThat(
+            ocspValidator
+                .validateOcsp(VALID_X509_EE_CERT_SMCB, ZonedDateTime.now(ZoneOffset.UTC))
+                .getResult())
+        .isEqualTo(OcspValidationResult.RECEIVED_RESPONSE);
+  }
+
+  @Test
+  void test_validateOcsp_ReceivedAndCachedOcspResp() throws GemPkiException {
+    final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
+    configureOcspResponderMockForOcspRequest();
+
+    final OcspValidator ocspValidator =
+        OcspValidator.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .withOcspCheck(true)
+            .ocspRespCache(new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS))
+            .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_10_SECONDS * 1000)
+            .ocspTimeoutSeconds(DEFAULT_OCSP_TIMEOUT_SECONDS)
+            .ocspTransceiver(getOcspTransceiver(ocspResponderMock.getSspUrl(), false))
+            .tolerateOcspFailure(false)
+            .build();
+
+    final OcspValidationOutcome received =
+        ocspValidator.validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate);
+    assertThat(received.getResult()).isEqualTo(OcspValidationResult.RECEIVED_RESPONSE);
+    // usable as long as producedAt is within the tolerance in the past
+    assertThat(received.getValidUntil().orElseThrow())
+        .isAfter(referenceDate)
+        .isBefore(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(OCSP_GRACE_PERIOD_10_SECONDS + 1));
+
+    final OcspValidationOutcome cached =
+        ocspValidator.validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate);
+    assertThat(cached.getResult()).isEqualTo(OcspValidationResult.CACHED_RESPONSE);
+    assertThat(cached.getValidUntil()).isEqualTo(received.getValidUntil());
+  }
+
+  /**
+   * Responses loaded from a file store are stored with cert hash not matched: a response with the
+   * cert hash of another certificate is not used, a response with a matching cert hash is used.
+   */
+  @Test
+  void test_validateOcsp_CachedOcspRespCertHashNotMatched() throws GemPkiException {
+    final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OCSPResp foreignCertHashResp =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .validCertHash(false)
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final OcspRespCache cache = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
+    cache.saveResponse(
+        CERT_ID_SMCB, VerifiedOcspResp.of(foreignCertHashResp, false, RESPONDER_CERT_ID_ECC));
+    final OcspValidator ocspValidator =
+        getOcspValidatorWithStore(cache, ocspResponderMock.getSspUrl());
+
+    assertThat(ocspValidator.validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate).getResult())
+        .isEqualTo(OcspValidationResult.RECEIVED_RESPONSE);
+
+    final OCSPResp matchingCertHashResp =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    cache.saveResponse(
+        CERT_ID_SMCB, VerifiedOcspResp.of(matchingCertHashResp, false, RESPONDER_CERT_ID_ECC));
+
+    assertThat(ocspValidator.validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate).getResult())
+        .isEqualTo(OcspValidationResult.CACHED_RESPONSE);
+  }
+
+  /**
+   * A stored response verified with a certificate which is not an OCSP signer of the TSL is not
+   * used, a response of a TSL OCSP signer is used.
+   */
+  @Test
+  void test_validateOcsp_CachedOcspRespResponderNotInTsl() throws GemPkiException {
+    final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
+    final OCSPReq ocspReq = configureOcspResponderMockForOcspRequest();
+    final OCSPResp ocspResp =
+        OcspResponseGenerator.builder()
+            .signer(OcspTestConstants.getOcspSignerEcc())
+            .build()
+            .generate(ocspReq, VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    final OcspRespCache cache = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
+    cache.saveResponse(CERT_ID_SMCB, VerifiedOcspResp.of(ocspResp, true, new byte[32]));
+    final OcspValidator ocspValidator =
+        getOcspValidatorWithStore(cache, ocspResponderMock.getSspUrl());
+
+    assertThat(ocspValidator.validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate).getResult())
+        .isEqualTo(OcspValidationResult.RECEIVED_RESPONSE);
+    assertThat(cache.getVerifiedResponse(CERT_ID_SMCB).orElseThrow().getResponderCertId())
+        .isEqualTo(RESPONDER_CERT_ID_ECC);
+    assertThat(ocspValidator.validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate).getResult())
+        .isEqualTo(OcspValidationResult.CACHED_RESPONSE);
+  }
+
+  @Test
+  void test_validateOcsp_WithResolvedIssuer() throws GemPkiException {
+    final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
+    configureOcspResponderMockForOcspRequest();
+    final TspServiceSubset issuerTspServiceSubset =
+        new TspInformationProvider(tspServiceList, PRODUCT_TYPE)
+            .getIssuerTspServiceSubset(VALID_X509_EE_CERT_SMCB);
+
+    final OcspValidator ocspValidator =
+        OcspValidator.builder()
+            .productType(PRODUCT_TYPE)
+            .tspServiceList(tspServiceList)
+            .withOcspCheck(true)
+            .ocspRespCache(new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS))
+            .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_10_SECONDS * 1000)
+            .ocspTimeoutSeconds(DEFAULT_OCSP_TIMEOUT_SECONDS)
+            .ocspTransceiver(getOcspTransceiver(ocspResponderMock.getSspUrl(), false))
+            .tolerateOcspFailure(false)
+            .build();
+
+    assertThat(
+            ocspValidator
+                .validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate, issuerTspServiceSubset)
+                .getResult())
+        .isEqualTo(OcspValidationResult.RECEIVED_RESPONSE);
+    assertThat(
+            ocspValidator
+                .validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate, issuerTspServiceSubset)
+                .getResult())
+        .isEqualTo(OcspValidationResult.CACHED_RESPONSE);
+  }
+
+  /**
+   * Two validators with their own local cache share a remote store: the response received by the
+   * first one is used by the second one without a request to the OCSP responder.
+   */
+  @Test
+  void test_validateOcsp_SharedRemoteStore() throws GemPkiException {
+    final ZonedDateTime referenceDate = ZonedDateTime.now(ZoneOffset.UTC);
+    configureOcspResponderMockForOcspRequest();
+
+    final OcspRespCache remoteStore = new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS);
+
+    final OcspValidator ocspValidator1 =
+        getOcspValidatorWithStore(
+            new NearCacheOcspResponseStore(
+                new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS), remoteStore),
+            ocspResponderMock.getSspUrl());
+    final OcspValidator ocspValidator2 =
+        getOcspValidatorWithStore(
+            new NearCacheOcspResponseStore(
+                new OcspRespCache(OCSP_GRACE_PERIOD_10_SECONDS), remoteStore),
+            "http://localhost:1/ocsp");
+
+    assertThat(ocspValidator1.validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate).getResult())
+        .isEqualTo(OcspValidationResult.RECEIVED_RESPONSE);
+    assertThat(ocspValidator2.validateOcsp(VALID_X509_EE_CERT_SMCB, referenceDate).getResult())
+        .isEqualTo(OcspValidationResult.CACHED_RESPONSE);
+  }
+
+  private static OcspValidator getOcspValidatorWithStore(
+      final OcspResponseStore ocspResponseStore, final String ssp) {
+    return OcspValidator.builder()
+        .productType(PRODUCT_TYPE)
+        .tspServiceList(tspServiceList)
+        .withOcspCheck(true)
+        .ocspRespCache(ocspResponseStore)
+        .ocspTimeToleranceProducedAtPastMilliseconds(OCSP_GRACE_PERIOD_10_SECONDS * 1000)
+        .ocspTimeoutSeconds(DEFAULT_OCSP_TIMEOUT_SECONDS)
+        .ocspTransceiver(getOcspTransceiver(ssp, false))
+        .tolerateOcspFailure(false)
+        .build();
+  }
 }
@@ -24,12 +24,16 @@ import static de.gematik.pki.gemlibpki.commons.TestConstants.PRODUCT_TYPE;
 import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
 import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
 import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
 import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import de.gematik.pki.gemlibpki.commons.utils.GemLibPkiUtils;
 import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
+import java.security.PublicKey;
 import java.security.cert.X509Certificate;
 import java.time.ZonedDateTime;
 import org.junit.jupiter.api.BeforeEach;
@@ -80,4 +84,79 @@ class SignatureValidatorTest {
         .isInstanceOf(GemPkiException.class)
         .hasMessage(ErrorCode.SE_1024_CERTIFICATE_NOT_VALID_MATH.getErrorMessage(PRODUCT_TYPE));
   }
+
+  @Test
+  void verifySignatureCached() throws Exception {
+    final SignatureVerificationCache signatureVerificationCache = new SignatureVerificationCache();
+    final SignatureValidator cachingValidator =
+        new SignatureValidator(PRODUCT_TYPE, VALID_ISSUER_CERT_SMCB, signatureVerificationCache);
+    final X509Certificate x509EeCert = Mockito.spy(VALID_X509_EE_CERT_SMCB);
+
+    cachingValidator.validateCertificate(x509EeCert);
+    cachingValidator.validateCertificate(x509EeCert);
+
+    Mockito.verify(x509EeCert, Mockito.times(1)).verify(Mockito.any(PublicKey.class));
+    assertThat(signatureVerificationCache.getSize()).isEqualTo(1);
+  }
+
+  @Test
+  void verifySignatureNotValidNotCached() {
+    final SignatureVerificationCache signatureVerificationCache = new SignatureVerificationCache();
+    final SignatureValidator cachingValidator =
+        new SignatureValidator(PRODUCT_TYPE, VALID_ISSUER_CERT_SMCB, signatureVerificationCache);
+    final X509Certificate invalidX509EeCert =
+        TestUtils.readCert("GEM.SMCB-CA57/invalid/BabetteBeyer-invalid-signature.pem");
+
+    assertThatThrownBy(() -> cachingValidator.validateCertificate(invalidX509EeCert))
+        .isInstanceOf(GemPkiException.class);
+    assertThat(signatureVerificationCache.getSize()).isZero();
+  }
+
+  @Test
+  void verifySignatureWithIssuerSignatureVerifier() {
+    final SignatureValidator verifierValidator =
+        new SignatureValidator(
+            PRODUCT_TYPE, new IssuerSignatureVerifier(VALID_ISSUER_CERT_SMCB), null);
+    final X509Certificate invalidX509EeCert =
+        TestUtils.readCert("GEM.SMCB-CA57/invalid/BabetteBeyer-invalid-signature.pem");
+
+    assertDoesNotThrow(() -> verifierValidator.validateCertificate(VALID_X509_EE_CERT_SMCB));
+    assertThatThrownBy(() -> verifierValidator.validateCertificate(invalidX509EeCert))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.SE_1024_CERTIFICATE_NOT_VALID_MATH.getErrorMessage(PRODUCT_TYPE));
+  }
+
+  @Test
+  void verifyParsedCertificateCached() throws Exception {
+    final SignatureVerificationCache signatureVerificationCache = new SignatureVerificationCache();
+    final SignatureValidator cachingValidator =
+        new SignatureValidator(
+            PRODUCT_TYPE,
+            new IssuerSignatureVerifier(VALID_ISSUER_CERT_SMCB),
+            signatureVerificationCache);
+    final X509Certificate x509EeCert = Mockito.spy(VALID_X509_EE_CERT_SMCB);
+    final ParsedCertificate parsedEeCert = new ParsedCertificate(x509EeCert);
+    final ZonedDateTime now = GemLibPkiUtils.now();
+
+    cachingValidator.validateParsedCertificate(parsedEeCert, now);
+    cachingValidator.validateParsedCertificate(parsedEeCert, now);
+
+    Mockito.verify(x509EeCert, Mockito.times(1)).getTBSCertificate();
+    assertThat(signatureVerificationCache.getSize()).isEqualTo(1);
+    // the entry of the parsed certificate is found for the certificate as well
+    assertThat(signatureVerificationCache.isVerified(x509EeCert, VALID_ISSUER_CERT_SMCB)).isTrue();
+
+    final ParsedCertificate invalidParsedEeCert =
+        new ParsedCertificate(
+            TestUtils.readCert("GEM.SMCB-CA57/invalid/BabetteBeyer-invalid-signature.pem"));
+    assertThatThrownBy(() -> cachingValidator.validateParsedCertificate(invalidParsedEeCert, now))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.SE_1024_CERTIFICATE_NOT_VALID_MATH.getErrorMessage(PRODUCT_TYPE));
+    assertThat(signatureVerificationCache.getSize()).isEqualTo(1);
+
+    assertNonNullParameter(
+        () -> cachingValidator.validateParsedCertificate(null, now), "parsedEeCert");
+    assertNonNullParameter(
+        () -> cachingValidator.validateParsedCertificate(parsedEeCert, null), "referenceDate");
+  }
 }
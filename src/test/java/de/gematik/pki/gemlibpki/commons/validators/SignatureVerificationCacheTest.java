@@ -0,0 +1,81 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.validators;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_ISSUER_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB;
+import static de.gematik.pki.gemlibpki.commons.TestConstants.VALID_X509_EE_CERT_SMCB_KZBV;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SignatureVerificationCacheTest {
+
+  private final SignatureVerificationCache tested = new SignatureVerificationCache();
+
+  @Test
+  void verifySaveAndGet() {
+    assertThat(tested.isVerified(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB)).isFalse();
+
+    tested.saveVerified(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+
+    assertThat(tested.isVerified(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB)).isTrue();
+    assertThat(tested.isVerified(VALID_X509_EE_CERT_SMCB_KZBV, VALID_ISSUER_CERT_SMCB)).isFalse();
+    assertThat(tested.isVerified(VALID_X509_EE_CERT_SMCB, VALID_X509_EE_CERT_SMCB)).isFalse();
+    assertThat(tested.getSize()).isEqualTo(1);
+  }
+
+  @Test
+  void verifyMaxSize() {
+    tested.setMaxSize(1);
+    tested.saveVerified(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    tested.saveVerified(VALID_X509_EE_CERT_SMCB_KZBV, VALID_ISSUER_CERT_SMCB);
+
+    assertThat(tested.getSize()).isEqualTo(1);
+    assertThat(tested.isVerified(VALID_X509_EE_CERT_SMCB_KZBV, VALID_ISSUER_CERT_SMCB)).isTrue();
+
+    tested.clear();
+    assertThat(tested.getSize()).isZero();
+  }
+
+  @Test
+  void verifyLeastRecentlyUsedVerificationIsEvicted() {
+    tested.setMaxSize(2);
+    tested.saveVerified(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB);
+    tested.saveVerified(VALID_X509_EE_CERT_SMCB_KZBV, VALID_ISSUER_CERT_SMCB);
+    assertThat(tested.isVerified(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB)).isTrue();
+
+    tested.saveVerified(VALID_X509_EE_CERT_SMCB, VALID_X509_EE_CERT_SMCB);
+
+    assertThat(tested.getMaxSize()).isEqualTo(2);
+    assertThat(tested.getSize()).isEqualTo(2);
+    assertThat(tested.isVerified(VALID_X509_EE_CERT_SMCB, VALID_ISSUER_CERT_SMCB)).isTrue();
+    assertThat(tested.isVerified(VALID_X509_EE_CERT_SMCB_KZBV, VALID_ISSUER_CERT_SMCB)).isFalse();
+  }
+
+  @Test
+  void verifyNullParameter() {
+    assertNonNullParameter(() -> tested.isVerified(null, VALID_ISSUER_CERT_SMCB), "x509EeCert");
+    assertNonNullParameter(
+        () -> tested.saveVerified(VALID_X509_EE_CERT_SMCB, null), "x509IssuerCert");
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (Change Date see Readme), gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes by gematik find details in the "Readme" file.
+ */
+
+package de.gematik.pki.gemlibpki.commons.validators;
+
+import static de.gematik.pki.gemlibpki.commons.TestConstants.PRODUCT_TYPE;
+import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+import de.gematik.pki.gemlibpki.commons.error.ErrorCode;
+import de.gematik.pki.gemlibpki.commons.exception.GemPkiException;
+import org.junit.jupiter.api.Test;
+
+class ValidationOutcomeTest {
+
+  @Test
+  void verifyValid() {
+    final ValidationOutcome outcome = ValidationOutcome.valid();
+    assertThat(outcome.isValid()).isTrue();
+    assertThat(outcome.getErrorCode()).isEmpty();
+    assertThat(outcome.getErrorMessage(PRODUCT_TYPE)).isEmpty();
+    assertThat(outcome.toException(PRODUCT_TYPE)).isEmpty();
+    assertDoesNotThrow(() -> outcome.throwIfInvalid(PRODUCT_TYPE));
+  }
+
+  @Test
+  void verifyInvalidErrorCode() {
+    final ValidationOutcome outcome = ValidationOutcome.invalid(ErrorCode.SE_1016_WRONG_KEYUSAGE);
+    assertThat(outcome.isValid()).isFalse();
+    assertThat(outcome).isSameAs(ValidationOutcome.invalid(ErrorCode.SE_1016_WRONG_KEYUSAGE));
+    assertThat(outcome.getErrorCode()).contains(ErrorCode.SE_1016_WRONG_KEYUSAGE);
+    assertThat(outcome.getErrorMessage(PRODUCT_TYPE))
+        .contains(ErrorCode.SE_1016_WRONG_KEYUSAGE.getErrorMessage(PRODUCT_TYPE));
+    assertThatThrownBy(() -> outcome.throwIfInvalid(PRODUCT_TYPE))
+        .isInstanceOf(GemPkiException.class)
+        .hasMessage(ErrorCode.SE_1016_WRONG_KEYUSAGE.getErrorMessage(PRODUCT_TYPE));
+  }
+
+  @Test
+  void verifyInvalidException() {
+    final GemPkiException exception =
+        new GemPkiException(ErrorCode.TE_1019_CERT_READ_ERROR, "message", null);
+    final ValidationOutcome outcome = ValidationOutcome.invalid(exception);
+    assertThat(outcome.getErrorCode()).contains(ErrorCode.TE_1019_CERT_READ_ERROR);
+    assertThat(outcome.getErrorMessage(PRODUCT_TYPE)).contains("message");
+    assertThat(outcome.toException(PRODUCT_TYPE)).containsSame(exception);
+  }
+
+  @Test
+  void nonNull() {
+    assertNonNullParameter(() -> ValidationOutcome.invalid((ErrorCode) null), "errorCode");
+    assertNonNullParameter(() -> ValidationOutcome.invalid((GemPkiException) null), "exception");
+    assertNonNullParameter(() -> ValidationOutcome.valid().throwIfInvalid(null), "productType");
+  }
+}
@@ -33,6 +33,7 @@ import de.gematik.pki.gemlibpki.commons.tsl.TspService;
 import de.gematik.pki.gemlibpki.commons.tsl.TspServiceSubset;
 import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -41,6 +42,7 @@ class TslBasedSspOcspTransceiverFactoryTest {
 
   private final X509Certificate eeCert = VALID_X509_EE_CERT_SMCB;
   private TslBasedSspOcspTransceiverFactory factory;
+  private TspServiceSubset tspServiceSubset;
 
   @BeforeEach
   void setup() throws GemPkiException {
@@ -48,7 +50,7 @@ class TslBasedSspOcspTransceiverFactoryTest {
     final List<TspService> tspServices =
         new TslInformationProvider(TestUtils.getTslUnsigned(FILE_NAME_TSL_ECC_DEFAULT))
             .getTspServices();
-    final TspServiceSubset tspServiceSubset =
+    tspServiceSubset =
         new TspInformationProvider(tspServices, PRODUCT_TYPE).getIssuerTspServiceSubset(eeCert);
 
     final int TIMEOUT = 5;
@@ -62,4 +64,17 @@ class TslBasedSspOcspTransceiverFactoryTest {
     final OcspTransceiver transceiver = factory.create(eeCert);
     assertNotNull(transceiver);
   }
+
+  @Test
+  void shouldCreateTransceiverWithoutServiceSupplyPoints() {
+    for (final List<String> ssps : Arrays.asList(null, List.<String>of())) {
+      final TspServiceSubset subset =
+          TspServiceSubset.builder()
+              .x509IssuerCert(tspServiceSubset.getX509IssuerCert())
+              .serviceSupplyPoint(tspServiceSubset.getServiceSupplyPoint())
+              .serviceSupplyPoints(ssps)
+              .build();
+      assertNotNull(factory.create(eeCert, subset));
+    }
+  }
 }
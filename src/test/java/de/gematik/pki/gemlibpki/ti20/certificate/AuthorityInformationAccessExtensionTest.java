@@ -23,6 +23,7 @@ package de.gematik.pki.gemlibpki.ti20.certificate;
 import static de.gematik.pki.gemlibpki.commons.utils.TestUtils.assertNonNullParameter;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import de.gematik.pki.gemlibpki.commons.certificate.ParsedCertificate;
 import de.gematik.pki.gemlibpki.commons.utils.TestUtils;
 import java.io.IOException;
 import java.security.cert.X509Certificate;
@@ -49,4 +50,17 @@ class AuthorityInformationAccessExtensionTest {
     assertThat(new AuthorityInformationAccessExtension(CERT_WITH_OCSP).getSsp())
         .isEqualTo("http://127.0.0.1:8083/ocsp/");
   }
+
+  @Test
+  void getSsps() throws IOException {
+    assertThat(new AuthorityInformationAccessExtension(CERT_WITH_OCSP).getSsps())
+        .containsExactly("http://127.0.0.1:8083/ocsp/");
+  }
+
+  @Test
+  void getSspsOfParsedCertificate() {
+    final ParsedCertificate parsedCertificate = new ParsedCertificate(CERT_WITH_OCSP);
+    assertThat(AuthorityInformationAccessExtension.of(parsedCertificate).getSsps())
+        .containsExactly("http://127.0.0.1:8083/ocsp/");
+  }
 }